@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variants of the mutators of {@link JsonDBOperations}. A mutation is applied to the collection
+ * in memory before the method returns, so it is visible to every read from then on, and written to disk
+ * by a background committer thread. The returned future completes once the mutation is written.
+ *
+ * These operations are only available with {@link JsonDBConfig#setWriteBehindEnabled(boolean)}. Invalid
+ * usage, such as inserting a document that already exists, is reported by throwing right away, a failed write
+ * completes the future exceptionally while the mutation remains in memory.
+ *
+ * Dependent actions registered with the non-async methods of the future run on the committer thread,
+ * they must not wait for other mutations of JsonDB.
+ *
+ * {@link JsonDBOperations#changeEncryption(io.jsondb.crypto.ICipher)} first waits until the mutations queued
+ * for the collections with @Secret fields are written with the old key, so their futures have completed when it
+ * returns, and a mutation made after it returns is written with the new key.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public interface AsyncJsonDBOperations {
+
+  /**
+   * Inserts a object into the collection determined by its class, see {@link JsonDBOperations#insert(Object)}
+   *
+   * @param objectToSave the object to store in the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the insert is written
+   */
+  <T> CompletableFuture<Void> insertAsync(Object objectToSave);
+
+  /**
+   * Inserts a object into the specified collection, see {@link JsonDBOperations#insert(Object, String)}
+   *
+   * @param objectToSave the object to store in the collection
+   * @param collectionName name of the collection to store the object in
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the insert is written
+   */
+  <T> CompletableFuture<Void> insertAsync(Object objectToSave, String collectionName);
+
+  /**
+   * Inserts a batch of objects into the collection determined by the entity class
+   *
+   * @param batchToSave the objects to store in the collection
+   * @param entityClass class that determines the collection to store the objects in
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the batch is written
+   */
+  <T> CompletableFuture<Void> insertAsync(Collection<? extends T> batchToSave, Class<T> entityClass);
+
+  /**
+   * Inserts a batch of objects into the specified collection
+   *
+   * @param batchToSave the objects to store in the collection
+   * @param collectionName name of the collection to store the objects in
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the batch is written
+   */
+  <T> CompletableFuture<Void> insertAsync(Collection<? extends T> batchToSave, String collectionName);
+
+  /**
+   * Replaces a existing object in the collection determined by the entity class, see {@link JsonDBOperations#save(Object, Class)}
+   *
+   * @param objectToSave the object to replace the existing object with
+   * @param entityClass class that determines the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the save is written
+   */
+  <T> CompletableFuture<Void> saveAsync(Object objectToSave, Class<T> entityClass);
+
+  /**
+   * Replaces a existing object in the specified collection, see {@link JsonDBOperations#save(Object, String)}
+   *
+   * @param objectToSave the object to replace the existing object with
+   * @param collectionName name of the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the save is written
+   */
+  <T> CompletableFuture<Void> saveAsync(Object objectToSave, String collectionName);
+
+  /**
+   * Inserts or replaces a object in the collection determined by its class, see {@link JsonDBOperations#upsert(Object)}
+   *
+   * @param objectToSave the object to upsert
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the upsert is written
+   */
+  <T> CompletableFuture<Void> upsertAsync(Object objectToSave);
+
+  /**
+   * Inserts or replaces a object in the specified collection, see {@link JsonDBOperations#upsert(Object, String)}
+   *
+   * @param objectToSave the object to upsert
+   * @param collectionName name of the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the upsert is written
+   */
+  <T> CompletableFuture<Void> upsertAsync(Object objectToSave, String collectionName);
+
+  /**
+   * Inserts or replaces a batch of objects in the collection determined by the entity class
+   *
+   * @param batchToSave the objects to upsert
+   * @param entityClass class that determines the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the batch is written
+   */
+  <T> CompletableFuture<Void> upsertAsync(Collection<? extends T> batchToSave, Class<T> entityClass);
+
+  /**
+   * Inserts or replaces a batch of objects in the specified collection
+   *
+   * @param batchToSave the objects to upsert
+   * @param collectionName name of the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes once the batch is written
+   */
+  <T> CompletableFuture<Void> upsertAsync(Collection<? extends T> batchToSave, String collectionName);
+
+  /**
+   * Removes a object from the collection determined by its class, see {@link JsonDBOperations#remove(Object)}
+   *
+   * @param objectToRemove the object to remove, only its id is used
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes with the removed object once the removal is written
+   */
+  <T> CompletableFuture<T> removeAsync(Object objectToRemove);
+
+  /**
+   * Removes a object from the collection determined by the entity class
+   *
+   * @param objectToRemove the object to remove, only its id is used
+   * @param entityClass class that determines the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes with the removed object once the removal is written
+   */
+  <T> CompletableFuture<T> removeAsync(Object objectToRemove, Class<T> entityClass);
+
+  /**
+   * Removes a object from the specified collection
+   *
+   * @param objectToRemove the object to remove, only its id is used
+   * @param collectionName name of the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes with the removed object once the removal is written
+   */
+  <T> CompletableFuture<T> removeAsync(Object objectToRemove, String collectionName);
+
+  /**
+   * Removes a batch of objects from the collection determined by the entity class
+   *
+   * @param batchToRemove the objects to remove, only their ids are used
+   * @param entityClass class that determines the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes with the removed objects once the removal is written,
+   *         or with null if none of the objects were found
+   */
+  <T> CompletableFuture<List<T>> removeAsync(Collection<? extends T> batchToRemove, Class<T> entityClass);
+
+  /**
+   * Removes a batch of objects from the specified collection
+   *
+   * @param batchToRemove the objects to remove, only their ids are used
+   * @param collectionName name of the collection
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return future that completes with the removed objects once the removal is written,
+   *         or with null if none of the objects were found
+   */
+  <T> CompletableFuture<List<T>> removeAsync(Collection<? extends T> batchToRemove, String collectionName);
+}
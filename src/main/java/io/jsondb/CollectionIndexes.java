@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import io.jsondb.CollectionVersion.Slot;
+import io.jsondb.query.Range;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The indexes of the @Indexed fields of one published version of a collection, from the values of a field
+ * to the ids of the documents having them. Every index is a {@link PersistentTree} in the order of the values,
+ * to a bucket of ids that is a PersistentTree in the order of the positions of the documents, so the ids of a
+ * value come in collection order. A hash index is only looked up by value, a range index also by its order.
+ *
+ * The values are kept the way JXPath compares them with a literal, numbers as their double value and Strings
+ * and enums as their String value, so a lookup finds exactly the documents a JXPath equality predicate would.
+ * JXPath compares a null number as 0, so that is how it is indexed. Any other null value is never indexed,
+ * JXPath only finds it equal to the empty String, which is never looked up. Dates and times are kept as they
+ * are, JXPath compares them as their String value, which is the same for equal values.
+ *
+ * JXPath compares with less or greater than only as numbers, a String or a date is never less or greater than
+ * anything to it. So only the range indexes of number fields are looked up for such predicates, the order of
+ * the others is only used by range queries, see {@link JsonDBOperations#findRange(Range, String)}.
+ *
+ * If the ids of the collection are Comparable, every range index also has a page order, a PersistentTree of the
+ * pairs of a value and a id in the order of the values and then the ids, which keyset pagination by the field
+ * continues in, see {@link JsonDBOperations#findPage(String, String, String, int, String)}.
+ *
+ * Like the version they index, the indexes are never changed once published. The indexes of the next version
+ * are derived from the previous ones by indexing again only the documents the write replaced, and share all
+ * other nodes of the trees with them.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+class CollectionIndexes {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> VALUE_ORDER = (Comparator) Comparator.naturalOrder();
+    private static final Comparator<Long> POSITION_ORDER = Comparator.naturalOrder();
+    private static final Comparator<Entry<Object, Object>> PAGE_ORDER = Comparator.<Entry<Object, Object>, Object>comparing(Entry::getKey, VALUE_ORDER)
+            .thenComparing(Entry::getValue, VALUE_ORDER);
+
+    private final CollectionVersion<?> version;
+    private final Map<String, PersistentTree<Object, PersistentTree<Long, Object>>> indexes;
+    private final Map<String, Class<?>> types;
+    private final List<String> rangeFields;
+    private final Map<String, PersistentTree<Entry<Object, Object>, Object>> pageOrders;
+
+    private CollectionIndexes(CollectionVersion<?> version, Map<String, PersistentTree<Object, PersistentTree<Long, Object>>> indexes,
+            Map<String, Class<?>> types, List<String> rangeFields, Map<String, PersistentTree<Entry<Object, Object>, Object>> pageOrders) {
+        this.version = version;
+        this.indexes = indexes;
+        this.types = types;
+        this.rangeFields = rangeFields;
+        this.pageOrders = pageOrders;
+    }
+
+    static boolean isIndexable(Class<?> type) {
+        return String.class == type || type.isEnum() || isNumeric(type);
+    }
+
+    static boolean isRangeIndexable(Class<?> type) {
+        return String.class == type || isNumeric(type) || isTemporal(type);
+    }
+
+    private static boolean isNumeric(Class<?> type) {
+        return Number.class.isAssignableFrom(type) || (type.isPrimitive() && boolean.class != type && char.class != type);
+    }
+
+    /**
+     * The dates, times and durations of java.time, which all have a natural order and a parse method
+     */
+    private static boolean isTemporal(Class<?> type) {
+        return "java.time".equals(type.getPackageName()) && Comparable.class.isAssignableFrom(type) && !type.isEnum();
+    }
+
+    /**
+     * Indexes a version of a collection. If the previous indexes are of the version the new one was edited from,
+     * only the documents the edit replaced are indexed again.
+     *
+     * @param cmd the metadata of the collection
+     * @param previous the indexes published with the previous version, may be null
+     * @param edit the edit the new version was made by, null for a version that was loaded
+     * @param version the new version
+     * @return the indexes of the new version
+     */
+    static CollectionIndexes next(CollectionMetaData cmd, CollectionIndexes previous, CollectionVersion.Editor<?> edit, CollectionVersion<?> version) {
+        if (null == previous || null == edit || previous.version != edit.getBase()) {
+            return build(cmd, version);
+        }
+        Map<String, PersistentTree<Object, PersistentTree<Long, Object>>> indexes = new HashMap<>(previous.indexes);
+        Map<String, PersistentTree<Entry<Object, Object>, Object>> pageOrders = new HashMap<>(previous.pageOrders);
+        for (Entry<Object, ? extends Slot<?>> replaced : edit.getReplaced().entrySet()) {
+            Slot<?> before = replaced.getValue();
+            Slot<?> after = version.slot(replaced.getKey());
+            boolean samePosition = null != before && null != after && before.getPosition() == after.getPosition();
+            if (samePosition && before.getValue() == after.getValue()) {
+                continue;
+            }
+            for (Entry<String, PersistentTree<Object, PersistentTree<Long, Object>>> index : indexes.entrySet()) {
+                String field = index.getKey();
+                Object beforeKey = null == before ? null : documentKey(cmd, field, previous.types.get(field), before.getValue());
+                Object afterKey = null == after ? null : documentKey(cmd, field, previous.types.get(field), after.getValue());
+                if (samePosition && Objects.equals(beforeKey, afterKey)) {
+                    continue;
+                }
+                PersistentTree<Object, PersistentTree<Long, Object>> values = index.getValue();
+                if (null != beforeKey) {
+                    PersistentTree<Long, Object> ids = values.get(beforeKey).remove(before.getPosition());
+                    values = ids.isEmpty() ? values.remove(beforeKey) : values.put(beforeKey, ids);
+                }
+                if (null != afterKey) {
+                    PersistentTree<Long, Object> ids = values.get(afterKey);
+                    ids = null == ids ? PersistentTree.empty(POSITION_ORDER) : ids;
+                    values = values.put(afterKey, ids.put(after.getPosition(), after.getKey()));
+                }
+                index.setValue(values);
+                PersistentTree<Entry<Object, Object>, Object> pageOrder = pageOrders.get(field);
+                if (null != pageOrder && !Objects.equals(beforeKey, afterKey)) {
+                    if (null != beforeKey) {
+                        pageOrder = pageOrder.remove(new SimpleImmutableEntry<>(beforeKey, replaced.getKey()));
+                    }
+                    if (null != afterKey) {
+                        pageOrder = pageOrder.put(new SimpleImmutableEntry<>(afterKey, replaced.getKey()), replaced.getKey());
+                    }
+                    pageOrders.put(field, pageOrder);
+                }
+            }
+        }
+        return new CollectionIndexes(version, indexes, previous.types, previous.rangeFields, pageOrders);
+    }
+
+    private static CollectionIndexes build(CollectionMetaData cmd, CollectionVersion<?> version) {
+        Map<String, Class<?>> types = new HashMap<>();
+        Map<String, TreeMap<Object, List<Entry<Long, Object>>>> grouped = new HashMap<>();
+        Map<String, List<Entry<Entry<Object, Object>, Object>>> paged = new HashMap<>();
+        for (String field : cmd.getIndexedFieldNames()) {
+            types.put(field, cmd.getGetterMethodForFieldName(field).getReturnType());
+            grouped.put(field, new TreeMap<>(VALUE_ORDER));
+        }
+        if (version.isSorted()) {
+            for (String field : cmd.getRangeIndexedFieldNames()) {
+                paged.put(field, new ArrayList<>());
+            }
+        }
+        for (Iterator<? extends Slot<?>> slots = version.slotIterator(); slots.hasNext();) {
+            Slot<?> slot = slots.next();
+            for (Entry<String, TreeMap<Object, List<Entry<Long, Object>>>> index : grouped.entrySet()) {
+                Object key = documentKey(cmd, index.getKey(), types.get(index.getKey()), slot.getValue());
+                if (null != key) {
+                    index.getValue().computeIfAbsent(key, k -> new ArrayList<>()).add(new SimpleImmutableEntry<>(slot.getPosition(), slot.getKey()));
+                    List<Entry<Entry<Object, Object>, Object>> pageOrder = paged.get(index.getKey());
+                    if (null != pageOrder) {
+                        pageOrder.add(new SimpleImmutableEntry<>(new SimpleImmutableEntry<>(key, slot.getKey()), slot.getKey()));
+                    }
+                }
+            }
+        }
+        Map<String, PersistentTree<Object, PersistentTree<Long, Object>>> indexes = new HashMap<>();
+        for (Entry<String, TreeMap<Object, List<Entry<Long, Object>>>> index : grouped.entrySet()) {
+            List<Entry<Object, PersistentTree<Long, Object>>> values = new ArrayList<>(index.getValue().size());
+            for (Entry<Object, List<Entry<Long, Object>>> value : index.getValue().entrySet()) {
+                values.add(new SimpleImmutableEntry<>(value.getKey(), PersistentTree.fromSorted(POSITION_ORDER, value.getValue())));
+            }
+            indexes.put(index.getKey(), PersistentTree.fromSorted(VALUE_ORDER, values));
+        }
+        Map<String, PersistentTree<Entry<Object, Object>, Object>> pageOrders = new HashMap<>();
+        for (Entry<String, List<Entry<Entry<Object, Object>, Object>>> pageOrder : paged.entrySet()) {
+            pageOrder.getValue().sort(Entry.comparingByKey(PAGE_ORDER));
+            pageOrders.put(pageOrder.getKey(), PersistentTree.fromSorted(PAGE_ORDER, pageOrder.getValue()));
+        }
+        return new CollectionIndexes(version, indexes, types, new ArrayList<>(cmd.getRangeIndexedFieldNames()), pageOrders);
+    }
+
+    private static Object documentKey(CollectionMetaData cmd, String field, Class<?> type, Object document) {
+        Method getter = cmd.getGetterMethodForFieldName(field);
+        try {
+            return key(getter.invoke(document), type);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new JsonDBException("Failed to read the @Indexed field " + field + " of collection: " + cmd.getCollectionName(), e);
+        }
+    }
+
+    private static Object key(Object value, Class<?> type) {
+        if (isNumeric(type)) {
+            return numberKey(null == value ? 0 : ((Number) value).doubleValue());
+        }
+        if (null == value) {
+            return null;
+        }
+        return isTemporal(type) ? value : value.toString();
+    }
+
+    private static Double numberKey(double d) {
+        if (Double.isNaN(d)) {
+            return null;
+        }
+        return d == 0 ? 0.0d : d; // -0.0 equals 0.0 when compared as numbers
+    }
+
+    private static Double numberKey(String literal) {
+        try {
+            double d = Double.parseDouble(literal);
+            return Double.isFinite(d) ? numberKey(d) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    boolean isIndexed(String field) {
+        return indexes.containsKey(field);
+    }
+
+    /**
+     * The key to look up for a equality predicate of a field with a literal, if the index can answer it.
+     *
+     * @param field a indexed field
+     * @param literal the literal the field is compared with
+     * @param quoted true if the literal is a String, false if it is a number
+     * @return the key, or null if the predicate has to be evaluated by JXPath
+     */
+    Object keyOf(String field, String literal, boolean quoted) {
+        Class<?> type = types.get(field);
+        if (isNumeric(type)) {
+            return numberKey(literal);
+        }
+        // A String field is compared as a number with a number, and a null field equals the empty String
+        if (!quoted || literal.isEmpty()) {
+            return null;
+        }
+        if (!isTemporal(type)) {
+            return literal;
+        }
+        // A date is compared as its String, only a literal it prints as again is the same value
+        try {
+            Object value = type.getMethod("parse", CharSequence.class).invoke(null, literal);
+            return literal.equals(value.toString()) ? value : null;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param field a indexed field
+     * @param key a key returned by {@link #keyOf(String, String, boolean)}
+     * @return the ids of the documents whose field has the key, in collection order
+     */
+    Set<Object> ids(String field, Object key) {
+        PersistentTree<Long, Object> ids = indexes.get(field).get(key);
+        return null == ids ? Collections.emptySet() : new Bucket(ids);
+    }
+
+    /**
+     * The ids of the documents a less or greater than predicate of a field with a literal is true for,
+     * if the index can answer it.
+     *
+     * @param field a indexed field
+     * @param operator one of &lt;, &lt;=, &gt; and &gt;=, with the field on the left
+     * @param literal the literal the field is compared with
+     * @return the ids, or null if the predicate has to be evaluated by JXPath
+     */
+    Set<Object> ids(String field, String operator, String literal) {
+        Double key = numberKey(literal);
+        if (!rangeFields.contains(field) || !isNumeric(types.get(field)) || null == key) {
+            return null;
+        }
+        PersistentTree<Object, PersistentTree<Long, Object>> values = indexes.get(field);
+        Iterator<Entry<Object, PersistentTree<Long, Object>>> range;
+        switch (operator) {
+            case "<":
+                range = values.iterator(null, false, key, false, false);
+                break;
+            case "<=":
+                range = values.iterator(null, false, key, true, false);
+                break;
+            case ">":
+                range = values.iterator(key, false, null, false, false);
+                break;
+            case ">=":
+                range = values.iterator(key, true, null, false, false);
+                break;
+            default:
+                return null;
+        }
+        Set<Object> ids = new HashSet<>();
+        while (range.hasNext()) {
+            ids.addAll(new Bucket(range.next().getValue()));
+        }
+        return ids;
+    }
+
+    /**
+     * The ids of the documents whose field is within a range, in the order of the values of the field,
+     * the documents with the same value in collection order.
+     *
+     * @param range a range of a field with a range index
+     * @return the ids
+     */
+    @SuppressWarnings("unchecked")
+    List<Object> idsInOrder(Range range) {
+        PersistentTree<Object, PersistentTree<Long, Object>> values = indexes.get(range.getField());
+        Class<?> type = types.get(range.getField());
+        Object from = null == range.getFrom() ? null : boundKey(range.getField(), type, range.getFrom());
+        Object to = null == range.getTo() ? null : boundKey(range.getField(), type, range.getTo());
+        if (null != from && null != to) {
+            int order = ((Comparable<Object>) from).compareTo(to);
+            if (order > 0 || (order == 0 && !(range.isFromInclusive() && range.isToInclusive()))) {
+                return Collections.emptyList();
+            }
+        }
+        Iterator<Entry<Object, PersistentTree<Long, Object>>> buckets = values.iterator(from, range.isFromInclusive(), to,
+                range.isToInclusive(), range.isDescending());
+        int limit = range.getLimit() > 0 ? range.getLimit() : Integer.MAX_VALUE;
+        List<Object> ids = new ArrayList<>();
+        while (buckets.hasNext()) {
+            for (Object id : new Bucket(buckets.next().getValue())) {
+                ids.add(id);
+                if (ids.size() == limit) {
+                    return ids;
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @param field a field with a range index
+     * @return the type of the values of the field in the index, what a continuation token has to be read as
+     */
+    Class<?> keyType(String field) {
+        Class<?> type = types.get(field);
+        return isNumeric(type) ? Double.class : isTemporal(type) ? type : String.class;
+    }
+
+    /**
+     * The pairs of a value of a field and a id that come after a given pair in the page order of the field,
+     * the documents whose field has no value in the index are not in it.
+     *
+     * @param field a field with a range index, of a collection whose ids are Comparable
+     * @param key the value of the pair to continue after, null to start at the lowest value
+     * @param id the id of the pair to continue after
+     * @return the pairs in page order
+     */
+    Iterator<Entry<Object, Object>> pageAfter(String field, Object key, Object id) {
+        Iterator<Entry<Entry<Object, Object>, Object>> entries = pageOrders.get(field).iterator(null == key ? null : new SimpleImmutableEntry<>(key, id),
+                false, null, false, false);
+        return new Iterator<Entry<Object, Object>>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Entry<Object, Object> next() {
+                return entries.next().getKey();
+            }
+        };
+    }
+
+    private static Object boundKey(String field, Class<?> type, Object bound) {
+        if (isNumeric(type)) {
+            Double key = bound instanceof Number ? numberKey(((Number) bound).doubleValue()) : null;
+            if (null != key) {
+                return key;
+            }
+        } else if (isTemporal(type) ? type.isInstance(bound) : bound instanceof String) {
+            return bound;
+        }
+        throw new InvalidJsonDbApiUsageException("Bound " + bound + " of a range cannot be compared with field '" + field + "' of type " + type.getSimpleName());
+    }
+
+    /**
+     * The ids of the documents with one value of a field, a view of its bucket.
+     */
+    private final class Bucket extends AbstractSet<Object> {
+        private final PersistentTree<Long, Object> ids;
+
+        private Bucket(PersistentTree<Long, Object> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public int size() {
+            return ids.size();
+        }
+
+        @Override
+        public boolean contains(Object id) {
+            long position = version.position(id);
+            return position >= 0 && ids.containsKey(position);
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            Iterator<Entry<Long, Object>> entries = ids.iterator();
+            return new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    return entries.next().getValue();
+                }
+            };
+        }
+    }
+}
@@ -22,7 +22,9 @@ package io.jsondb;
 
 import io.jsondb.annotation.Document;
 import io.jsondb.annotation.Id;
+import io.jsondb.annotation.Indexed;
 import io.jsondb.annotation.Secret;
+import io.jsondb.io.SerializedDocumentCache;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -33,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import lombok.Getter;
 import org.reflections.Reflections;
@@ -62,9 +65,32 @@ public class CollectionMetaData {
 
     @Getter
     private final ReentrantReadWriteLock collectionLock;
+    /**
+     * Incremented every time the .json file of the collection is replaced as a whole.
+     */
+    private final AtomicLong fileGeneration = new AtomicLong();
+    /**
+     * Incremented every time the documents of the collection in memory are replaced by loading, creating
+     * or dropping the collection, rather than derived from the previous version by a write.
+     */
+    private final AtomicLong loadGeneration = new AtomicLong();
+    /**
+     * Set once writes that were applied in memory could not be written to disk, the collection in memory then
+     * has changes the files do not have. Writes are refused until the collection is reloaded or dropped.
+     */
+    private volatile boolean writesFailed;
+    /**
+     * The last serialized form of the documents, reused by the writes of the collection file.
+     */
+    @Getter
+    private final SerializedDocumentCache serializedDocuments = new SerializedDocumentCache();
 
     @Getter
     private List<String> secretAnnotatedFieldNames = new ArrayList<>();
+    @Getter
+    private List<String> indexedFieldNames = new ArrayList<>();
+    @Getter
+    private List<String> rangeIndexedFieldNames = new ArrayList<>();
     private Map<String, Method> getterMethodMap = new TreeMap<>();
     private Map<String, Method> setterMethodMap = new TreeMap<>();
 
@@ -80,6 +106,7 @@ public class CollectionMetaData {
         this.clazz = clazz;
 
         this.collectionLock = new ReentrantReadWriteLock();
+        Util.prepareDeepCopy(clazz);
 
         // Populate the class metadata
         List<Field[]> fields = new ArrayList<>();
@@ -117,6 +144,19 @@ public class CollectionMetaData {
                     this.secretAnnotatedFieldNames.add(fieldName);
                     this.hasSecret = true;
                 }
+                if (a.annotationType().equals(Indexed.class)) {
+                    if (((Indexed) a).type() == Indexed.Type.RANGE) {
+                        if (!CollectionIndexes.isRangeIndexable(f.getType())) {
+                            throw new InvalidJsonDbApiUsageException("@Indexed(type = RANGE) field %s of %s must be a String, number or java.time type"
+                                    .formatted(fieldName, clazz.getCanonicalName()));
+                        }
+                        this.rangeIndexedFieldNames.add(fieldName);
+                    } else if (!CollectionIndexes.isIndexable(f.getType())) {
+                        throw new InvalidJsonDbApiUsageException("@Indexed field %s of %s must be a String, enum or number"
+                                .formatted(fieldName, clazz.getCanonicalName()));
+                    }
+                    this.indexedFieldNames.add(fieldName);
+                }
             }
 
             String getterMethodName = formGetterMethodName(f);
@@ -134,6 +174,12 @@ public class CollectionMetaData {
         if (idAnnotatedFieldName == null) {
             throw new InvalidJsonDbApiUsageException("Document %s is missing an Id annotated field".formatted(clazz.getCanonicalName()));
         }
+        for (String indexedFieldName : indexedFieldNames) {
+            if (secretAnnotatedFieldNames.contains(indexedFieldName) || !getterMethodMap.containsKey(indexedFieldName)) {
+                throw new InvalidJsonDbApiUsageException("@Indexed field %s of %s must have a getter and cannot be @Secret"
+                        .formatted(indexedFieldName, clazz.getCanonicalName()));
+            }
+        }
         this.idAnnotatedFieldGetterMethod = getterMethodMap.get(idAnnotatedFieldName);
         this.idAnnotatedFieldSetterMethod = setterMethodMap.get(idAnnotatedFieldName);
     }
@@ -148,6 +194,30 @@ public class CollectionMetaData {
         }
     }
 
+    public long getFileGeneration() {
+        return fileGeneration.get();
+    }
+
+    public void incrementFileGeneration() {
+        fileGeneration.incrementAndGet();
+    }
+
+    public long getLoadGeneration() {
+        return loadGeneration.get();
+    }
+
+    public void incrementLoadGeneration() {
+        loadGeneration.incrementAndGet();
+    }
+
+    boolean isWritesFailed() {
+        return writesFailed;
+    }
+
+    void setWritesFailed(boolean writesFailed) {
+        this.writesFailed = writesFailed;
+    }
+
     public boolean isSecretField(String fieldName) {
         return secretAnnotatedFieldNames.contains(fieldName);
     }
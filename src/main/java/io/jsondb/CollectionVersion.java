@@ -0,0 +1,516 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import com.google.common.primitives.Primitives;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * One version of the documents of a collection, a Map from the ids to the documents in collection order, the
+ * order the documents were first put in. A version is never changed, a writer edits a copy and publishes that as
+ * the next version. The copy shares all but a few nodes with the version it was made from, see
+ * {@link PersistentTree}, so a write costs the same however big the collection is.
+ *
+ * Every document has a position that grows with every document put into the collection, its place in collection
+ * order. The ids are kept in their natural order if they are Comparable, and by their hash codes otherwise.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+final class CollectionVersion<T> extends AbstractMap<Object, T> {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> NATURAL_ORDER = (Comparator) Comparator.naturalOrder();
+    private static final Comparator<Object> HASH_ORDER = Comparator.comparingInt(Object::hashCode);
+    private static final Comparator<Long> POSITION_ORDER = Comparator.naturalOrder();
+
+    /**
+     * A document, its id and its position in collection order.
+     */
+    static final class Slot<T> implements Map.Entry<Object, T> {
+        private final Object id;
+        private final T document;
+        private final long position;
+
+        private Slot(Object id, T document, long position) {
+            this.id = id;
+            this.document = document;
+            this.position = position;
+        }
+
+        @Override
+        public Object getKey() {
+            return id;
+        }
+
+        @Override
+        public T getValue() {
+            return document;
+        }
+
+        long getPosition() {
+            return position;
+        }
+
+        @Override
+        public T setValue(T value) {
+            throw new UnsupportedOperationException("A published version of a collection is never changed");
+        }
+    }
+
+    private final boolean sorted;
+    /**
+     * From the ids to their slots, or from the hash codes of the ids to arrays of their slots if the ids are not sorted.
+     */
+    private final PersistentTree<Object, Object> ids;
+    private final PersistentTree<Long, Slot<T>> slots;
+    private final long nextPosition;
+    private Values values;
+    private EntrySet entrySet;
+
+    private CollectionVersion(boolean sorted, PersistentTree<Object, Object> ids, PersistentTree<Long, Slot<T>> slots, long nextPosition) {
+        this.sorted = sorted;
+        this.ids = ids;
+        this.slots = slots;
+        this.nextPosition = nextPosition;
+    }
+
+    /**
+     * @param documents the documents in collection order
+     * @param sorted true if the ids are Comparable with each other
+     * @return a version of the documents
+     */
+    static <T> CollectionVersion<T> of(Map<Object, T> documents, boolean sorted) {
+        List<Slot<T>> slotList = new ArrayList<>(documents.size());
+        long position = 0;
+        for (Map.Entry<Object, T> entry : documents.entrySet()) {
+            slotList.add(new Slot<>(entry.getKey(), entry.getValue(), position++));
+        }
+        List<Map.Entry<Long, Slot<T>>> byPosition = new ArrayList<>(slotList.size());
+        for (Slot<T> slot : slotList) {
+            byPosition.add(new SimpleImmutableEntry<>(slot.position, slot));
+        }
+        PersistentTree<Object, Object> ids;
+        if (sorted) {
+            slotList.sort((a, b) -> NATURAL_ORDER.compare(a.id, b.id));
+            List<Map.Entry<Object, Object>> byId = new ArrayList<>(slotList.size());
+            for (Slot<T> slot : slotList) {
+                byId.add(new SimpleImmutableEntry<>(slot.id, slot));
+            }
+            ids = PersistentTree.fromSorted(NATURAL_ORDER, byId);
+        } else {
+            ids = PersistentTree.empty(HASH_ORDER);
+            for (Slot<T> slot : slotList) {
+                ids = withSlot(ids, slot);
+            }
+        }
+        return new CollectionVersion<>(sorted, ids, PersistentTree.fromSorted(POSITION_ORDER, byPosition), position);
+    }
+
+    /**
+     * @param idType the type of the ids of a collection
+     * @return true if ids of the type are Comparable with each other
+     */
+    static boolean isSortable(Class<?> idType) {
+        Class<?> type = Primitives.wrap(idType);
+        return Comparable.class.isAssignableFrom(type) && !type.isInterface();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Slot<T> slot(PersistentTree<Object, Object> ids, boolean sorted, Object id) {
+        if (null == id) {
+            return null;
+        }
+        if (sorted) {
+            return (Slot<T>) ids.get(id);
+        }
+        Object[] bucket = (Object[]) ids.get(id);
+        if (null != bucket) {
+            for (Object slot : bucket) {
+                if (((Slot<T>) slot).id.equals(id)) {
+                    return (Slot<T>) slot;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the ids with the slot in place of the one of the same id, of a unsorted version
+     */
+    private static PersistentTree<Object, Object> withSlot(PersistentTree<Object, Object> ids, Slot<?> slot) {
+        Object[] bucket = (Object[]) ids.get(slot.id);
+        if (null == bucket) {
+            return ids.put(slot.id, new Object[] {slot});
+        }
+        Object[] newBucket = Arrays.copyOf(bucket, bucket.length + 1);
+        for (int i = 0; i < bucket.length; i++) {
+            if (((Slot<?>) bucket[i]).id.equals(slot.id)) {
+                newBucket = bucket.clone();
+                newBucket[i] = slot;
+                return ids.put(slot.id, newBucket);
+            }
+        }
+        newBucket[bucket.length] = slot;
+        return ids.put(slot.id, newBucket);
+    }
+
+    /**
+     * @return the ids without the slot of the id, of a unsorted version
+     */
+    private static PersistentTree<Object, Object> withoutSlot(PersistentTree<Object, Object> ids, Object id) {
+        Object[] bucket = (Object[]) ids.get(id);
+        if (null == bucket) {
+            return ids;
+        }
+        if (bucket.length == 1) {
+            return ids.remove(id);
+        }
+        List<Object> newBucket = new ArrayList<>(Arrays.asList(bucket));
+        newBucket.removeIf(slot -> ((Slot<?>) slot).id.equals(id));
+        return ids.put(((Slot<?>) newBucket.get(0)).id, newBucket.toArray());
+    }
+
+    /**
+     * @return a editable copy of this version
+     */
+    Editor<T> edit() {
+        return new Editor<>(this);
+    }
+
+    /**
+     * @param id a id
+     * @return the slot of the document with the id, or null if there is none
+     */
+    Slot<T> slot(Object id) {
+        return slot(ids, sorted, id);
+    }
+
+    /**
+     * @param id a id
+     * @return the position of the document in collection order, or -1 if there is no document with the id
+     */
+    long position(Object id) {
+        Slot<T> slot = slot(id);
+        return null == slot ? -1 : slot.position;
+    }
+
+    /**
+     * @return true if the ids are kept in their natural order
+     */
+    boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * @param id the id to continue after, null to start at the lowest id
+     * @return the ids greater than the id in their natural order, of a version whose ids are sorted
+     */
+    Iterator<Object> idsAfter(Object id) {
+        Iterator<Map.Entry<Object, Object>> entries = ids.iterator(id, false, null, false, false);
+        return new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                return entries.next().getKey();
+            }
+        };
+    }
+
+    /**
+     * @param ids ids of documents of this version
+     * @return the ids in collection order
+     */
+    List<Object> inCollectionOrder(Collection<Object> ids) {
+        if (ids.size() > size() / 8) {
+            // Many ids are faster to pick out of the version than to sort
+            Set<Object> wanted = ids instanceof Set ? (Set<Object>) ids : new HashSet<>(ids);
+            List<Object> ordered = new ArrayList<>(ids.size());
+            for (Object id : keySet()) {
+                if (wanted.contains(id)) {
+                    ordered.add(id);
+                }
+            }
+            return ordered;
+        }
+        List<Object> ordered = new ArrayList<>(ids);
+        if (ordered.size() > 1) {
+            ordered.sort(Comparator.comparingLong(this::position));
+        }
+        return ordered;
+    }
+
+    /**
+     * @return the slots of the documents in collection order
+     */
+    Iterator<Slot<T>> slotIterator() {
+        Iterator<Map.Entry<Long, Slot<T>>> entries = slots.iterator();
+        return new Iterator<Slot<T>>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Slot<T> next() {
+                return entries.next().getValue();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return null != slot(key);
+    }
+
+    @Override
+    public T get(Object key) {
+        Slot<T> slot = slot(key);
+        return null == slot ? null : slot.document;
+    }
+
+    @Override
+    public Set<Map.Entry<Object, T>> entrySet() {
+        if (null == entrySet) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    /**
+     * @return the documents in collection order, a List so JXPath reaches every document by its position
+     */
+    @Override
+    public List<T> values() {
+        if (null == values) {
+            values = new Values();
+        }
+        return values;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Object, T>> {
+        @Override
+        public int size() {
+            return slots.size();
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Iterator<Map.Entry<Object, T>> iterator() {
+            return (Iterator) slotIterator();
+        }
+    }
+
+    private final class Values extends AbstractList<T> implements RandomAccess {
+        @Override
+        public T get(int index) {
+            return slots.getAt(index).getValue().document;
+        }
+
+        @Override
+        public int size() {
+            return slots.size();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            Iterator<Map.Entry<Long, Slot<T>>> entries = slots.iterator();
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return entries.next().getValue().document;
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return new ValuesSpliterator(0, slots.size());
+        }
+    }
+
+    /**
+     * Walks the documents from one position to another, and splits in halves by position for parallel streams.
+     */
+    private final class ValuesSpliterator implements Spliterator<T> {
+        private int index;
+        private final int end;
+        private Iterator<Map.Entry<Long, Slot<T>>> entries;
+
+        private ValuesSpliterator(int index, int end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= end) {
+                return false;
+            }
+            if (null == entries) {
+                entries = slots.iterator(index);
+            }
+            index++;
+            action.accept(entries.next().getValue().document);
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (index + end) >>> 1;
+            if (null != entries || middle <= index) {
+                return null;
+            }
+            Spliterator<T> prefix = new ValuesSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * A editable copy of a version. It records the documents it replaces, so the indexes of the version it
+     * publishes are derived from the ones of the version it was made from by indexing just those documents again.
+     */
+    static final class Editor<T> extends AbstractMap<Object, T> {
+        private final CollectionVersion<T> base;
+        private PersistentTree<Object, Object> ids;
+        private PersistentTree<Long, Slot<T>> slots;
+        private long nextPosition;
+        private final Map<Object, Slot<T>> replaced = new HashMap<>();
+
+        private Editor(CollectionVersion<T> base) {
+            this.base = base;
+            this.ids = base.ids;
+            this.slots = base.slots;
+            this.nextPosition = base.nextPosition;
+        }
+
+        /**
+         * @return the version this copy was made from
+         */
+        CollectionVersion<T> getBase() {
+            return base;
+        }
+
+        /**
+         * @return the ids of the documents put or removed, to their slots in the version this copy was made from,
+         *         null for a document that was not in it
+         */
+        Map<Object, Slot<T>> getReplaced() {
+            return replaced;
+        }
+
+        /**
+         * @return a version of the documents as they are now
+         */
+        CollectionVersion<T> toVersion() {
+            return new CollectionVersion<>(base.sorted, ids, slots, nextPosition);
+        }
+
+        private Slot<T> slot(Object id) {
+            return CollectionVersion.slot(ids, base.sorted, id);
+        }
+
+        @Override
+        public T put(Object id, T document) {
+            if (!replaced.containsKey(id)) {
+                replaced.put(id, base.slot(id));
+            }
+            Slot<T> previous = slot(id);
+            Slot<T> slot = new Slot<>(id, document, null == previous ? nextPosition++ : previous.position);
+            ids = base.sorted ? ids.put(id, slot) : withSlot(ids, slot);
+            slots = slots.put(slot.position, slot);
+            return null == previous ? null : previous.document;
+        }
+
+        @Override
+        public T remove(Object id) {
+            Slot<T> previous = slot(id);
+            if (null == previous) {
+                return null;
+            }
+            if (!replaced.containsKey(id)) {
+                replaced.put(id, base.slot(id));
+            }
+            ids = base.sorted ? ids.remove(id) : withoutSlot(ids, id);
+            slots = slots.remove(previous.position);
+            return previous.document;
+        }
+
+        @Override
+        public int size() {
+            return slots.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return null != slot(key);
+        }
+
+        @Override
+        public T get(Object key) {
+            Slot<T> slot = slot(key);
+            return null == slot ? null : slot.document;
+        }
+
+        @Override
+        public Set<Map.Entry<Object, T>> entrySet() {
+            return toVersion().entrySet();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import lombok.Getter;
+
+/**
+ * Running totals of the compactions carried out for a single collection.
+ *
+ * A compaction writes the live documents of a collection to a fresh .json file and
+ * drops the records of the operation log that are contained in it.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Getter
+public class CompactionStats {
+    private final String collectionName;
+    private long compactions;
+    private long bytesWritten;
+    private long bytesReclaimed;
+    private long totalDurationMillis;
+    private long lastDurationMillis;
+    private long lastCompactionTime;
+
+    public CompactionStats(String collectionName) {
+        this.collectionName = collectionName;
+    }
+
+    private CompactionStats(CompactionStats other) {
+        this.collectionName = other.collectionName;
+        this.compactions = other.compactions;
+        this.bytesWritten = other.bytesWritten;
+        this.bytesReclaimed = other.bytesReclaimed;
+        this.totalDurationMillis = other.totalDurationMillis;
+        this.lastDurationMillis = other.lastDurationMillis;
+        this.lastCompactionTime = other.lastCompactionTime;
+    }
+
+    synchronized void record(long bytesWritten, long bytesReclaimed, long durationMillis) {
+        this.compactions++;
+        this.bytesWritten += bytesWritten;
+        this.bytesReclaimed += Math.max(0, bytesReclaimed);
+        this.totalDurationMillis += durationMillis;
+        this.lastDurationMillis = durationMillis;
+        this.lastCompactionTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return a copy of the current totals that will not change anymore
+     */
+    synchronized CompactionStats copy() {
+        return new CompactionStats(this);
+    }
+}
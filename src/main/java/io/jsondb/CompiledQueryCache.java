@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.commons.jxpath.CompiledExpression;
+import org.apache.commons.jxpath.JXPathContext;
+
+/**
+ * A bounded cache of compiled JXPath queries, keyed by the query string, so a query that is run again
+ * is not parsed again. A compiled expression holds no state of its own evaluations, the same one is
+ * evaluated against any context by any number of threads.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+class CompiledQueryCache {
+
+    private final Cache<String, CompiledExpression> expressions;
+
+    /**
+     * @param maximumSize the number of queries after which the least recently used are evicted,
+     *                    0 compiles every query again
+     */
+    CompiledQueryCache(long maximumSize) {
+        this.expressions = maximumSize > 0 ? CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build() : null;
+    }
+
+    /**
+     * @param jxQuery the JXPath query
+     * @return the compiled query
+     * @throws org.apache.commons.jxpath.JXPathException if the query is not valid
+     */
+    CompiledExpression compile(String jxQuery) {
+        if (null == expressions) {
+            return JXPathContext.compile(jxQuery);
+        }
+        CompiledExpression expression = expressions.getIfPresent(jxQuery);
+        if (null == expression) {
+            expression = JXPathContext.compile(jxQuery);
+            expressions.put(jxQuery, expression);
+        }
+        return expression;
+    }
+
+    QueryCacheStats getStats() {
+        if (null == expressions) {
+            return new QueryCacheStats(0, 0, 0, 0);
+        }
+        CacheStats stats = expressions.stats();
+        return new QueryCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), expressions.size());
+    }
+}
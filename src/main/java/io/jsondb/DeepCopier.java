@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonClassDescription;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.AnnotatedConstructor;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.AnnotationMap;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deep copies objects the way a round trip through Jackson would, but property by property with
+ * {@link MethodHandle}s instead of through a JSON String.
+ *
+ * The properties of a class are the ones Jackson finds for it, so ignored properties are left at the value the
+ * no-arg constructor gives them, exactly like a round trip. Immutable values like Strings, numbers, enums and
+ * java.time types are shared, collections, maps, arrays and Dates are copied. Whatever this class cannot copy the
+ * same way, like classes with custom (de)serializers, polymorphic types or creator constructors, is still copied
+ * with a round trip through Jackson.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Slf4j
+class DeepCopier {
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigDecimal.class, BigInteger.class, UUID.class);
+
+    /**
+     * Jackson annotations that do not change how the value of a property is written or read.
+     */
+    private static final Set<Class<? extends Annotation>> NEUTRAL_ANNOTATIONS = Set.of(JsonProperty.class,
+            JsonAlias.class, JsonPropertyDescription.class, JsonPropertyOrder.class, JsonClassDescription.class,
+            JsonAutoDetect.class);
+
+    private static final ValueCopier IDENTITY = value -> value;
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    @FunctionalInterface
+    private interface ValueCopier {
+        Object copy(Object value) throws Throwable;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean beansSupported;
+    private final Map<Class<?>, ValueCopier> classCopiers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Optional<BeanCopier>> beanCopiers = new ConcurrentHashMap<>();
+
+    DeepCopier(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        JsonInclude.Include inclusion = objectMapper.getSerializationConfig().getDefaultPropertyInclusion().getValueInclusion();
+        // Leaving out properties when writing means the copy keeps the defaults of the constructor for them
+        this.beansSupported = inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS;
+    }
+
+    /**
+     * Builds the copier of a class ahead of its first use.
+     *
+     * @param clazz the class that will be copied
+     */
+    void prepare(Class<?> clazz) {
+        classCopier(clazz);
+        beanCopier(clazz);
+    }
+
+    /**
+     * @param value the object to copy
+     * @return a deep copy of the object, equal to what a round trip through Jackson would give
+     */
+    Object copy(Object value) {
+        if (null == value) {
+            return null;
+        }
+        try {
+            return classCopier(value.getClass()).copy(value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    private ValueCopier classCopier(Class<?> clazz) {
+        return classCopiers.computeIfAbsent(clazz, c -> copierFor(objectMapper.constructType(c)));
+    }
+
+    private BeanCopier beanCopier(Class<?> clazz) {
+        return beanCopiers.computeIfAbsent(clazz, c -> Optional.ofNullable(createBeanCopier(c))).orElse(null);
+    }
+
+    /**
+     * @param type the declared type of the values, which is also the type Jackson would read them as
+     * @return the copier for values of the type, it does not copy null values
+     */
+    private ValueCopier copierFor(JavaType type) {
+        Class<?> raw = type.getRawClass();
+        if (raw.isPrimitive() || raw.isEnum() || IMMUTABLE_TYPES.contains(raw) || isJavaTimeType(raw)) {
+            return IDENTITY;
+        }
+        if (raw == Date.class) {
+            return nullSafe(value -> new Date(((Date) value).getTime()));
+        }
+        if (type.isArrayType()) {
+            return arrayCopier(type);
+        }
+        if (type.isCollectionLikeType()) {
+            Supplier<Collection<Object>> factory = collectionFactory(raw);
+            if (null != factory && Collection.class.isAssignableFrom(raw)) {
+                ValueCopier elementCopier = copierFor(type.getContentType());
+                return nullSafe(value -> {
+                    Collection<Object> copy = factory.get();
+                    for (Object element : (Collection<?>) value) {
+                        copy.add(null == element ? null : elementCopier.copy(element));
+                    }
+                    return copy;
+                });
+            }
+            return jacksonCopier(type);
+        }
+        if (type.isMapLikeType()) {
+            Supplier<Map<Object, Object>> factory = mapFactory(raw);
+            Class<?> keyType = type.getKeyType().getRawClass();
+            if (null != factory && Map.class.isAssignableFrom(raw) && (keyType.isEnum() || IMMUTABLE_TYPES.contains(keyType))) {
+                ValueCopier valueCopier = copierFor(type.getContentType());
+                return nullSafe(value -> {
+                    Map<Object, Object> copy = factory.get();
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                        Object element = entry.getValue();
+                        copy.put(entry.getKey(), null == element ? null : valueCopier.copy(element));
+                    }
+                    return copy;
+                });
+            }
+            return jacksonCopier(type);
+        }
+        if (beansSupported && isBeanCandidate(raw) && !type.hasGenericTypes()) {
+            ValueCopier fallback = jacksonCopier(type);
+            return nullSafe(value -> {
+                // A subclass would be read back as the declared class by Jackson, leave that to Jackson
+                if (value.getClass() != raw) {
+                    return fallback.copy(value);
+                }
+                BeanCopier beanCopier = beanCopier(raw);
+                return null == beanCopier ? fallback.copy(value) : beanCopier.copy(value);
+            });
+        }
+        return jacksonCopier(type);
+    }
+
+    private ValueCopier arrayCopier(JavaType type) {
+        Class<?> componentType = type.getContentType().getRawClass();
+        if (componentType.isPrimitive()) {
+            return nullSafe(DeepCopier::clonePrimitiveArray);
+        }
+        ValueCopier elementCopier = copierFor(type.getContentType());
+        return nullSafe(value -> {
+            int length = Array.getLength(value);
+            Object[] copy = (Object[]) Array.newInstance(componentType, length);
+            Object[] source = (Object[]) value;
+            for (int i = 0; i < length; i++) {
+                copy[i] = null == source[i] ? null : elementCopier.copy(source[i]);
+            }
+            return copy;
+        });
+    }
+
+    private ValueCopier jacksonCopier(JavaType type) {
+        return nullSafe(value -> {
+            try {
+                return objectMapper.readValue(objectMapper.writeValueAsBytes(value), type);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static ValueCopier nullSafe(ValueCopier copier) {
+        return value -> null == value ? null : copier.copy(value);
+    }
+
+    private static boolean isJavaTimeType(Class<?> clazz) {
+        // Every public type of java.time is a immutable value, except Clock
+        return "java.time".equals(clazz.getPackageName()) && !Clock.class.isAssignableFrom(clazz);
+    }
+
+    private static boolean isBeanCandidate(Class<?> clazz) {
+        return !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers()) && !clazz.isRecord()
+                && !clazz.isAnonymousClass() && !clazz.getName().startsWith("java.");
+    }
+
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> clazz) {
+        if (clazz == List.class || clazz == Collection.class || clazz == ArrayList.class) {
+            return ArrayList::new;
+        } else if (clazz == Set.class || clazz == HashSet.class) {
+            return HashSet::new;
+        } else if (clazz == LinkedHashSet.class) {
+            return LinkedHashSet::new;
+        } else if (clazz == LinkedList.class) {
+            return LinkedList::new;
+        } else if (clazz == SortedSet.class || clazz == NavigableSet.class || clazz == TreeSet.class) {
+            return TreeSet::new;
+        }
+        return null;
+    }
+
+    private static Supplier<Map<Object, Object>> mapFactory(Class<?> clazz) {
+        if (clazz == Map.class || clazz == LinkedHashMap.class) {
+            return LinkedHashMap::new;
+        } else if (clazz == HashMap.class) {
+            return HashMap::new;
+        } else if (clazz == SortedMap.class || clazz == NavigableMap.class || clazz == TreeMap.class) {
+            return TreeMap::new;
+        }
+        return null;
+    }
+
+    private static Object clonePrimitiveArray(Object value) {
+        if (value instanceof byte[] a) {
+            return a.clone();
+        } else if (value instanceof int[] a) {
+            return a.clone();
+        } else if (value instanceof long[] a) {
+            return a.clone();
+        } else if (value instanceof double[] a) {
+            return a.clone();
+        } else if (value instanceof char[] a) {
+            return a.clone();
+        } else if (value instanceof boolean[] a) {
+            return a.clone();
+        } else if (value instanceof float[] a) {
+            return a.clone();
+        }
+        return ((short[]) value).clone();
+    }
+
+    /**
+     * @return the copier for instances of exactly this class or null if they must be copied by Jackson
+     */
+    private BeanCopier createBeanCopier(Class<?> clazz) {
+        if (!beansSupported || !isBeanCandidate(clazz)) {
+            return null;
+        }
+        try {
+            JavaType type = objectMapper.constructType(clazz);
+            BeanDescription writeDescription = objectMapper.getSerializationConfig().introspect(type);
+            BeanDescription readDescription = objectMapper.getDeserializationConfig().introspect(type);
+            if (hasCustomClassBehaviour(clazz)
+                    || null != writeDescription.findJsonValueAccessor()
+                    || null != writeDescription.findAnyGetter()
+                    || null != readDescription.findAnySetterAccessor()
+                    || null != writeDescription.getObjectIdInfo()) {
+                return null;
+            }
+            AnnotatedConstructor constructor = readDescription.findDefaultConstructor();
+            if (null == constructor) {
+                return null;
+            }
+            Map<String, BeanPropertyDefinition> readProperties = new HashMap<>();
+            for (BeanPropertyDefinition property : readDescription.findProperties()) {
+                if (property.hasConstructorParameter()) {
+                    // Jackson would create the object through a creator, not the no-arg constructor
+                    return null;
+                }
+                readProperties.put(property.getName(), property);
+            }
+
+            List<PropertyCopier> properties = new ArrayList<>();
+            for (BeanPropertyDefinition writeProperty : writeDescription.findProperties()) {
+                AnnotatedMember accessor = writeProperty.getAccessor();
+                if (null == accessor) {
+                    continue;
+                }
+                BeanPropertyDefinition readProperty = readProperties.get(writeProperty.getName());
+                if (null == readProperty || hasCustomBehaviour(writeProperty) || hasCustomBehaviour(readProperty)) {
+                    return null;
+                }
+                AnnotatedMember mutator = readProperty.getMutator();
+                JavaType valueType;
+                if (mutator instanceof AnnotatedMethod setter) {
+                    valueType = setter.getParameterType(0);
+                } else if (mutator instanceof AnnotatedField field) {
+                    valueType = field.getType();
+                } else {
+                    return null;
+                }
+                properties.add(new PropertyCopier(getter(accessor), setter(mutator), copierFor(valueType)));
+            }
+            if (properties.isEmpty() && objectMapper.isEnabled(SerializationFeature.FAIL_ON_EMPTY_BEANS)) {
+                // Jackson refuses to write it
+                return null;
+            }
+            return new BeanCopier(constructor(constructor), properties.toArray(new PropertyCopier[0]));
+        } catch (IllegalAccessException | RuntimeException e) {
+            log.debug("Failed to create a copier for class {}, it is copied through Jackson", clazz.getName(), e);
+            return null;
+        }
+    }
+
+    private static boolean hasCustomBehaviour(BeanPropertyDefinition property) {
+        return hasCustomBehaviour(property.getField()) || hasCustomBehaviour(property.getGetter())
+                || hasCustomBehaviour(property.getSetter());
+    }
+
+    private static boolean hasCustomClassBehaviour(Class<?> clazz) {
+        // Jackson also applies the annotations of the super classes and interfaces
+        for (Class<?> c = clazz; null != c && Object.class != c; c = c.getSuperclass()) {
+            if (hasCustomBehaviour(Arrays.asList(c.getDeclaredAnnotations()))) {
+                return true;
+            }
+            for (Class<?> i : c.getInterfaces()) {
+                if (hasCustomClassBehaviour(i)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasCustomBehaviour(AnnotatedMember member) {
+        if (null == member) {
+            return false;
+        }
+        JsonProperty jsonProperty = member.getAnnotation(JsonProperty.class);
+        if (null != jsonProperty && jsonProperty.access() != JsonProperty.Access.AUTO) {
+            return true;
+        }
+        // The annotations of the member merged with those of its mix-ins
+        AnnotationMap annotations = member.getAllAnnotations();
+        return null != annotations && hasCustomBehaviour(annotations.annotations());
+    }
+
+    private static boolean hasCustomBehaviour(Iterable<Annotation> annotations) {
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (annotationType.getPackageName().startsWith("com.fasterxml.jackson")) {
+                if (!NEUTRAL_ANNOTATIONS.contains(annotationType)) {
+                    return true;
+                }
+                if (annotation instanceof JsonProperty jsonProperty && jsonProperty.access() != JsonProperty.Access.AUTO) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static MethodHandle getter(AnnotatedMember accessor) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (accessor.getMember() instanceof Method method) {
+            return lookup.unreflect(accessible(method)).asType(GETTER_TYPE);
+        }
+        return lookup.unreflectGetter(accessible((Field) accessor.getMember())).asType(GETTER_TYPE);
+    }
+
+    private static MethodHandle setter(AnnotatedMember mutator) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (mutator.getMember() instanceof Method method) {
+            return MethodHandles.dropReturn(lookup.unreflect(accessible(method))).asType(SETTER_TYPE);
+        }
+        return lookup.unreflectSetter(accessible((Field) mutator.getMember())).asType(SETTER_TYPE);
+    }
+
+    private static MethodHandle constructor(AnnotatedConstructor constructor) throws IllegalAccessException {
+        Constructor<?> annotated = constructor.getAnnotated();
+        return MethodHandles.lookup().unreflectConstructor(accessible(annotated)).asType(CONSTRUCTOR_TYPE);
+    }
+
+    private static <A extends AccessibleObject> A accessible(A member) {
+        member.setAccessible(true);
+        return member;
+    }
+
+    private static final class PropertyCopier {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final ValueCopier valueCopier;
+
+        private PropertyCopier(MethodHandle getter, MethodHandle setter, ValueCopier valueCopier) {
+            this.getter = getter;
+            this.setter = setter;
+            this.valueCopier = valueCopier;
+        }
+    }
+
+    private static final class BeanCopier {
+        private final MethodHandle constructor;
+        private final PropertyCopier[] properties;
+
+        private BeanCopier(MethodHandle constructor, PropertyCopier[] properties) {
+            this.constructor = constructor;
+            this.properties = properties;
+        }
+
+        private Object copy(Object source) throws Throwable {
+            Object target = (Object) constructor.invokeExact();
+            for (PropertyCopier property : properties) {
+                Object value = (Object) property.getter.invokeExact(source);
+                property.setter.invokeExact(target, property.valueCopier.copy(value));
+            }
+            return target;
+        }
+    }
+}
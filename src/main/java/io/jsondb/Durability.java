@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+/**
+ * How much effort is spent to make a write to a collection survive a crash. The stronger levels
+ * cost more time per write, so they can be chosen per collection.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public enum Durability {
+    /**
+     * Written files are left to the operating system, a write survives a crash of the JVM but not of the machine.
+     */
+    NONE,
+    /**
+     * The contents of every written file are forced to the storage device, its metadata and the
+     * directory entry are not, so a crash of the machine can still lose the last rename of a collection file.
+     */
+    FLUSH,
+    /**
+     * The contents and metadata of every written file and, after a collection file was replaced, the
+     * directory are forced to the storage device before the write returns.
+     */
+    FSYNC,
+    /**
+     * Like FSYNC, but the files written are forced in batches, every durabilityBatchIntervalMillis or once
+     * durabilityBatchOps writes are pending. A crash of the machine can lose the writes of the last batch.
+     */
+    FSYNC_BATCHED
+}
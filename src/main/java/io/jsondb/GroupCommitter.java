@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.jsondb.io.PendingWrite;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the writes of concurrent callers and lets a single committer thread flush all writes
+ * pending for a collection in one pass. Every caller gets a future that completes once its writes are on disk.
+ *
+ * Writes for a collection are expected to be submitted while holding the write lock of the collection,
+ * that way they are flushed in the order they were applied in memory. Each submission carries the file generation
+ * of the collection at the time it was applied so the flusher can tell writes that a full rewrite of the
+ * collection file has already covered.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Slf4j
+class GroupCommitter {
+
+    interface Flusher {
+        /**
+         * Writes all pending writes of a collection, must throw a exception if that fails.
+         *
+         * @param collectionName name of the collection
+         * @param generation file generation of the collection when the writes were applied
+         * @param writes the pending writes in the order they were submitted
+         */
+        void flush(String collectionName, long generation, List<PendingWrite> writes);
+    }
+
+    private static class Batch {
+        private final long generation;
+        private final List<PendingWrite> writes = new ArrayList<>();
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        private Batch(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    private final Flusher flusher;
+    private final int maxPending;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingAvailable = lock.newCondition();
+    private final Condition capacityAvailable = lock.newCondition();
+    private final Thread committerThread;
+    private Map<String, List<Batch>> pending = new LinkedHashMap<>();
+    private int pendingCount;
+    private final Map<String, Integer> unflushedWrites = new HashMap<>();
+    private boolean running = true;
+
+    /**
+     * @param flusher writes the pending writes of a collection
+     * @param maxPending number of submissions that may wait to be flushed before {@link #awaitCapacity()} blocks, 0 for no limit
+     */
+    GroupCommitter(Flusher flusher, int maxPending) {
+        this.flusher = flusher;
+        this.maxPending = maxPending;
+        this.committerThread = new ThreadFactoryBuilder().setNameFormat("jsondb-group-commit-thread-%d").setDaemon(true).build()
+                .newThread(this::commitLoop);
+        committerThread.start();
+    }
+
+    /**
+     * Blocks while the number of submissions waiting to be flushed has reached the limit, this bounds the
+     * queue as long as it is invoked before every submission. Must be invoked without holding the lock of a
+     * collection, the committer needs it to make room.
+     */
+    void awaitCapacity() {
+        if (maxPending <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (running && pendingCount >= maxPending) {
+                capacityAvailable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues writes of a collection for the next flush.
+     *
+     * @param collectionName name of the collection
+     * @param generation file generation of the collection when the writes were applied
+     * @param writes writes that were applied in memory, may be empty to wait for everything submitted before
+     * @return future that completes once the writes are flushed
+     */
+    CompletableFuture<Void> submit(String collectionName, long generation, List<PendingWrite> writes) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (!running) {
+                throw new JsonDBException("Group commit has been shut down, no more writes are accepted");
+            }
+            List<Batch> batches = pending.computeIfAbsent(collectionName, k -> new ArrayList<>());
+            Batch batch = batches.isEmpty() ? null : batches.get(batches.size() - 1);
+            if (null == batch || batch.generation != generation) {
+                batch = new Batch(generation);
+                batches.add(batch);
+            }
+            batch.writes.addAll(writes);
+            batch.futures.add(future);
+            if (!writes.isEmpty()) {
+                unflushedWrites.merge(collectionName, writes.size(), Integer::sum);
+            }
+            pendingCount++;
+            pendingAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    /**
+     * @param collectionName name of the collection
+     * @return true if writes of the collection were submitted that have not been flushed yet, or are being flushed right now
+     */
+    boolean hasUnflushedWrites(String collectionName) {
+        lock.lock();
+        try {
+            return unflushedWrites.containsKey(collectionName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting writes, flushes what is still pending and waits for the committer thread to finish.
+     */
+    void shutdown() {
+        lock.lock();
+        try {
+            running = false;
+            pendingAvailable.signalAll();
+            capacityAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commitLoop() {
+        while (true) {
+            Map<String, List<Batch>> batches;
+            int flushed;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && running) {
+                    pendingAvailable.await();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batches = pending;
+                pending = new LinkedHashMap<>();
+                flushed = pendingCount;
+            } catch (InterruptedException e) {
+                log.warn("The group commit thread was interrupted, pending writes are failed");
+                failAll(pending, new JsonDBException("Group commit thread was interrupted", e));
+                pending = new LinkedHashMap<>();
+                pendingCount = 0;
+                unflushedWrites.clear();
+                running = false;
+                capacityAvailable.signalAll();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            for (Entry<String, List<Batch>> entry : batches.entrySet()) {
+                for (Batch batch : entry.getValue()) {
+                    try {
+                        if (!batch.writes.isEmpty()) {
+                            try {
+                                flusher.flush(entry.getKey(), batch.generation, batch.writes);
+                            } finally {
+                                flushed(entry.getKey(), batch.writes.size());
+                            }
+                        }
+                        for (CompletableFuture<Void> future : batch.futures) {
+                            future.complete(null);
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("Failed to flush {} pending writes of collection {}, the collection refuses writes until it is reloaded",
+                                batch.writes.size(), entry.getKey(), e);
+                        for (CompletableFuture<Void> future : batch.futures) {
+                            future.completeExceptionally(e);
+                        }
+                    }
+                }
+            }
+
+            lock.lock();
+            try {
+                pendingCount -= flushed;
+                capacityAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void flushed(String collectionName, int writes) {
+        lock.lock();
+        try {
+            unflushedWrites.computeIfPresent(collectionName, (k, count) -> count > writes ? count - writes : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void failAll(Map<String, List<Batch>> batches, RuntimeException e) {
+        for (List<Batch> collectionBatches : batches.values()) {
+            for (Batch batch : collectionBatches) {
+                for (CompletableFuture<Void> future : batch.futures) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+}
@@ -30,6 +30,8 @@ import java.io.File;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -58,6 +60,142 @@ public class JsonDBConfig {
     private ICipher cipher;
     @Getter
     private boolean compatibilityMode;
+    /**
+     * When enabled, insert, save, upsert and remove operations append a record to the
+     * operation log of the collection instead of rewriting the complete .json file.
+     */
+    @Getter
+    @Setter
+    private boolean operationLogEnabled;
+    /**
+     * When enabled, mutations are applied in memory and queued, a single committer thread writes all
+     * queued mutations of a collection in one pass. Callers still block until their mutation is written.
+     * Readers can see a mutation before it has been written, if the write fails the caller gets a exception
+     * but the mutation remains in memory.
+     */
+    @Getter
+    @Setter
+    private boolean groupCommitEnabled;
+    /**
+     * When enabled, the operations of {@link AsyncJsonDBOperations} can be used. They apply a mutation in memory
+     * and return right away, the mutation is written by the same committer thread as with groupCommitEnabled.
+     * All other mutations go through that thread as well, so mutations are written in the order they were applied.
+     */
+    @Getter
+    @Setter
+    private boolean writeBehindEnabled;
+    /**
+     * Number of mutations waiting to be written after which new mutations block until the committer thread
+     * has caught up, 0 for no limit. Applies with groupCommitEnabled and writeBehindEnabled.
+     */
+    @Getter
+    @Setter
+    private int writeBehindMaxPending = 10000;
+    /**
+     * When enabled, every read and write of a collection file also takes a OS level lock on the lock file of the
+     * collection, which keeps other processes using the same dbFilesLocation out. When disabled only the threads
+     * of this JVM are kept apart, which is cheaper if no other process uses the files.
+     */
+    @Getter
+    @Setter
+    private boolean crossProcessLockingEnabled = true;
+    /**
+     * Number of threads loading collections at the same time at startup and on {@link JsonDBOperations#reLoadDB()},
+     * 1 loads the collections one after another.
+     */
+    @Getter
+    @Setter
+    private int collectionLoadThreads = Runtime.getRuntime().availableProcessors();
+    /**
+     * UTF-8 collection files of at least this size are split into ranges at line boundaries, which are parsed
+     * side by side on the common ForkJoin pool, 0 always parses a file on a single thread.
+     */
+    @Getter
+    @Setter
+    private long parallelParseMinBytes = 16 * 1024 * 1024;
+    /**
+     * Queries on collections of at least this many documents are evaluated side by side on the common ForkJoin
+     * pool, and as many found documents are copied and decrypted, or sorted, the same way. 0 always runs queries
+     * on the calling thread. JXPath queries run in parallel only if the query planner understands them.
+     */
+    @Getter
+    @Setter
+    private long parallelScanMinDocuments = 10000;
+    /**
+     * When enabled, the JSON of every document written is kept in memory, so rewrites of a collection file
+     * serialize only the documents that changed. Costs about the size of the collection file in memory.
+     */
+    @Getter
+    @Setter
+    private boolean serializedDocumentCacheEnabled = true;
+    /**
+     * Number of decrypted @Secret values kept in memory, so documents read again are not decrypted again,
+     * 0 disables the cache. Must be set before the JsonDBTemplate is created.
+     */
+    @Getter
+    @Setter
+    private long decryptedValueCacheSize;
+    /**
+     * How long a decrypted @Secret value is kept in memory, 0 keeps it until the cache is full.
+     */
+    @Getter
+    @Setter
+    private long decryptedValueCacheTtlMillis = 10 * 60 * 1000;
+    /**
+     * Number of compiled JXPath queries kept in memory, so a query run again is not parsed again,
+     * 0 disables the cache. Must be set before the JsonDBTemplate is created.
+     */
+    @Getter
+    @Setter
+    private long compiledQueryCacheSize = 1000;
+    /**
+     * How the find methods and getCollection return documents when the call does not ask for a {@link ReadMode}
+     * of its own. {@link ReadMode#SHARED_UNSAFE} saves the deep copy of every returned document, but hands out the
+     * stored documents themselves, which callers must never change, see its warning.
+     */
+    @Getter
+    @Setter
+    private ReadMode readMode = ReadMode.COPY;
+    /**
+     * How often the background compaction checks the collections, 0 disables background compaction.
+     */
+    @Getter
+    @Setter
+    private long compactionIntervalMillis;
+    /**
+     * A collection is not compacted in the background before its operation log has reached this size.
+     */
+    @Getter
+    @Setter
+    private long compactionMinLogBytes = 1024 * 1024;
+    /**
+     * A collection is compacted in the background once its operation log is this many times the size of
+     * its .json file, 0 compacts every collection with a operation log of at least compactionMinLogBytes.
+     */
+    @Getter
+    @Setter
+    private double compactionGarbageRatio = 0.5;
+    /**
+     * How far a write goes to survive a crash, for all collections without a durability of their own.
+     */
+    @Getter
+    @Setter
+    private Durability durability = Durability.NONE;
+    private Map<String, Durability> collectionDurability = new ConcurrentHashMap<>();
+    /**
+     * How often the files written with {@link Durability#FSYNC_BATCHED} are forced to the storage device,
+     * must be set before the JsonDBTemplate is created.
+     */
+    @Getter
+    @Setter
+    private long durabilityBatchIntervalMillis = 1000;
+    /**
+     * Number of {@link Durability#FSYNC_BATCHED} writes after which the pending files are forced right away,
+     * 0 only forces them every durabilityBatchIntervalMillis.
+     */
+    @Getter
+    @Setter
+    private int durabilityBatchOps;
 
     // References
     @Getter
@@ -99,6 +237,35 @@ public class JsonDBConfig {
         this.dbFilesPath = dbFilesLocation.toPath();
     }
 
+    /**
+     * @param collectionName name of the collection
+     * @return the durability of the collection, or the default durability if it has none of its own
+     */
+    public Durability getDurability(String collectionName) {
+        return collectionDurability.getOrDefault(collectionName, durability);
+    }
+
+    /**
+     * Gives a collection a durability of its own
+     *
+     * @param collectionName name of the collection
+     * @param durability the durability of the collection, null to fall back to the default durability
+     */
+    public void setDurability(String collectionName, Durability durability) {
+        if (null == durability) {
+            collectionDurability.remove(collectionName);
+        } else {
+            collectionDurability.put(collectionName, durability);
+        }
+    }
+
+    /**
+     * @return true if the default durability or the durability of any collection is {@link Durability#FSYNC_BATCHED}
+     */
+    public boolean isBatchedSyncUsed() {
+        return durability == Durability.FSYNC_BATCHED || collectionDurability.containsValue(Durability.FSYNC_BATCHED);
+    }
+
     public void setCompatibilityMode(boolean compatibilityMode) {
         this.compatibilityMode = compatibilityMode;
         if (compatibilityMode) {
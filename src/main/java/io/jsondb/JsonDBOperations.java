@@ -23,10 +23,17 @@ package io.jsondb;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+import io.jsondb.crypto.DecryptionCacheStats;
 import io.jsondb.crypto.ICipher;
 import io.jsondb.events.CollectionFileChangeListener;
+import io.jsondb.io.DurabilityStats;
+import io.jsondb.query.Projection;
+import io.jsondb.query.Range;
 import io.jsondb.query.Update;
 import io.jsondb.query.ddl.CollectionSchemaUpdate;
 
@@ -51,6 +58,75 @@ public interface JsonDBOperations {
    */
   void reloadCollection(String collectionName);
 
+  /**
+   * Writes the live documents of a collection to a fresh .json file and drops the operation log
+   * records contained in it. The collection stays available for reads and writes while the new
+   * file is being written, it is only locked for the final swap.
+   *
+   * @param entityClass class that determines the collection to compact
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return true if the collection was compacted, false if there was nothing to compact
+   */
+  <T> boolean compactCollection(Class<T> entityClass);
+
+  /**
+   * Writes the live documents of a collection to a fresh .json file and drops the operation log
+   * records contained in it.
+   *
+   * @param collectionName name of the collection to compact
+   * @return true if the collection was compacted, false if there was nothing to compact
+   */
+  boolean compactCollection(String collectionName);
+
+  /**
+   * The totals of all compactions done for a collection since the DB was initialized
+   *
+   * @param collectionName name of the collection
+   * @return a copy of the compaction totals of the collection
+   */
+  CompactionStats getCompactionStats(String collectionName);
+
+  /**
+   * The totals of all loads of a collection from its files since the DB was initialized,
+   * this includes the initial load and every reload.
+   *
+   * @param collectionName name of the collection
+   * @return a copy of the load totals of the collection
+   */
+  LoadStats getLoadStats(String collectionName);
+
+  /**
+   * The totals of the time spent forcing the files of a collection to the storage device
+   * since the DB was initialized, these depend on the {@link Durability} of the collection.
+   *
+   * @param collectionName name of the collection
+   * @return a copy of the sync totals of the collection
+   */
+  DurabilityStats getDurabilityStats(String collectionName);
+
+  /**
+   * The totals of the cache of decrypted @Secret values since the DB was initialized or the encryption key
+   * was last changed, all zero if the cache is not enabled.
+   *
+   * @return the totals of the cache of decrypted values
+   */
+  DecryptionCacheStats getDecryptionCacheStats();
+
+  /**
+   * The totals of the cache of compiled JXPath queries since the DB was initialized,
+   * all zero if the cache is not enabled.
+   *
+   * @return the totals of the cache of compiled queries
+   */
+  QueryCacheStats getQueryCacheStats();
+
+  /**
+   * Forces the files written with {@link Durability#FSYNC_BATCHED} to the storage device right away,
+   * instead of waiting for the batch interval to pass.
+   */
+  void syncCollectionFiles();
+
   /**
    * adds a CollectionFileChangeListener to db.
    *
@@ -145,6 +221,17 @@ public interface JsonDBOperations {
    */
   <T> List<T> getCollection(Class<T> entityClass);
 
+  /**
+   * Get a collection by name, creating it if it doesn't exist.
+   *
+   * @param entityClass class that determines the name of the collection
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return A copy or a shared view of the existing collection or a newly created one.
+   */
+  <T> List<T> getCollection(Class<T> entityClass, ReadMode readMode);
+
   /**
    * Check to see if a collection with a name indicated by the entity class exists.
    *
@@ -332,6 +419,173 @@ public interface JsonDBOperations {
    */
   <T> List<T> find(String jxQuery, String collectionName, Comparator<? super T> comparator, String slice);
 
+  /**
+   * Map the results of an ad-hoc query on the collection for the entity class to a List of the specified type.
+   *
+   * @param jxQuery a XPATH query expression
+   * @param entityClass the parameterized type of the returned list.
+   * @param comparator Comparator to use for sorting the objects, may be null
+   * @param slice select the indices to return from the find_result, may be null,
+   *              see {@link #find(String, Class, Comparator, String)}
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of found objects
+   */
+  <T> List<T> find(String jxQuery, Class<T> entityClass, Comparator<? super T> comparator, String slice, ReadMode readMode);
+
+  /**
+   * Map the results of an ad-hoc query on the specified collection to a List of the specified type.
+   *
+   * @param jxQuery a XPATH query expression
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param comparator Comparator to use for sorting the objects, may be null
+   * @param slice select the indices to return from the find_result, may be null,
+   *              see {@link #find(String, String, Comparator, String)}
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of found objects
+   */
+  <T> List<T> find(String jxQuery, String collectionName, Comparator<? super T> comparator, String slice, ReadMode readMode);
+
+  /**
+   * Map the documents of the collection for the entity class that the given Predicate accepts to a List of the
+   * specified type, in collection order.
+   *
+   * The Predicate is called with the documents as they are stored, without copying them first, so it must not
+   * change them, and its @Secret fields are still encrypted. Collections of at least
+   * {@link JsonDBConfig#getParallelScanMinDocuments()} documents are tested on several threads at once,
+   * so the Predicate must be safe to call concurrently.
+   *
+   * @param predicate the test a document must pass to be returned
+   * @param entityClass the parameterized type of the returned list.
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of found objects
+   */
+  <T> List<T> find(Predicate<? super T> predicate, Class<T> entityClass);
+
+  /**
+   * Map the documents of the specified collection that the given Predicate accepts to a List of the
+   * specified type, see {@link #find(Predicate, Class)}
+   *
+   * @param predicate the test a document must pass to be returned
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of found objects
+   */
+  <T> List<T> find(Predicate<? super T> predicate, String collectionName);
+
+  /**
+   * Map the documents of the collection for the entity class that the given Predicate accepts to a sorted
+   * and sliced List of the specified type, see {@link #find(Predicate, Class)}
+   *
+   * @param predicate the test a document must pass to be returned
+   * @param entityClass the parameterized type of the returned list.
+   * @param comparator Comparator to use for sorting the objects, may be null
+   * @param slice select the indices to return from the find_result, may be null,
+   *              see {@link #find(String, Class, Comparator, String)}
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of found objects
+   */
+  <T> List<T> find(Predicate<? super T> predicate, Class<T> entityClass, Comparator<? super T> comparator, String slice);
+
+  /**
+   * Map the documents of the specified collection that the given Predicate accepts to a sorted
+   * and sliced List of the specified type, see {@link #find(Predicate, Class)}
+   *
+   * @param predicate the test a document must pass to be returned
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param comparator Comparator to use for sorting the objects, may be null
+   * @param slice select the indices to return from the find_result, may be null,
+   *              see {@link #find(String, Class, Comparator, String)}
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of found objects
+   */
+  <T> List<T> find(Predicate<? super T> predicate, String collectionName, Comparator<? super T> comparator, String slice);
+
+  /**
+   * Map only the projected fields of the results of an ad-hoc query on the collection for the entity class.
+   *
+   * Only the projected fields are read from the documents, and of their @Secret fields only the
+   * projected ones are decrypted, rather than copying and decrypting the whole documents.
+   *
+   * @param jxQuery a XPATH query expression
+   * @param entityClass the entity class of the collection to query
+   * @param projection the top level fields to return
+   * @return a Map for every found document, from the projected field names to their values, in projection order
+   */
+  List<Map<String, Object>> findProjected(String jxQuery, Class<?> entityClass, Projection projection);
+
+  /**
+   * Map only the projected fields of the results of an ad-hoc query on the specified collection,
+   * see {@link #findProjected(String, Class, Projection)}
+   *
+   * @param jxQuery a XPATH query expression
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param projection the top level fields to return
+   * @return a Map for every found document, from the projected field names to their values, in projection order
+   */
+  List<Map<String, Object>> findProjected(String jxQuery, String collectionName, Projection projection);
+
+  /**
+   * Map the documents of the collection for the entity class whose field is within the given Range to a List
+   * of the specified type, in the order of the field, documents with the same value in collection order.
+   *
+   * The documents are read from the {@link io.jsondb.annotation.Indexed.Type#RANGE} index of the field,
+   * so neither the range nor the order costs a scan of the collection. A null number counts as 0, the way
+   * JXPath compares it, any other null value is not in any range.
+   *
+   * @param range the field, bounds, direction and limit of the query
+   * @param entityClass the parameterized type of the returned list.
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of found objects
+   */
+  <T> List<T> findRange(Range range, Class<T> entityClass);
+
+  /**
+   * Map the documents of the specified collection whose field is within the given Range to a List
+   * of the specified type, see {@link #findRange(Range, Class)}
+   *
+   * @param range the field, bounds, direction and limit of the query
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of found objects
+   */
+  <T> List<T> findRange(Range range, String collectionName);
+
+  /**
+   * The document with the lowest value of a field with a range index, the first in collection order if there
+   * are several, see {@link #findRange(Range, Class)}
+   *
+   * @param field the name of the field
+   * @param entityClass the parameterized type of the returned object
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the found object or null if no document has a value
+   */
+  <T> T findMin(String field, Class<T> entityClass);
+  <T> T findMin(String field, String collectionName);
+
+  /**
+   * The document with the highest value of a field with a range index, the first in collection order if there
+   * are several, see {@link #findRange(Range, Class)}
+   *
+   * @param field the name of the field
+   * @param entityClass the parameterized type of the returned object
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the found object or null if no document has a value
+   */
+  <T> T findMax(String field, Class<T> entityClass);
+  <T> T findMax(String field, String collectionName);
+
   /**
    * Query for a list of objects of type T from the specified collection.
    *
@@ -464,6 +718,32 @@ public interface JsonDBOperations {
    */
   <T> List<T> findAll(String collectionName, Comparator<? super T> comparator, String slice);
 
+  /**
+   * Query for a list of objects of type T from the specified collection.
+   *
+   * @param entityClass the parameterized type of the returned list.
+   * @param comparator Comparator to use for sorting the objects, may be null
+   * @param slice select the indices to return from the find_result, may be null,
+   *              see {@link #findAll(Class, Comparator, String)}
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation and member of the baseScanPackage
+   * @return the found collection
+   */
+  <T> List<T> findAll(Class<T> entityClass, Comparator<? super T> comparator, String slice, ReadMode readMode);
+
+  /**
+   * Query for a list of objects of type T from the specified collection.
+   *
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param comparator Comparator to use for sorting the objects, may be null
+   * @param slice select the indices to return from the find_result, may be null,
+   *              see {@link #findAll(String, Comparator, String)}
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation and member of the baseScanPackage
+   * @return the found collection
+   */
+  <T> List<T> findAll(String collectionName, Comparator<? super T> comparator, String slice, ReadMode readMode);
+
   /**
    * Returns a document with the given id mapped onto the given class. The collection the query is ran against will be
    * derived from the given target class as well.
@@ -486,8 +766,222 @@ public interface JsonDBOperations {
    */
   <T> T findById(Object id, String collectionName);
 
+  /**
+   * Returns a document with the given id mapped onto the given class.
+   *
+   * @param id the id of the document to return.
+   * @param entityClass the type the document shall be converted into.
+   * @param readMode whether the document is copied or the stored one shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation and member of the baseScanPackage
+   * @return the document with the given id mapped onto the given target class.
+   */
+  <T> T findById(Object id, Class<T> entityClass, ReadMode readMode);
+
+  /**
+   * Returns the document with the given id from the given collection mapped onto the given target class.
+   *
+   * @param id the id of the document to return
+   * @param collectionName the collection to query for the document
+   * @param readMode whether the document is copied or the stored one shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return object searched within the collection
+   */
+  <T> T findById(Object id, String collectionName, ReadMode readMode);
+
   <T> T findOne(String jxQuery, Class<T> entityClass);
   <T> T findOne(String jxQuery, String collectionName);
+  <T> T findOne(String jxQuery, Class<T> entityClass, ReadMode readMode);
+  <T> T findOne(String jxQuery, String collectionName, ReadMode readMode);
+
+  /**
+   * The first document in collection order of the collection for the entity class that the given Predicate
+   * accepts, see {@link #find(Predicate, Class)}
+   *
+   * @param predicate the test the document must pass
+   * @param entityClass the parameterized type of the returned object
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the found object or null
+   */
+  <T> T findOne(Predicate<? super T> predicate, Class<T> entityClass);
+
+  /**
+   * The first document in collection order of the specified collection that the given Predicate
+   * accepts, see {@link #find(Predicate, Class)}
+   *
+   * @param predicate the test the document must pass
+   * @param collectionName name of the collection to retrieve the object from
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the found object or null
+   */
+  <T> T findOne(Predicate<? super T> predicate, String collectionName);
+
+  /**
+   * A lazy Stream over the results of an ad-hoc query on the collection for the entity class.
+   *
+   * The Stream runs against the version of the collection current when it is created, later changes
+   * to the collection are not seen by it. Documents are copied, and decrypted, one at a time as the
+   * Stream pulls them, so a Stream cut short by limit or findFirst does not copy the rest. The query is
+   * evaluated the same way, a document is only tested when the Stream gets to it, however large the collection.
+   *
+   * @param jxQuery a XPATH query expression
+   * @param entityClass the parameterized type of the returned Stream.
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the Stream of found objects
+   */
+  <T> Stream<T> stream(String jxQuery, Class<T> entityClass);
+
+  /**
+   * A lazy Stream over the results of an ad-hoc query on the specified collection,
+   * see {@link #stream(String, Class)}
+   *
+   * @param jxQuery a XPATH query expression
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the Stream of found objects
+   */
+  <T> Stream<T> stream(String jxQuery, String collectionName);
+
+  /**
+   * A lazy Stream over the results of an ad-hoc query on the collection for the entity class,
+   * see {@link #stream(String, Class)}
+   *
+   * @param jxQuery a XPATH query expression
+   * @param entityClass the parameterized type of the returned Stream.
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the Stream of found objects
+   */
+  <T> Stream<T> stream(String jxQuery, Class<T> entityClass, ReadMode readMode);
+
+  /**
+   * A lazy Stream over the results of an ad-hoc query on the specified collection,
+   * see {@link #stream(String, Class)}
+   *
+   * @param jxQuery a XPATH query expression
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the Stream of found objects
+   */
+  <T> Stream<T> stream(String jxQuery, String collectionName, ReadMode readMode);
+
+  /**
+   * A lazy Stream over all the documents of the collection for the entity class,
+   * see {@link #stream(String, Class)}
+   *
+   * @param entityClass the parameterized type of the returned Stream.
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation and member of the baseScanPackage
+   * @return the Stream of the documents
+   */
+  <T> Stream<T> streamAll(Class<T> entityClass);
+
+  /**
+   * A lazy Stream over all the documents of the specified collection,
+   * see {@link #stream(String, Class)}
+   *
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation and member of the baseScanPackage
+   * @return the Stream of the documents
+   */
+  <T> Stream<T> streamAll(String collectionName);
+
+  /**
+   * A lazy Stream over all the documents of the collection for the entity class,
+   * see {@link #stream(String, Class)}
+   *
+   * @param entityClass the parameterized type of the returned Stream.
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation and member of the baseScanPackage
+   * @return the Stream of the documents
+   */
+  <T> Stream<T> streamAll(Class<T> entityClass, ReadMode readMode);
+
+  /**
+   * A lazy Stream over all the documents of the specified collection,
+   * see {@link #stream(String, Class)}
+   *
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param readMode whether the documents are copied or the stored ones shared, null for the readMode of the JsonDBConfig
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation and member of the baseScanPackage
+   * @return the Stream of the documents
+   */
+  <T> Stream<T> streamAll(String collectionName, ReadMode readMode);
+
+  /**
+   * Keyset pagination over the results of an ad-hoc query on the collection for the entity class, in the
+   * natural order of the document ids, which must be Comparable.
+   *
+   * A page continues right after the id the previous page stopped at, so a page costs the same however far into
+   * the collection it is, and documents inserted or removed between the pages do not shift the ones not yet seen.
+   * A page may hold fewer than pageSize documents, even none, and still be followed by more.
+   * A continuation token of these pages cannot be passed to a query sorted by a field.
+   *
+   * @param jxQuery a XPATH query expression, null for all documents
+   * @param entityClass the parameterized type of the returned page.
+   * @param pageSize the maximum number of documents of the page
+   * @param continuationToken the token of the previous page, null for the first page
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the page of found objects
+   */
+  <T> Page<T> findPage(String jxQuery, Class<T> entityClass, int pageSize, String continuationToken);
+
+  /**
+   * Keyset pagination over the results of an ad-hoc query on the specified collection,
+   * see {@link #findPage(String, Class, int, String)}
+   *
+   * @param jxQuery a XPATH query expression, null for all documents
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param pageSize the maximum number of documents of the page
+   * @param continuationToken the token of the previous page, null for the first page
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the page of found objects
+   */
+  <T> Page<T> findPage(String jxQuery, String collectionName, int pageSize, String continuationToken);
+
+  /**
+   * Keyset pagination over the results of an ad-hoc query on the collection for the entity class, in the order
+   * of a field with a {@link io.jsondb.annotation.Indexed.Type#RANGE} index and then of the document ids, which
+   * must be Comparable.
+   *
+   * The field is ordered the way {@link #findRange(io.jsondb.query.Range, Class)} orders it, a null number as 0.
+   * Documents whose field has no value in the index, a null String or date or a NaN number, are on no page.
+   * The continuation token holds the value of the field and the id of the last document looked at, so a page
+   * continues right after it, and a token can only be passed to a query sorted by the same field.
+   *
+   * @param jxQuery a XPATH query expression, null for all documents
+   * @param entityClass the parameterized type of the returned page.
+   * @param sortField the field with a range index to sort by, null to sort by the ids
+   * @param pageSize the maximum number of documents of the page
+   * @param continuationToken the token of the previous page, null for the first page
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the page of found objects
+   */
+  <T> Page<T> findPage(String jxQuery, Class<T> entityClass, String sortField, int pageSize, String continuationToken);
+
+  /**
+   * Keyset pagination over the results of an ad-hoc query on the specified collection, sorted by a field,
+   * see {@link #findPage(String, Class, String, int, String)}
+   *
+   * @param jxQuery a XPATH query expression, null for all documents
+   * @param collectionName name of the collection to retrieve the objects from
+   * @param sortField the field with a range index to sort by, null to sort by the ids
+   * @param pageSize the maximum number of documents of the page
+   * @param continuationToken the token of the previous page, null for the first page
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the page of found objects
+   */
+  <T> Page<T> findPage(String jxQuery, String collectionName, String sortField, int pageSize, String continuationToken);
 
   /**
    * Insert the object into correct collection. The collection type of the object is automatically determined.
@@ -709,6 +1203,34 @@ public interface JsonDBOperations {
    */
   <T> List<T> findAllAndRemove(String jxQuery, String collectionName);
 
+  /**
+   * Returns and removes all documents the given Predicate accepts from the collection used to store the entityClass,
+   * see {@link #find(Predicate, Class)}
+   *
+   * Both the find and remove operation is done atomically
+   *
+   * @param predicate  the test a document must pass to be removed
+   * @param entityClass  class that determines the collection to use
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of removed objects or null
+   */
+  <T> List<T> findAllAndRemove(Predicate<? super T> predicate, Class<T> entityClass);
+
+  /**
+   * Returns and removes all documents the given Predicate accepts from the specified collection,
+   * see {@link #find(Predicate, Class)}
+   *
+   * Both the find and remove operation is done atomically
+   *
+   * @param predicate  the test a document must pass to be removed
+   * @param collectionName  name of the collection to remove the objects from
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of removed objects or null
+   */
+  <T> List<T> findAllAndRemove(Predicate<? super T> predicate, String collectionName);
+
   /**
    * Triggers findAndModify to apply provided Update on the first document matching Criteria of given Query.
    *
@@ -740,6 +1262,36 @@ public interface JsonDBOperations {
   <T> List<T> findAllAndModify(String jxQuery, Update update, Class<T> entityClass);
   <T> List<T> findAllAndModify(String jxQuery, Update update, String collectionName);
 
+  /**
+   * Applies the provided Update to all documents the given Predicate accepts in the collection used to store
+   * the entityClass, see {@link #find(Predicate, Class)}
+   *
+   * Both the find and modify operation is done atomically
+   *
+   * @param predicate  the test a document must pass to be modified
+   * @param update  The Update operation to perform
+   * @param entityClass  class that determines the collection to use
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of modified objects or null
+   */
+  <T> List<T> findAllAndModify(Predicate<? super T> predicate, Update update, Class<T> entityClass);
+
+  /**
+   * Applies the provided Update to all documents the given Predicate accepts in the specified collection,
+   * see {@link #find(Predicate, Class)}
+   *
+   * Both the find and modify operation is done atomically
+   *
+   * @param predicate  the test a document must pass to be modified
+   * @param update  The Update operation to perform
+   * @param collectionName  name of the collection to update the objects from
+   * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+   *            and member of the baseScanPackage
+   * @return the list of modified objects or null
+   */
+  <T> List<T> findAllAndModify(Predicate<? super T> predicate, Update update, String collectionName);
+
   /**
    * A method that allows changing the encryption algorithm and or encryption key used.
    *
@@ -748,6 +1300,9 @@ public interface JsonDBOperations {
    * the database before you carry out this operation
    * It will change all the json files that have any keys that are secret
    *
+   * Mutations queued by group commit or by the asynchronous operations of {@link AsyncJsonDBOperations} are
+   * written before the collections are re-encrypted, their futures have completed when this method returns.
+   *
    * @param newCipher a new cipher to use, the algorithm may be same and just the key may be new
    * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
    *            and member of the baseScanPackage
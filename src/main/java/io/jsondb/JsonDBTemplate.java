@@ -22,13 +22,28 @@ package io.jsondb;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.jsondb.crypto.CryptoUtil;
+import io.jsondb.crypto.DecryptedValueCache;
+import io.jsondb.crypto.DecryptionCacheStats;
 import io.jsondb.crypto.ICipher;
 import io.jsondb.events.CollectionFileChangeListener;
 import io.jsondb.events.EventListenerList;
+import io.jsondb.io.CollectionLockFile;
+import io.jsondb.io.DurabilityStats;
+import io.jsondb.io.FileSyncer;
 import io.jsondb.io.JsonFileLockException;
+import io.jsondb.io.JsonOpLog;
 import io.jsondb.io.JsonReader;
 import io.jsondb.io.JsonWriter;
+import io.jsondb.io.PendingWrite;
+import io.jsondb.query.Projection;
+import io.jsondb.query.Range;
 import io.jsondb.query.Update;
 import io.jsondb.query.ddl.AddOperation;
 import io.jsondb.query.ddl.CollectionSchemaUpdate;
@@ -39,10 +54,16 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileLock;
 import java.nio.charset.CharacterCodingException;
 import java.nio.file.Files;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -51,11 +72,31 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.jxpath.CompiledExpression;
 import org.apache.commons.jxpath.FunctionLibrary;
 import org.apache.commons.jxpath.JXPathContext;
 
@@ -63,7 +104,7 @@ import org.apache.commons.jxpath.JXPathContext;
  * @version 1.0 25-Sep-2016
  */
 @Slf4j
-public class JsonDBTemplate implements JsonDBOperations {
+public class JsonDBTemplate implements JsonDBOperations, AsyncJsonDBOperations {
 
     private JsonDBConfig dbConfig = null;
     private final boolean encrypted;
@@ -72,8 +113,18 @@ public class JsonDBTemplate implements JsonDBOperations {
 
     private Map<String, CollectionMetaData> cmdMap;
     private AtomicReference<Map<String, File>> fileObjectsRef = new AtomicReference<>(new ConcurrentHashMap<>());
-    private AtomicReference<Map<String, Map<Object, ?>>> collectionsRef = new AtomicReference<>(new ConcurrentHashMap<>());
-    private AtomicReference<Map<String, JXPathContext>> contextsRef = new AtomicReference<>(new ConcurrentHashMap<>());
+    private AtomicReference<Map<String, PublishedCollection<?>>> collectionsRef = new AtomicReference<>(new ConcurrentHashMap<>());
+
+    private Map<String, CompactionStats> compactionStats = new ConcurrentHashMap<>();
+    private Map<String, LoadStats> loadStats = new ConcurrentHashMap<>();
+    private ScheduledExecutorService compactionExecutor;
+    private GroupCommitter groupCommitter;
+    private FileSyncer fileSyncer;
+    private ScheduledExecutorService syncExecutor;
+    private Map<String, CollectionLockFile> lockFiles = new ConcurrentHashMap<>();
+    private DecryptedValueCache decryptedValues;
+    private CompiledQueryCache compiledQueries;
+    private final ReadWriteLock cipherLock = new ReentrantReadWriteLock();
 
     public JsonDBTemplate(String dbFilesLocationString, String baseScanPackage) {
         this(dbFilesLocationString, baseScanPackage, null, false, null);
@@ -88,13 +139,27 @@ public class JsonDBTemplate implements JsonDBOperations {
     }
 
     public JsonDBTemplate(String dbFilesLocationString, String baseScanPackage, ICipher cipher, boolean compatibilityMode, Comparator<String> schemaComparator) {
-        dbConfig = new JsonDBConfig(dbFilesLocationString, baseScanPackage, cipher, compatibilityMode, schemaComparator);
-        if (null == cipher) {
+        this(new JsonDBConfig(dbFilesLocationString, baseScanPackage, cipher, compatibilityMode, schemaComparator));
+    }
+
+    /**
+     * Creates a template for a fully prepared configuration, this allows settings
+     * like the operation log to be in effect before the collections are loaded.
+     *
+     * @param dbConfig the settings used by Json DB
+     */
+    public JsonDBTemplate(JsonDBConfig dbConfig) {
+        this.dbConfig = dbConfig;
+        this.compiledQueries = new CompiledQueryCache(dbConfig.getCompiledQueryCacheSize());
+        if (null == dbConfig.getCipher()) {
             log.info("Encryption is not enabled for JSON DB");
             this.encrypted = false;
         } else {
             log.info("Encryption is enabled for JSON DB");
             this.encrypted = true;
+            if (dbConfig.getDecryptedValueCacheSize() > 0) {
+                this.decryptedValues = new DecryptedValueCache(dbConfig.getDecryptedValueCacheSize(), dbConfig.getDecryptedValueCacheTtlMillis());
+            }
         }
         initialize();
         eventListenerList = new EventListenerList(dbConfig, cmdMap);
@@ -117,18 +182,166 @@ public class JsonDBTemplate implements JsonDBOperations {
         }
 
         cmdMap = CollectionMetaData.builder(dbConfig);
+        fileSyncer = new FileSyncer(dbConfig);
 
         loadDB();
 
+        if (dbConfig.isGroupCommitEnabled() || dbConfig.isWriteBehindEnabled()) {
+            groupCommitter = new GroupCommitter(this::flushPendingWrites, dbConfig.getWriteBehindMaxPending());
+        }
+
+        long compactionInterval = dbConfig.getCompactionIntervalMillis();
+        if (compactionInterval > 0) {
+            compactionExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("jsondb-compaction-thread-%d").setDaemon(true).build());
+            compactionExecutor.scheduleWithFixedDelay(this::compactCollectionsInBackground,
+                    compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+        }
+
+        long syncInterval = dbConfig.getDurabilityBatchIntervalMillis();
+        if (syncInterval > 0 && dbConfig.isBatchedSyncUsed()) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("jsondb-sync-thread-%d").setDaemon(true).build());
+            syncExecutor.scheduleWithFixedDelay(fileSyncer::syncPending, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        }
+
         // Auto-cleanup at shutdown
         Runtime.getRuntime().addShutdownHook(new Thread() {
             @Override
             public void run() {
                 eventListenerList.shutdown();
+                if (null != groupCommitter) {
+                    groupCommitter.shutdown();
+                }
+                if (null != compactionExecutor) {
+                    compactionExecutor.shutdownNow();
+                }
+                if (null != syncExecutor) {
+                    syncExecutor.shutdownNow();
+                }
+                fileSyncer.syncPending();
+                lockFiles.values().forEach(CollectionLockFile::close);
+            }
+        });
+    }
+
+    /**
+     * The lock file of a collection is opened once and kept open until the collection is dropped
+     * or the JVM shuts down, instead of being opened and closed by every reader and writer.
+     */
+    private CollectionLockFile lockFileFor(String collectionName) {
+        return lockFiles.computeIfAbsent(collectionName, k -> new CollectionLockFile(
+                new File(dbConfig.getDbFilesLocation(), collectionName + ".json"), dbConfig.isCrossProcessLockingEnabled()));
+    }
+
+    private boolean isShared(ReadMode readMode) {
+        return (null == readMode ? dbConfig.getReadMode() : readMode) == ReadMode.SHARED_UNSAFE;
+    }
+
+    /**
+     * A document handed out to a caller is a deep copy, unless it is shared and has no @Secret fields
+     * to decrypt, then the stored document itself is returned.
+     */
+    private Object toResult(Object document, CollectionMetaData cmd, boolean shared)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        return toResult(document, cmd, shared, dbConfig.getCipher());
+    }
+
+    private Object toResult(Object document, CollectionMetaData cmd, boolean shared, ICipher cipher)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        boolean decrypt = encrypted && cmd.hasSecret() && null != document;
+        if (shared && !decrypt) {
+            return document;
+        }
+        Object obj = Util.deepCopy(document);
+        if (decrypt) {
+            CryptoUtil.decryptFields(obj, cmd, cipher, decryptedValues);
+        }
+        return obj;
+    }
+
+    /**
+     * A Stream that copies and decrypts a document only when it is pulled. The documents come from one published
+     * version of a collection and are all encrypted with the cipher current when it was read, so that cipher is
+     * kept for decrypting them even if changeEncryption runs while the Stream is consumed.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Stream<T> toResultStream(Spliterator<T> documents, CollectionMetaData cmd, boolean shared,
+            ICipher cipher, String collectionName) {
+        return StreamSupport.stream(documents, false).map(document -> {
+            try {
+                return (T) toResult(document, cmd, shared, cipher);
+            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
+                throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
             }
         });
     }
 
+    /**
+     * @return a SortedSlice when the slice selects from only the first or last few of the sorted documents, otherwise null
+     */
+    private <T> SortedSlice<T> sortedSlice(Comparator<? super T> comparator, String slice) {
+        if (null == comparator || !Util.isSliceable(slice)) {
+            return null;
+        }
+        return SortedSlice.of(slice, comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> sortedSlice(Iterator<T> documents, SortedSlice<T> sortedSlice, CollectionMetaData cmd, boolean shared)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        while (documents.hasNext()) {
+            sortedSlice.add(documents.next());
+        }
+        List<T> result = new ArrayList<>();
+        for (T document : sortedSlice.result()) {
+            result.add((T) toResult(document, cmd, shared));
+        }
+        return result;
+    }
+
+    private <T> List<T> toResultList(List<T> documents, boolean shared) {
+        return shared ? Collections.unmodifiableList(documents) : documents;
+    }
+
+    private boolean isParallel(int documents) {
+        long minDocuments = dbConfig.getParallelScanMinDocuments();
+        return minDocuments > 0 && documents >= minDocuments;
+    }
+
+    /**
+     * Copies, and decrypts, the documents found by a query in order, side by side on the common ForkJoin pool
+     * once there are at least parallelScanMinDocuments of them.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> toResults(List<T> documents, CollectionMetaData cmd, boolean shared, String collectionName)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        if (isParallel(documents.size())) {
+            return toResultStream(documents.spliterator(), cmd, shared, dbConfig.getCipher(), collectionName)
+                .parallel().collect(Collectors.toList());
+        }
+        List<T> results = new ArrayList<>(documents.size());
+        for (T document : documents) {
+            results.add((T) toResult(document, cmd, shared));
+        }
+        return results;
+    }
+
+    /**
+     * A stable sort, a parallel merge sort once there are at least parallelScanMinDocuments documents.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> sort(List<T> documents, Comparator<? super T> comparator) {
+        if (isParallel(documents.size())) {
+            T[] sorted = (T[]) documents.toArray();
+            Arrays.parallelSort(sorted, comparator);
+            return new ArrayList<>(Arrays.asList(sorted));
+        }
+        documents.sort(comparator);
+        return documents;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -140,17 +353,43 @@ public class JsonDBTemplate implements JsonDBOperations {
     }
 
     private synchronized void loadDB() {
+        long start = System.currentTimeMillis();
+        List<String> collectionNames = new ArrayList<>();
         for (String collectionName : cmdMap.keySet()) {
             File collectionFile = new File(dbConfig.getDbFilesLocation(), collectionName + ".json");
             if (collectionFile.exists()) {
-                reloadCollection(collectionName);
+                collectionNames.add(collectionName);
             } else if (collectionsRef.get().containsKey(collectionName)) {
                 // this probably is a reload attempt after a collection .json was deleted.
                 // that is the reason even though the file does not exist a entry into collectionsRef still exists.
-                contextsRef.get().remove(collectionName);
-                collectionsRef.get().remove(collectionName);
+                unpublish(collectionName);
+                cmdMap.get(collectionName).incrementLoadGeneration();
+                cmdMap.get(collectionName).setWritesFailed(false);
+            }
+        }
+
+        int threads = Math.min(dbConfig.getCollectionLoadThreads(), collectionNames.size());
+        if (threads <= 1) {
+            collectionNames.forEach(this::reloadCollection);
+        } else {
+            // Every collection has its own lock and files, so loading them side by side only costs CPU and I/O
+            ExecutorService loadExecutor = Executors.newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder().setNameFormat("jsondb-load-thread-%d").setDaemon(true).build());
+            try {
+                CompletableFuture<?>[] loads = collectionNames.stream()
+                        .map(collectionName -> CompletableFuture.runAsync(() -> reloadCollection(collectionName), loadExecutor))
+                        .toArray(CompletableFuture[]::new);
+                CompletableFuture.allOf(loads).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new JsonDBException("Failed to load the collections", e.getCause());
+            } finally {
+                loadExecutor.shutdown();
             }
         }
+        log.info("Loaded {} collections in {} ms using {} threads", collectionNames.size(), System.currentTimeMillis() - start, Math.max(1, threads));
     }
 
     /*
@@ -160,6 +399,12 @@ public class JsonDBTemplate implements JsonDBOperations {
      */
     @Override
     public void reloadCollection(String collectionName) {
+        try {
+            awaitPendingWrites(collectionName);
+        } catch (JsonDBException e) {
+            // Writes that failed to save are discarded by loading the collection from disk again
+            log.debug("Reloading collection {} after writes failed to save", collectionName);
+        }
         CollectionMetaData cmd = cmdMap.get(collectionName);
         cmd.getCollectionLock().writeLock().lock();
         try {
@@ -170,21 +415,27 @@ public class JsonDBTemplate implements JsonDBOperations {
                 if (!collectionFile.exists()) {
                     throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' cannot be found at " + collectionFile.getAbsolutePath());
                 }
-                Map<String, File> fileObjectMap = fileObjectsRef.get();
-                Map<String, File> newFileObjectmap = new ConcurrentHashMap<>(fileObjectMap);
-                newFileObjectmap.put(collectionName, collectionFile);
-                fileObjectsRef.set(newFileObjectmap);
-            }
+                File newCollectionFile = collectionFile;
+                // Collections can be loaded side by side, so the map must be swapped atomically
+                fileObjectsRef.updateAndGet(fileObjectMap -> {
+                    Map<String, File> newFileObjectmap = new ConcurrentHashMap<>(fileObjectMap);
+                    newFileObjectmap.put(collectionName, newCollectionFile);
+                    return newFileObjectmap;
+                });
+            }
+            long start = System.currentTimeMillis();
             Map<Object, ?> collection = loadCollection(collectionFile, collectionName, cmd);
             if (null != collection) {
-                JXPathContext newContext = createNewContext(collection.values());
-                contextsRef.get().put(collectionName, newContext);
-                collectionsRef.get().put(collectionName, collection);
+                long durationMillis = System.currentTimeMillis() - start;
+                loadStats.computeIfAbsent(collectionName, LoadStats::new).record(collection.size(), durationMillis);
+                log.debug("Loaded {} documents of collection {} in {} ms", collection.size(), collectionName, durationMillis);
+                publish(collectionName, collection);
             } else {
                 // Since this is a reload attempt its possible the .json files have disappeared in the interim a very rare thing
-                contextsRef.get().remove(collectionName);
-                collectionsRef.get().remove(collectionName);
+                unpublish(collectionName);
             }
+            cmd.incrementLoadGeneration();
+            cmd.setWritesFailed(false);
         } finally {
             cmd.getCollectionLock().writeLock().unlock();
         }
@@ -201,18 +452,53 @@ public class JsonDBTemplate implements JsonDBOperations {
         String line = null;
         int lineNo = 1;
         try {
-            jr = new JsonReader(dbConfig, collectionFile);
-
-            while ((line = jr.readLine()) != null) {
-                if (lineNo == 1) {
-                    SchemaVersion v = dbConfig.getObjectMapper().readValue(line, SchemaVersion.class);
-                    cmd.setActualSchemaVersion(v.getSchemaVersion());
-                } else {
-                    T row = dbConfig.getObjectMapper().readValue(line, entity);
-                    Object id = Util.getIdForEntity(row, getterMethodForId);
-                    collection.put(id, row);
+            jr = new JsonReader(dbConfig, collectionFile, lockFileFor(collectionName));
+
+            if (jr.isRecordReadingSupported()) {
+                // Jackson parses the bytes of the memory mapped file, no char[] or String is created per line
+                ByteBuffer record;
+                long parallelParseMinBytes = dbConfig.getParallelParseMinBytes();
+                while ((record = jr.nextRecord()) != null) {
+                    if (lineNo == 1) {
+                        SchemaVersion v = dbConfig.getObjectMapper().readValue(new ByteBufferBackedInputStream(record), SchemaVersion.class);
+                        cmd.setActualSchemaVersion(v.getSchemaVersion());
+                        if (parallelParseMinBytes > 0 && collectionFile.length() >= parallelParseMinBytes) {
+                            // The documents of a large file are parsed in ranges side by side and merged in file order,
+                            // there are more ranges than threads so a thread that is done early can take another range
+                            lineNo++;
+                            ParallelCollectionParser<T> parser = new ParallelCollectionParser<>(dbConfig.getObjectMapper(), entity, getterMethodForId);
+                            try {
+                                parser.parse(jr.splitRecords(ForkJoinPool.commonPool().getParallelism() * 4), collection);
+                            } finally {
+                                lineNo += parser.getLines();
+                            }
+                            break;
+                        }
+                    } else {
+                        T row = dbConfig.getObjectMapper().readValue(new ByteBufferBackedInputStream(record), entity);
+                        Object id = Util.getIdForEntity(row, getterMethodForId);
+                        collection.put(id, row);
+                    }
+                    lineNo++;
+                }
+            } else {
+                while ((line = jr.readLine()) != null) {
+                    if (lineNo == 1) {
+                        SchemaVersion v = dbConfig.getObjectMapper().readValue(line, SchemaVersion.class);
+                        cmd.setActualSchemaVersion(v.getSchemaVersion());
+                    } else {
+                        T row = dbConfig.getObjectMapper().readValue(line, entity);
+                        Object id = Util.getIdForEntity(row, getterMethodForId);
+                        collection.put(id, row);
+                    }
+                    lineNo++;
                 }
-                lineNo++;
+            }
+            // The lock of the collection file is still held, so the operation log cannot change underneath us.
+            // Any existing log is replayed, even if the operation log is disabled now, otherwise changes would be lost.
+            int replayed = new JsonOpLog(dbConfig, cmd, collectionFile).replay(collection);
+            if (replayed > 0) {
+                log.debug("Replayed {} records from the operation log of collection {}", replayed, collectionName);
             }
         } catch (JsonParseException je) {
             log.error("Failed Json Parsing for file {} line {}", collectionFile.getName(), lineNo, je);
@@ -245,6 +531,300 @@ public class JsonDBTemplate implements JsonDBOperations {
         return collection;
     }
 
+    /**
+     * Writes the mutations queued with the group committer for a collection.
+     * Invoked on the committer thread only.
+     *
+     * @param collectionName name of the collection
+     * @param generation file generation of the collection when the mutations were applied
+     * @param writes the queued mutations, already applied in memory
+     */
+    private void flushPendingWrites(String collectionName, long generation, List<PendingWrite> writes) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        boolean result;
+        cmd.getCollectionLock().readLock().lock();
+        try {
+            File collectionFile = fileObjectsRef.get().get(collectionName);
+            Map<Object, ?> collection = publishedVersion(collectionName);
+            if (null == collectionFile || null == collection) {
+                log.debug("Collection {} was dropped, discarding {} pending writes", collectionName, writes.size());
+                return;
+            }
+            if (cmd.isWritesFailed()) {
+                // Writing these after earlier ones were lost would leave a file that never matched the collection in memory
+                throw new JsonDBException("Collection " + collectionName + " has writes that failed to save, reload the collection to continue");
+            }
+            if (generation != cmd.getFileGeneration()) {
+                // The collection file was rewritten from memory after these mutations were applied, so it already has them
+                return;
+            }
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, collectionFile, lockFileFor(collectionName), fileSyncer);
+            try {
+                if (dbConfig.isOperationLogEnabled()) {
+                    result = jw.appendToOpLog(writes);
+                } else {
+                    // A single rewrite of the current state of the collection covers all the queued mutations
+                    result = jw.reWriteJsonFile(collection.values(), false);
+                }
+            } catch (RuntimeException e) {
+                cmd.setWritesFailed(true);
+                throw e;
+            }
+            if (!result) {
+                cmd.setWritesFailed(true);
+            }
+        } finally {
+            cmd.getCollectionLock().readLock().unlock();
+        }
+        if (!result) {
+            throw new JsonDBException("Failed to save " + collectionName);
+        }
+    }
+
+    /**
+     * Queues mutations with the group committer, must be invoked holding the write lock of the collection
+     * and before the mutations are applied in memory.
+     */
+    private CompletableFuture<Void> submitWrites(CollectionMetaData cmd, String collectionName, List<PendingWrite> writes) {
+        if (cmd.isReadOnly()) {
+            throw new InvalidJsonDbApiUsageException("Failed to modify collection, Collection is loaded as readonly");
+        }
+        if (cmd.isWritesFailed()) {
+            throw new JsonDBException("Collection " + collectionName + " has writes that failed to save, reload the collection to continue");
+        }
+        return groupCommitter.submit(collectionName, cmd.getFileGeneration(), writes);
+    }
+
+    /**
+     * Blocks until queued mutations are written, must be invoked after releasing the write lock of the collection.
+     *
+     * @return the result of the commit
+     */
+    private <R> R awaitCommit(CompletableFuture<R> commit, String collectionName) {
+        if (null == commit) {
+            return null;
+        }
+        try {
+            return commit.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new JsonDBException("Failed to save " + collectionName, e.getCause());
+        }
+    }
+
+    /**
+     * Blocks while the group committer has too many writes queued, must be invoked before taking the write lock of
+     * a collection. This is what bounds the write-behind queue.
+     */
+    private void awaitCapacity() {
+        if (null != groupCommitter) {
+            groupCommitter.awaitCapacity();
+        }
+    }
+
+    /**
+     * Blocks until everything queued with the group committer for a collection is written,
+     * must be invoked without holding the lock of the collection.
+     */
+    private void awaitPendingWrites(String collectionName) {
+        if (null != groupCommitter) {
+            CollectionMetaData cmd = cmdMap.get(collectionName);
+            awaitCommit(groupCommitter.submit(collectionName, cmd.getFileGeneration(), List.of()), collectionName);
+        }
+    }
+
+    private void compactCollectionsInBackground() {
+        for (String collectionName : collectionsRef.get().keySet()) {
+            try {
+                if (isCompactionDue(collectionName)) {
+                    compactCollection(collectionName);
+                }
+            } catch (RuntimeException e) {
+                log.error("Background compaction of collection {} failed", collectionName, e);
+            }
+        }
+    }
+
+    private boolean isCompactionDue(String collectionName) {
+        File collectionFile = fileObjectsRef.get().get(collectionName);
+        if (null == collectionFile) {
+            return false;
+        }
+        long logBytes = JsonOpLog.getLogFile(collectionFile).length();
+        if (logBytes < 1 || logBytes < dbConfig.getCompactionMinLogBytes()) {
+            return false;
+        }
+        double garbageRatio = dbConfig.getCompactionGarbageRatio();
+        return garbageRatio <= 0 || logBytes >= garbageRatio * collectionFile.length();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#compactCollection(java.lang.Class)
+     */
+    @Override
+    public <T> boolean compactCollection(Class<T> entityClass) {
+        return compactCollection(Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#compactCollection(java.lang.String)
+     */
+    @Override
+    public boolean compactCollection(String collectionName) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        }
+        long start = System.nanoTime();
+        File collectionFile;
+        File logFile;
+        Map<Object, ?> collection;
+        List<Object> snapshot;
+        long logOffset;
+        long fileGeneration;
+        long loadGeneration;
+
+        // Only the copy of the document references is made under the lock, writers are held up for just that long.
+        cmd.getCollectionLock().readLock().lock();
+        try {
+            collection = publishedVersion(collectionName);
+            collectionFile = fileObjectsRef.get().get(collectionName);
+            if (null == collection || null == collectionFile || cmd.isReadOnly() || cmd.isWritesFailed()) {
+                return false;
+            }
+            logFile = JsonOpLog.getLogFile(collectionFile);
+            // Appends to the log hold the lock of the collection file, a batch may be written in several chunks
+            // and only its whole length is the end of a record
+            CollectionLockFile lockFile = lockFileFor(collectionName);
+            FileLock fileLock = null;
+            try {
+                fileLock = lockFile.lock();
+                logOffset = logFile.length();
+            } catch (IOException e) {
+                log.error("Failed to acquire lock for collection file {}", collectionFile.getName(), e);
+                return false;
+            } finally {
+                lockFile.release(fileLock);
+            }
+            if (logOffset < 1) {
+                return false;
+            }
+            fileGeneration = cmd.getFileGeneration();
+            loadGeneration = cmd.getLoadGeneration();
+            snapshot = new ArrayList<>(collection.values());
+        } finally {
+            cmd.getCollectionLock().readLock().unlock();
+        }
+
+        JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, collectionFile, lockFileFor(collectionName), fileSyncer);
+        File snapshotFile = jw.writeSnapshot(snapshot);
+        if (null == snapshotFile) {
+            return false;
+        }
+
+        // Writes applied after the snapshot was taken are only kept by the swap once they are in the operation log
+        try {
+            awaitPendingWrites(collectionName);
+        } catch (RuntimeException e) {
+            snapshotFile.delete();
+            throw e;
+        }
+        cmd.getCollectionLock().writeLock().lock();
+        try {
+            if (cmd.getLoadGeneration() != loadGeneration || cmd.getFileGeneration() != fileGeneration) {
+                // The collection was reloaded, dropped or completely rewritten while the snapshot was being written
+                snapshotFile.delete();
+                return false;
+            }
+            if (null != groupCommitter && groupCommitter.hasUnflushedWrites(collectionName)) {
+                // Writes queued since the wait are neither in the snapshot nor in the log yet, the swap would lose them
+                snapshotFile.delete();
+                return false;
+            }
+            long bytesBefore = collectionFile.length() + logFile.length();
+            long bytesWritten = snapshotFile.length();
+            if (!jw.replaceWithSnapshot(snapshotFile, logOffset)) {
+                return false;
+            }
+            long bytesAfter = collectionFile.length() + logFile.length();
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            compactionStats.computeIfAbsent(collectionName, CompactionStats::new).record(bytesWritten, bytesBefore - bytesAfter, durationMillis);
+            log.debug("Compacted collection {} in {} ms, reclaimed {} bytes", collectionName, durationMillis, bytesBefore - bytesAfter);
+            return true;
+        } finally {
+            cmd.getCollectionLock().writeLock().unlock();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#getCompactionStats(java.lang.String)
+     */
+    @Override
+    public CompactionStats getCompactionStats(String collectionName) {
+        return compactionStats.computeIfAbsent(collectionName, CompactionStats::new).copy();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#getLoadStats(java.lang.String)
+     */
+    @Override
+    public LoadStats getLoadStats(String collectionName) {
+        return loadStats.computeIfAbsent(collectionName, LoadStats::new).copy();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#getDurabilityStats(java.lang.String)
+     */
+    @Override
+    public DurabilityStats getDurabilityStats(String collectionName) {
+        return fileSyncer.getStats(collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#getDecryptionCacheStats()
+     */
+    @Override
+    public DecryptionCacheStats getDecryptionCacheStats() {
+        if (null == decryptedValues) {
+            return new DecryptionCacheStats(0, 0, 0, 0);
+        }
+        return decryptedValues.getStats();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#getQueryCacheStats()
+     */
+    @Override
+    public QueryCacheStats getQueryCacheStats() {
+        return compiledQueries.getStats();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#syncCollectionFiles()
+     */
+    @Override
+    public void syncCollectionFiles() {
+        fileSyncer.syncPending();
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -297,8 +877,7 @@ public class JsonDBTemplate implements JsonDBOperations {
             throw new InvalidJsonDbApiUsageException(
                     "No class found with @Document Annotation and attribute collectionName as: " + collectionName);
         }
-        @SuppressWarnings("unchecked")
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+        Map<Object, T> collection = publishedVersion(collectionName);
         if (null != collection) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' already exists.");
         }
@@ -315,16 +894,17 @@ public class JsonDBTemplate implements JsonDBOperations {
             File fileObject = new File(dbConfig.getDbFilesLocation(), collectionFileName);
             try {
                 fileObject.createNewFile();
+                // A operation log left behind by a .json file that was deleted outside of JsonDB must not be replayed on the new collection
+                Files.deleteIfExists(JsonOpLog.getLogFile(fileObject).toPath());
             } catch (IOException e) {
                 log.error("IO Exception creating the collection file {}", collectionFileName, e);
                 throw new InvalidJsonDbApiUsageException("Unable to create a collection file for collection: " + collectionName);
             }
 
             if (Util.stampVersion(dbConfig, fileObject, cmd.getSchemaVersion())) {
-                collection = new LinkedHashMap<>();
-                collectionsRef.get().put(collectionName, collection);
-                contextsRef.get().put(collectionName, createNewContext(collection.values()));
                 fileObjectsRef.get().put(collectionName, fileObject);
+                publish(collectionName, new LinkedHashMap<>());
+                cmd.incrementLoadGeneration();
                 cmd.setActualSchemaVersion(cmd.getSchemaVersion());
             } else {
                 fileObject.delete();
@@ -345,66 +925,246 @@ public class JsonDBTemplate implements JsonDBOperations {
         return cntx;
     }
 
-    /*
-     * (non-Javadoc)
-     * 
-     * @see io.jsondb.JsonDBOperations#dropCollection(java.lang.Class)
+    /**
+     * A published version of a collection is never changed again, so readers use it without taking the collection lock.
+     * A writer, holding the write lock, applies its changes to the copy returned here and publishes the copy.
+     * The copy shares everything but the changed documents with the version, so it costs the same for any size.
      */
-    @Override
-    public <T> void dropCollection(Class<T> entityClass) {
-        dropCollection(Util.determineCollectionName(entityClass));
+    private <T> Map<Object, T> nextVersion(Map<Object, T> collection) {
+        return ((CollectionVersion<T>) collection).edit();
     }
 
-    /*
-     * (non-Javadoc)
-     * 
-     * @see io.jsondb.JsonDBOperations#dropCollection(java.lang.String)
+    /**
+     * Makes a version of a collection, the JXPath context over it and its indexes visible to readers in one step,
+     * must be invoked holding the write lock of the collection.
+     *
+     * @param collection a copy returned by {@link #nextVersion(Map)}, or the documents of a collection just loaded
+     * @return the published, unmodifiable version
      */
-    @Override
-    public void dropCollection(String collectionName) {
+    private <T> Map<Object, T> publish(String collectionName, Map<Object, T> collection) {
         CollectionMetaData cmd = cmdMap.get(collectionName);
-        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
-            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        CollectionVersion.Editor<T> edit = null;
+        CollectionVersion<T> version;
+        if (collection instanceof CollectionVersion.Editor) {
+            edit = (CollectionVersion.Editor<T>) collection;
+            version = edit.toVersion();
+        } else {
+            version = CollectionVersion.of(collection, CollectionVersion.isSortable(cmd.getIdAnnotatedFieldGetterMethod().getReturnType()));
         }
-        cmd.getCollectionLock().writeLock().lock();
-        try {
-            File toDelete = fileObjectsRef.get().get(collectionName);
-            try {
-                Files.deleteIfExists(toDelete.toPath());
-            } catch (IOException e) {
-                log.error("IO Exception deleting the collection file {}", toDelete.getName(), e);
-                throw new InvalidJsonDbApiUsageException("Unable to create a collection file for collection: " + collectionName);
-            }
-            // cmdMap.remove(collectionName); //Do not remove it from the CollectionMetaData Map.
-            // Someone might want to re insert a new collection of this type.
-            fileObjectsRef.get().remove(collectionName);
-            collectionsRef.get().remove(collectionName);
-            contextsRef.get().remove(collectionName);
-        } finally {
-            cmd.getCollectionLock().writeLock().unlock();
+        CollectionIndexes indexes = null;
+        if (!cmd.getIndexedFieldNames().isEmpty()) {
+            PublishedCollection<?> previous = collectionsRef.get().get(collectionName);
+            // Only the documents the edit replaced are indexed again
+            indexes = CollectionIndexes.next(cmd, null == previous ? null : previous.getIndexes(), edit, version);
         }
+        collectionsRef.get().put(collectionName, new PublishedCollection<>(version, createNewContext(version.values()), indexes));
+        return version;
     }
 
-    /*
-     * (non-Javadoc)
-     * 
-     * @see org.jsondb.JsonDBOperations#updateCollectionSchema(org.jsondb.query.CollectionSchemaUpdate, java.lang.Class)
+    /**
+     * @return the documents, context and indexes of the current version of a collection
      */
-    @Override
-    public <T> void updateCollectionSchema(CollectionSchemaUpdate update, Class<T> entityClass) {
-        updateCollectionSchema(update, Util.determineCollectionName(entityClass));
+    @SuppressWarnings("unchecked")
+    private <T> PublishedCollection<T> published(String collectionName) {
+        PublishedCollection<T> published = (PublishedCollection<T>) collectionsRef.get().get(collectionName);
+        if (null == published) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        }
+        return published;
     }
 
-    /*
-     * (non-Javadoc)
-     * 
-     * @see org.jsondb.JsonDBOperations#updateCollectionSchema(org.jsondb.query.CollectionSchemaUpdate, java.lang.String)
+    /**
+     * @return the current version of a collection, or null if the collection does not exist
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Map<Object, T> publishedVersion(String collectionName) {
+        PublishedCollection<T> published = (PublishedCollection<T>) collectionsRef.get().get(collectionName);
+        return null == published ? null : published.getVersion();
+    }
+
+    /**
+     * The current version of a collection. Readers may use it without a lock, a writer must invoke it
+     * holding the write lock of the collection to derive the next version from it.
+     */
+    private <T> Map<Object, T> currentVersion(String collectionName) {
+        return this.<T>published(collectionName).getVersion();
+    }
+
+    /**
+     * Readers do not take the collection lock. A reader that decrypts @Secret fields takes the read side of the
+     * cipher lock instead, which only changeEncryption contends for, so the cipher cannot be swapped between
+     * reading a document and decrypting it.
+     *
+     * @return the lock taken or null
+     */
+    private Lock lockForDecryption(CollectionMetaData cmd) {
+        if (!encrypted || !cmd.hasSecret()) {
+            return null;
+        }
+        Lock lock = cipherLock.readLock();
+        lock.lock();
+        return lock;
+    }
+
+    private void unlockForDecryption(Lock lock) {
+        if (null != lock) {
+            lock.unlock();
+        }
+    }
+
+    private void unpublish(String collectionName) {
+        collectionsRef.get().remove(collectionName);
+    }
+
+    /**
+     * The documents a query finds, in collection order. The query planner looks up what it can in the id
+     * and the indexes of the @Indexed fields, anything else is evaluated by JXPath. A query the planner
+     * understands tests every document on its own, so at least parallelScanMinDocuments of them are split
+     * up and evaluated side by side.
+     */
+    private <T> Iterator<T> iterate(String jxQuery, String collectionName, CollectionMetaData cmd) {
+        return iterate(jxQuery, collectionName, cmd, false);
+    }
+
+    /**
+     * @param lazy true to test a document only when the iterator gets to it, for callers that may stop early,
+     *        then nothing is evaluated side by side, that would have to find all the documents up front
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Iterator<T> iterate(String jxQuery, String collectionName, CollectionMetaData cmd, boolean lazy) {
+        PublishedCollection<T> published = published(collectionName);
+        CollectionVersion<T> collection = published.getVersion();
+        QueryPlanner.Plan plan = QueryPlanner.plan(jxQuery, cmd, collection, published.getIndexes());
+        if (!lazy && null != plan && null == plan.getIds() && isParallel(collection.size())) {
+            return iterateInParallel(jxQuery, collection.values());
+        }
+        if (null == plan || null == plan.getIds()) {
+            return compiledQueries.compile(jxQuery).iterate(published.getContext());
+        }
+        if (lazy) {
+            Iterator<T> candidates = Iterators.transform(plan.getIds().iterator(), collection::get);
+            return plan.isExact() ? candidates : Iterators.filter(candidates, document -> matches(jxQuery, document));
+        }
+        List<T> candidates = new ArrayList<>(plan.getIds().size());
+        for (Object id : plan.getIds()) {
+            candidates.add(collection.get(id));
+        }
+        if (plan.isExact()) {
+            return candidates.iterator();
+        }
+        if (isParallel(candidates.size())) {
+            return iterateInParallel(jxQuery, candidates);
+        }
+        List<T> documents = new ArrayList<>(candidates.size());
+        for (T document : candidates) {
+            if (matches(jxQuery, document)) {
+                documents.add(document);
+            }
+        }
+        return documents.iterator();
+    }
+
+    /**
+     * Evaluates a query that tests every document on its own against parts of the documents on the common
+     * ForkJoin pool, each part in a JXPath context of its own, and joins what they found back in order.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Iterator<T> iterateInParallel(String jxQuery, List<T> documents) {
+        CompiledExpression expression = compiledQueries.compile(jxQuery);
+        int size = documents.size();
+        int parts = Math.min(size, 4 * ForkJoinPool.getCommonPoolParallelism());
+        return IntStream.range(0, parts).parallel().mapToObj(part -> {
+            List<T> found = new ArrayList<>();
+            List<T> partDocuments = documents.subList((int) ((long) size * part / parts), (int) ((long) size * (part + 1) / parts));
+            expression.iterate(createNewContext(partDocuments)).forEachRemaining(document -> found.add((T) document));
+            return found;
+        }).flatMap(List::stream).collect(Collectors.toList()).iterator();
+    }
+
+    private boolean matches(String jxQuery, Object document) {
+        return compiledQueries.compile(jxQuery).iterate(createNewContext(Collections.singletonList(document))).hasNext();
+    }
+
+    /**
+     * The documents of the current version of a collection a Predicate accepts, in collection order.
+     * Collections of at least parallelScanMinDocuments are tested side by side on the common ForkJoin pool.
+     */
+    private <T> Stream<T> scan(Predicate<? super T> predicate, String collectionName) {
+        Map<Object, T> collection = currentVersion(collectionName);
+        Stream<T> documents = collection.values().stream();
+        if (isParallel(collection.size())) {
+            documents = documents.parallel();
+        }
+        return documents.filter(predicate);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#dropCollection(java.lang.Class)
+     */
+    @Override
+    public <T> void dropCollection(Class<T> entityClass) {
+        dropCollection(Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#dropCollection(java.lang.String)
+     */
+    @Override
+    public void dropCollection(String collectionName) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        }
+        awaitPendingWrites(collectionName);
+        cmd.getCollectionLock().writeLock().lock();
+        try {
+            File toDelete = fileObjectsRef.get().get(collectionName);
+            try {
+                Files.deleteIfExists(toDelete.toPath());
+                Files.deleteIfExists(JsonOpLog.getLogFile(toDelete).toPath());
+            } catch (IOException e) {
+                log.error("IO Exception deleting the collection file {}", toDelete.getName(), e);
+                throw new InvalidJsonDbApiUsageException("Unable to create a collection file for collection: " + collectionName);
+            }
+            // cmdMap.remove(collectionName); //Do not remove it from the CollectionMetaData Map.
+            // Someone might want to re insert a new collection of this type.
+            fileObjectsRef.get().remove(collectionName);
+            unpublish(collectionName);
+            cmd.incrementLoadGeneration();
+            cmd.setWritesFailed(false);
+            CollectionLockFile lockFile = lockFiles.remove(collectionName);
+            if (null != lockFile) {
+                lockFile.close();
+            }
+        } finally {
+            cmd.getCollectionLock().writeLock().unlock();
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.jsondb.JsonDBOperations#updateCollectionSchema(org.jsondb.query.CollectionSchemaUpdate, java.lang.Class)
+     */
+    @Override
+    public <T> void updateCollectionSchema(CollectionSchemaUpdate update, Class<T> entityClass) {
+        updateCollectionSchema(update, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.jsondb.JsonDBOperations#updateCollectionSchema(org.jsondb.query.CollectionSchemaUpdate, java.lang.String)
      */
     @Override
     public <T> void updateCollectionSchema(CollectionSchemaUpdate update, String collectionName) {
         CollectionMetaData cmd = cmdMap.get(collectionName);
         @SuppressWarnings("unchecked")
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+        Map<Object, T> collection = publishedVersion(collectionName);
         if (null == cmd || null == collection) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
         }
@@ -422,14 +1182,8 @@ public class JsonDBTemplate implements JsonDBOperations {
                     RenameOperation op = updateEntry.getValue();
                     String newKey = op.getNewName();
 
-                    JsonWriter jw;
-                    try {
-                        jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-                    } catch (IOException ioe) {
-                        log.error("Failed to obtain writer for " + collectionName, ioe);
-                        throw new JsonDBException("Failed to save " + collectionName, ioe);
-                    }
-                    jw.renameKeyInJsonFile(collection.values(), true, oldKey, newKey);
+                    JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
+                    jw.renameKeyInJsonFile(currentVersion(collectionName).values(), true, oldKey, newKey);
                 }
                 cmd.getCollectionLock().writeLock().unlock();
             }
@@ -439,6 +1193,12 @@ public class JsonDBTemplate implements JsonDBOperations {
                 reloadCollectionAsSomethingChanged = true;
                 cmd.getCollectionLock().writeLock().lock();
 
+                // The published documents must not change, the new fields are set on copies which the reload below publishes
+                Map<Object, T> current = currentVersion(collectionName);
+                List<T> documents = new ArrayList<>(current.size());
+                for (T object : current.values()) {
+                    documents.add((T) Util.deepCopy(object));
+                }
                 for (Entry<String, AddOperation> updateEntry : addOps.entrySet()) {
                     AddOperation op = updateEntry.getValue();
 
@@ -451,19 +1211,13 @@ public class JsonDBTemplate implements JsonDBOperations {
 
                     String fieldName = updateEntry.getKey();
                     Method setterMethod = cmd.getSetterMethodForFieldName(fieldName);
-                    for (T object : collection.values()) {
+                    for (T object : documents) {
                         Util.setFieldValueForEntity(object, value, setterMethod);
                     }
                 }
 
-                JsonWriter jw;
-                try {
-                    jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-                } catch (IOException ioe) {
-                    log.error("Failed to obtain writer for " + collectionName, ioe);
-                    throw new JsonDBException("Failed to save " + collectionName, ioe);
-                }
-                jw.reWriteJsonFile(collection.values(), true);
+                JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
+                jw.reWriteJsonFile(documents, true);
                 cmd.getCollectionLock().writeLock().unlock();
             }
 
@@ -475,14 +1229,8 @@ public class JsonDBTemplate implements JsonDBOperations {
                 reloadCollectionAsSomethingChanged = true;
                 cmd.getCollectionLock().writeLock().lock();
 
-                JsonWriter jw;
-                try {
-                    jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-                } catch (IOException ioe) {
-                    log.error("Failed to obtain writer for " + collectionName, ioe);
-                    throw new JsonDBException("Failed to save " + collectionName, ioe);
-                }
-                jw.reWriteJsonFile(collection.values(), true);
+                JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
+                jw.reWriteJsonFile(currentVersion(collectionName).values(), true);
                 cmd.getCollectionLock().writeLock().unlock();
             }
             if (reloadCollectionAsSomethingChanged) {
@@ -516,31 +1264,42 @@ public class JsonDBTemplate implements JsonDBOperations {
      * 
      * @see io.jsondb.JsonDBOperations#getCollection(java.lang.Class)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> List<T> getCollection(Class<T> entityClass) {
+        return getCollection(entityClass, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#getCollection(java.lang.Class, io.jsondb.ReadMode)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> List<T> getCollection(Class<T> entityClass, ReadMode readMode) {
         String collectionName = Util.determineCollectionName(entityClass);
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+        Map<Object, T> collection = publishedVersion(collectionName);
         if (null == collection) {
             createCollection(collectionName);
-            collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+            collection = publishedVersion(collectionName);
         }
 
         CollectionMetaData cmd = cmdMap.get(collectionName);
+        boolean shared = isShared(readMode);
         List<T> newCollection = new ArrayList<>();
+        Lock lock = lockForDecryption(cmd);
         try {
+            collection = currentVersion(collectionName);
             for (T document : collection.values()) {
-                Object obj = Util.deepCopy(document);
-                if (encrypted && cmd.hasSecret() && null != obj) {
-                    CryptoUtil.decryptFields(obj, cmd, dbConfig.getCipher());
-                }
-                newCollection.add((T) obj);
+                newCollection.add((T) toResult(document, cmd, shared));
             }
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
+        } finally {
+            unlockForDecryption(lock);
         }
-        return newCollection;
+        return toResultList(newCollection, shared);
     }
 
     /*
@@ -650,58 +1409,276 @@ public class JsonDBTemplate implements JsonDBOperations {
      */
     @Override
     public <T> List<T> find(String jxQuery, String collectionName, Comparator<? super T> comparator, String slice) {
+        return find(jxQuery, collectionName, comparator, slice, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#find(java.lang.String, java.lang.Class, java.util.Comparator, java.lang.String, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> List<T> find(String jxQuery, Class<T> entityClass, Comparator<? super T> comparator, String slice, ReadMode readMode) {
+        return find(jxQuery, Util.determineCollectionName(entityClass), comparator, slice, readMode);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#find(java.lang.String, java.lang.String, java.util.Comparator, java.lang.String, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> List<T> find(String jxQuery, String collectionName, Comparator<? super T> comparator, String slice, ReadMode readMode) {
         CollectionMetaData cmd = cmdMap.get(collectionName);
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
-        if (null == cmd || null == collection) {
+        return select(() -> iterate(jxQuery, collectionName, cmd), collectionName, comparator, slice, readMode);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#find(java.util.function.Predicate, java.lang.Class)
+     */
+    @Override
+    public <T> List<T> find(Predicate<? super T> predicate, Class<T> entityClass) {
+        return find(predicate, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#find(java.util.function.Predicate, java.lang.String)
+     */
+    @Override
+    public <T> List<T> find(Predicate<? super T> predicate, String collectionName) {
+        return find(predicate, collectionName, null, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#find(java.util.function.Predicate, java.lang.Class, java.util.Comparator, java.lang.String)
+     */
+    @Override
+    public <T> List<T> find(Predicate<? super T> predicate, Class<T> entityClass, Comparator<? super T> comparator, String slice) {
+        return find(predicate, Util.determineCollectionName(entityClass), comparator, slice);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#find(java.util.function.Predicate, java.lang.String, java.util.Comparator, java.lang.String)
+     */
+    @Override
+    public <T> List<T> find(Predicate<? super T> predicate, String collectionName, Comparator<? super T> comparator, String slice) {
+        if (null == predicate) {
+            throw new InvalidJsonDbApiUsageException("Predicate cannot be null.");
+        }
+        return select(() -> this.<T>scan(predicate, collectionName).collect(Collectors.toList()).iterator(), collectionName, comparator, slice, null);
+    }
+
+    /**
+     * Copies, sorts and slices the documents found by a query, the documents are taken from the published version
+     * of the collection current when the query runs.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> select(Supplier<Iterator<T>> documents, String collectionName, Comparator<? super T> comparator, String slice, ReadMode readMode) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
         }
-        cmd.getCollectionLock().readLock().lock();
         boolean isSliceable = Util.isSliceable(slice);
+        boolean shared = isShared(readMode);
+        Lock lock = lockForDecryption(cmd);
         try {
-            JXPathContext context = contextsRef.get().get(collectionName);
-            Iterator<T> resultItr = context.iterate(jxQuery);
+            // The documents are of a published version of the collection, which no writer changes
+            Iterator<T> resultItr = documents.get();
+            SortedSlice<T> sortedSlice = sortedSlice(comparator, slice);
+            if (null != sortedSlice) {
+                return toResultList(sortedSlice(resultItr, sortedSlice, cmd, shared), shared);
+            }
             List<T> newCollection = new ArrayList<>();
-            while (resultItr.hasNext()) {
-                T document = resultItr.next();
-                if (isSliceable) {
-                    // Since slicing is enabled we defer the deepcopy and decryption to later stage.
-                    newCollection.add(document);
-                } else {
-                    Object obj = Util.deepCopy(document);
-                    if (encrypted && cmd.hasSecret() && null != obj) {
-                        CryptoUtil.decryptFields(obj, cmd, dbConfig.getCipher());
-                    }
-                    newCollection.add((T) obj);
-                }
+            resultItr.forEachRemaining(newCollection::add);
+            if (!isSliceable) {
+                newCollection = toResults(newCollection, cmd, shared, collectionName);
             }
             if (comparator != null) {
                 // It is tempting to attempt to sort the objects in the while loop above, but it has no real benefit
                 // See: https://stackoverflow.com/questions/24136930/sort-while-inserting-or-copy-and-sort
-                newCollection.sort(comparator);
+                newCollection = sort(newCollection, comparator);
             }
             if (isSliceable) {
+                // Since slicing is enabled the deepcopy and decryption is deferred to this stage.
                 List<Integer> indexes = Util.getSliceIndexes(slice, newCollection.size());
                 if (indexes != null) {
                     List<T> slicedCollection = new ArrayList<>(indexes.size());
                     for (int index : indexes) {
-                        Object obj = Util.deepCopy(newCollection.get(index));
-                        if (encrypted && cmd.hasSecret() && null != obj) {
-                            CryptoUtil.decryptFields(obj, cmd, dbConfig.getCipher());
+                        slicedCollection.add(newCollection.get(index));
+                    }
+                    newCollection = slicedCollection;
+                }
+                newCollection = toResults(newCollection, cmd, shared, collectionName);
+            }
+            return toResultList(newCollection, shared);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
+            throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
+        } finally {
+            unlockForDecryption(lock);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findProjected(java.lang.String, java.lang.Class, io.jsondb.query.Projection)
+     */
+    @Override
+    public List<Map<String, Object>> findProjected(String jxQuery, Class<?> entityClass, Projection projection) {
+        return findProjected(jxQuery, Util.determineCollectionName(entityClass), projection);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findProjected(java.lang.String, java.lang.String, io.jsondb.query.Projection)
+     */
+    @Override
+    public List<Map<String, Object>> findProjected(String jxQuery, String collectionName, Projection projection) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        }
+        if (null == projection) {
+            throw new InvalidJsonDbApiUsageException("Null Projection cannot be used to find documents");
+        }
+        List<String> fields = projection.getFields();
+        Method[] getters = new Method[fields.size()];
+        boolean decrypt = false;
+        for (int i = 0; i < getters.length; i++) {
+            getters[i] = cmd.getGetterMethodForFieldName(fields.get(i));
+            if (null == getters[i]) {
+                throw new InvalidJsonDbApiUsageException("Field '" + fields.get(i) + "' of projection not found in collection: " + collectionName);
+            }
+            decrypt |= encrypted && cmd.isSecretField(fields.get(i));
+        }
+        boolean shared = isShared(null);
+        Lock lock = decrypt ? lockForDecryption(cmd) : null;
+        try {
+            Iterator<?> resultItr = iterate(jxQuery, collectionName, cmd);
+            List<Map<String, Object>> result = new ArrayList<>();
+            while (resultItr.hasNext()) {
+                Object document = resultItr.next();
+                Map<String, Object> projected = new LinkedHashMap<>();
+                for (int i = 0; i < getters.length; i++) {
+                    Object value = getters[i].invoke(document);
+                    if (null != value) {
+                        if (encrypted && cmd.isSecretField(fields.get(i))) {
+                            value = CryptoUtil.decryptValue((String) value, dbConfig.getCipher(), decryptedValues);
+                        } else if (!shared) {
+                            value = Util.deepCopy(value);
                         }
-                        slicedCollection.add((T) obj);
                     }
-                    return slicedCollection;
+                    projected.put(fields.get(i), value);
                 }
+                result.add(projected);
             }
-            return newCollection;
+            return result;
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            log.error("Error when reading the projected fields for entity: " + collectionName, e);
+            throw new JsonDBException("Error when reading the projected fields for entity: " + collectionName, e);
+        } finally {
+            unlockForDecryption(lock);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findRange(io.jsondb.query.Range, java.lang.Class)
+     */
+    @Override
+    public <T> List<T> findRange(Range range, Class<T> entityClass) {
+        return findRange(range, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findRange(io.jsondb.query.Range, java.lang.String)
+     */
+    @Override
+    public <T> List<T> findRange(Range range, String collectionName) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        }
+        if (null == range) {
+            throw new InvalidJsonDbApiUsageException("Null Range cannot be used to find documents");
+        }
+        if (!cmd.getRangeIndexedFieldNames().contains(range.getField())) {
+            throw new InvalidJsonDbApiUsageException("Field '" + range.getField() + "' has no @Indexed(type = RANGE) index in collection: " + collectionName);
+        }
+        boolean shared = isShared(null);
+        Lock lock = lockForDecryption(cmd);
+        try {
+            PublishedCollection<T> published = published(collectionName);
+            Map<Object, T> collection = published.getVersion();
+            // The indexes were published together with the version, they always index exactly its documents
+            List<T> documents = new ArrayList<>();
+            for (Object id : published.getIndexes().idsInOrder(range)) {
+                documents.add(collection.get(id));
+            }
+            return toResultList(toResults(documents, cmd, shared, collectionName), shared);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
         } finally {
-            cmd.getCollectionLock().readLock().unlock();
+            unlockForDecryption(lock);
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findMin(java.lang.String, java.lang.Class)
+     */
+    @Override
+    public <T> T findMin(String field, Class<T> entityClass) {
+        return findMin(field, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findMin(java.lang.String, java.lang.String)
+     */
+    @Override
+    public <T> T findMin(String field, String collectionName) {
+        List<T> found = findRange(Range.of(field).limit(1), collectionName);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findMax(java.lang.String, java.lang.Class)
+     */
+    @Override
+    public <T> T findMax(String field, Class<T> entityClass) {
+        return findMax(field, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findMax(java.lang.String, java.lang.String)
+     */
+    @Override
+    public <T> T findMax(String field, String collectionName) {
+        List<T> found = findRange(Range.of(field).descending().limit(1), collectionName);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -758,56 +1735,29 @@ public class JsonDBTemplate implements JsonDBOperations {
      * 
      * @see io.jsondb.JsonDBOperations#findAll(java.lang.String, java.util.Comparator, java.lang.String)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> List<T> findAll(String collectionName, Comparator<? super T> comparator, String slice) {
-        CollectionMetaData cmd = cmdMap.get(collectionName);
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
-        if (null == cmd || null == collection) {
-            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
-        }
-        cmd.getCollectionLock().readLock().lock();
-        boolean isSliceable = Util.isSliceable(slice);
-        try {
-            List<T> newCollection = new ArrayList<>();
-            for (T document : collection.values()) {
-                if (isSliceable) {
-                    // Since slicing is enabled we defer the deepcopy and decryption to later stage.
-                    newCollection.add(document);
-                } else {
-                    T obj = (T) Util.deepCopy(document);
-                    if (encrypted && cmd.hasSecret() && null != obj) {
-                        CryptoUtil.decryptFields(obj, cmd, dbConfig.getCipher());
-                    }
-                    newCollection.add(obj);
-                }
-            }
-            if (comparator != null) {
-                // It is tempting to attempt to sort the obejcts in the while loop above, but it has no real benefit
-                // See: https://stackoverflow.com/questions/24136930/sort-while-inserting-or-copy-and-sort
-                newCollection.sort(comparator);
-            }
-            if (isSliceable) {
-                List<Integer> indexes = Util.getSliceIndexes(slice, newCollection.size());
-                if (indexes != null) {
-                    List<T> slicedCollection = new ArrayList<>(indexes.size());
-                    for (int index : indexes) {
-                        Object obj = Util.deepCopy(newCollection.get(index));
-                        if (encrypted && cmd.hasSecret() && null != obj) {
-                            CryptoUtil.decryptFields(obj, cmd, dbConfig.getCipher());
-                        }
-                        slicedCollection.add((T) obj);
-                    }
-                    return slicedCollection;
-                }
-            }
-            return newCollection;
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-            log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
-            throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
-        } finally {
-            cmd.getCollectionLock().readLock().unlock();
-        }
+        return findAll(collectionName, comparator, slice, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findAll(java.lang.Class, java.util.Comparator, java.lang.String, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> List<T> findAll(Class<T> entityClass, Comparator<? super T> comparator, String slice, ReadMode readMode) {
+        return findAll(Util.determineCollectionName(entityClass), comparator, slice, readMode);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findAll(java.lang.String, java.util.Comparator, java.lang.String, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> List<T> findAll(String collectionName, Comparator<? super T> comparator, String slice, ReadMode readMode) {
+        return select(() -> this.<T>currentVersion(collectionName).values().iterator(), collectionName, comparator, slice, readMode);
     }
 
     /*
@@ -825,26 +1775,43 @@ public class JsonDBTemplate implements JsonDBOperations {
      * 
      * @see io.jsondb.JsonDBOperations#findById(java.lang.Object, java.lang.String)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> T findById(Object id, String collectionName) {
+        return findById(id, collectionName, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findById(java.lang.Object, java.lang.Class, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> T findById(Object id, Class<T> entityClass, ReadMode readMode) {
+        return findById(id, Util.determineCollectionName(entityClass), readMode);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findById(java.lang.Object, java.lang.String, io.jsondb.ReadMode)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T findById(Object id, String collectionName, ReadMode readMode) {
         CollectionMetaData cmd = cmdMap.get(collectionName);
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+        Map<Object, T> collection = publishedVersion(collectionName);
         if (null == cmd || null == collection) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
         }
-        cmd.getCollectionLock().readLock().lock();
+        Lock lock = lockForDecryption(cmd);
         try {
-            Object obj = Util.deepCopy(collection.get(id));
-            if (encrypted && cmd.hasSecret() && null != obj) {
-                CryptoUtil.decryptFields(obj, cmd, dbConfig.getCipher());
-            }
-            return (T) obj;
+            collection = currentVersion(collectionName);
+            return (T) toResult(collection.get(id), cmd, isShared(readMode));
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
         } finally {
-            cmd.getCollectionLock().readLock().unlock();
+            unlockForDecryption(lock);
         }
     }
 
@@ -858,37 +1825,317 @@ public class JsonDBTemplate implements JsonDBOperations {
         return findOne(jxQuery, Util.determineCollectionName(entityClass));
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findOne(java.lang.String, java.lang.Class, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> T findOne(String jxQuery, Class<T> entityClass, ReadMode readMode) {
+        return findOne(jxQuery, Util.determineCollectionName(entityClass), readMode);
+    }
+
     /*
      * (non-Javadoc)
      * 
      * @see io.jsondb.JsonDBOperations#findOne(java.lang.String, java.lang.String)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> T findOne(String jxQuery, String collectionName) {
+        return findOne(jxQuery, collectionName, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findOne(java.lang.String, java.lang.String, io.jsondb.ReadMode)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T findOne(String jxQuery, String collectionName, ReadMode readMode) {
         CollectionMetaData collectionMeta = cmdMap.get(collectionName);
         if (null == collectionMeta || !collectionsRef.get().containsKey(collectionName)) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first");
         }
-        collectionMeta.getCollectionLock().readLock().lock();
+        Lock lock = lockForDecryption(collectionMeta);
         try {
-            JXPathContext context = contextsRef.get().get(collectionName);
-            Iterator<T> resultItr = context.iterate(jxQuery);
+            Iterator<T> resultItr = iterate(jxQuery, collectionName, collectionMeta, true);
             while (resultItr.hasNext()) {
                 T document = resultItr.next();
-                Object obj = Util.deepCopy(document);
-                if (encrypted && collectionMeta.hasSecret() && null != obj) {
-                    CryptoUtil.decryptFields(obj, collectionMeta, dbConfig.getCipher());
+                return (T) toResult(document, collectionMeta, isShared(readMode)); // Return the first element we find.
+            }
+            return null;
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
+            throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
+        } finally {
+            unlockForDecryption(lock);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findOne(java.util.function.Predicate, java.lang.Class)
+     */
+    @Override
+    public <T> T findOne(Predicate<? super T> predicate, Class<T> entityClass) {
+        return findOne(predicate, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findOne(java.util.function.Predicate, java.lang.String)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T findOne(Predicate<? super T> predicate, String collectionName) {
+        if (null == predicate) {
+            throw new InvalidJsonDbApiUsageException("Predicate cannot be null.");
+        }
+        CollectionMetaData collectionMeta = cmdMap.get(collectionName);
+        if (null == collectionMeta || !collectionsRef.get().containsKey(collectionName)) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first");
+        }
+        Lock lock = lockForDecryption(collectionMeta);
+        try {
+            T document = this.<T>scan(predicate, collectionName).findFirst().orElse(null);
+            return null == document ? null : (T) toResult(document, collectionMeta, isShared(null));
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
+            throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
+        } finally {
+            unlockForDecryption(lock);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#stream(java.lang.String, java.lang.Class)
+     */
+    @Override
+    public <T> Stream<T> stream(String jxQuery, Class<T> entityClass) {
+        return stream(jxQuery, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#stream(java.lang.String, java.lang.String)
+     */
+    @Override
+    public <T> Stream<T> stream(String jxQuery, String collectionName) {
+        return stream(jxQuery, collectionName, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#stream(java.lang.String, java.lang.Class, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> Stream<T> stream(String jxQuery, Class<T> entityClass, ReadMode readMode) {
+        return stream(jxQuery, Util.determineCollectionName(entityClass), readMode);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#stream(java.lang.String, java.lang.String, io.jsondb.ReadMode)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Stream<T> stream(String jxQuery, String collectionName, ReadMode readMode) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        }
+        Lock lock = lockForDecryption(cmd);
+        try {
+            Iterator<T> resultItr = iterate(jxQuery, collectionName, cmd, true);
+            return toResultStream(Spliterators.spliteratorUnknownSize(resultItr, Spliterator.ORDERED | Spliterator.NONNULL),
+                    cmd, isShared(readMode), dbConfig.getCipher(), collectionName);
+        } finally {
+            unlockForDecryption(lock);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#streamAll(java.lang.Class)
+     */
+    @Override
+    public <T> Stream<T> streamAll(Class<T> entityClass) {
+        return streamAll(Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#streamAll(java.lang.String)
+     */
+    @Override
+    public <T> Stream<T> streamAll(String collectionName) {
+        return streamAll(collectionName, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#streamAll(java.lang.Class, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> Stream<T> streamAll(Class<T> entityClass, ReadMode readMode) {
+        return streamAll(Util.determineCollectionName(entityClass), readMode);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#streamAll(java.lang.String, io.jsondb.ReadMode)
+     */
+    @Override
+    public <T> Stream<T> streamAll(String collectionName, ReadMode readMode) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        }
+        Lock lock = lockForDecryption(cmd);
+        try {
+            Map<Object, T> collection = currentVersion(collectionName);
+            return toResultStream(Spliterators.spliterator(collection.values(), Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE),
+                    cmd, isShared(readMode), dbConfig.getCipher(), collectionName);
+        } finally {
+            unlockForDecryption(lock);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findPage(java.lang.String, java.lang.Class, int, java.lang.String)
+     */
+    @Override
+    public <T> Page<T> findPage(String jxQuery, Class<T> entityClass, int pageSize, String continuationToken) {
+        return findPage(jxQuery, Util.determineCollectionName(entityClass), null, pageSize, continuationToken);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findPage(java.lang.String, java.lang.String, int, java.lang.String)
+     */
+    @Override
+    public <T> Page<T> findPage(String jxQuery, String collectionName, int pageSize, String continuationToken) {
+        return findPage(jxQuery, collectionName, null, pageSize, continuationToken);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findPage(java.lang.String, java.lang.Class, java.lang.String, int, java.lang.String)
+     */
+    @Override
+    public <T> Page<T> findPage(String jxQuery, Class<T> entityClass, String sortField, int pageSize, String continuationToken) {
+        return findPage(jxQuery, Util.determineCollectionName(entityClass), sortField, pageSize, continuationToken);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findPage(java.lang.String, java.lang.String, java.lang.String, int, java.lang.String)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Page<T> findPage(String jxQuery, String collectionName, String sortField, int pageSize, String continuationToken) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        if (null == cmd || !collectionsRef.get().containsKey(collectionName)) {
+            throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
+        }
+        if (pageSize < 1) {
+            throw new InvalidJsonDbApiUsageException("Page size must be at least 1");
+        }
+        if (!CollectionVersion.isSortable(cmd.getIdAnnotatedFieldGetterMethod().getReturnType())) {
+            throw new InvalidJsonDbApiUsageException("Ids of collection '" + collectionName + "' are not Comparable, pagination needs them ordered");
+        }
+        if (null != sortField && !cmd.getRangeIndexedFieldNames().contains(sortField)) {
+            throw new InvalidJsonDbApiUsageException("Field '" + sortField + "' has no @Indexed(type = RANGE) index in collection: " + collectionName);
+        }
+        boolean shared = isShared(null);
+        Lock lock = lockForDecryption(cmd);
+        try {
+            PublishedCollection<T> published = published(collectionName);
+            CollectionVersion<T> collection = published.getVersion();
+            Entry<Object, Object> last = null == continuationToken ? null
+                    : decodeContinuationToken(continuationToken, cmd, sortField, null == sortField ? null : published.getIndexes().keyType(sortField));
+            Iterator<Entry<Object, Object>> order;
+            if (null == sortField) {
+                // The ids of a version are kept in their order, every page starts with a lookup of the id to continue after
+                order = Iterators.transform(collection.idsAfter(null == last ? null : last.getValue()), id -> new SimpleImmutableEntry<>(null, id));
+            } else {
+                order = published.getIndexes().pageAfter(sortField, null == last ? null : last.getKey(), null == last ? null : last.getValue());
+            }
+            List<T> documents = new ArrayList<>();
+            while (order.hasNext() && documents.size() < pageSize) {
+                last = order.next();
+                T document = collection.get(last.getValue());
+                if (null == jxQuery || matches(jxQuery, document)) {
+                    documents.add((T) toResult(document, cmd, shared));
                 }
-                return (T) obj; // Return the first element we find.
             }
-            return null;
+            // The next page continues after the last document looked at, matched or not
+            String nextToken = order.hasNext() ? encodeContinuationToken(sortField, last) : null;
+            return new Page<>(toResultList(documents, shared), nextToken);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
         } finally {
-            collectionMeta.getCollectionLock().readLock().unlock();
+            unlockForDecryption(lock);
+        }
+    }
+
+    /**
+     * A continuation token is the JSON of the field the pages are sorted by, null for the ids, and of the value
+     * of that field and the id of the last document looked at, so a page continues exactly after it even if the
+     * document was changed or removed since.
+     */
+    private String encodeContinuationToken(String sortField, Entry<Object, Object> last) {
+        ObjectMapper objectMapper = dbConfig.getObjectMapper();
+        ObjectNode token = objectMapper.createObjectNode();
+        token.put("sort", sortField);
+        token.set("key", objectMapper.valueToTree(last.getKey()));
+        token.set("id", objectMapper.valueToTree(last.getValue()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(token));
+        } catch (IOException e) {
+            throw new JsonDBException("Failed to create the continuation token for id: " + last.getValue(), e);
+        }
+    }
+
+    private Entry<Object, Object> decodeContinuationToken(String continuationToken, CollectionMetaData cmd, String sortField, Class<?> keyType) {
+        ObjectMapper objectMapper = dbConfig.getObjectMapper();
+        JsonNode token;
+        Object key;
+        Object id;
+        try {
+            token = objectMapper.readTree(Base64.getUrlDecoder().decode(continuationToken));
+            if (null == token || !token.isObject() || !token.hasNonNull("id") || (null != keyType && !token.hasNonNull("key"))) {
+                throw new InvalidJsonDbApiUsageException("Invalid continuation token: " + continuationToken);
+            }
+            key = null == keyType ? null : objectMapper.treeToValue(token.get("key"), keyType);
+            id = objectMapper.treeToValue(token.get("id"), cmd.getIdAnnotatedFieldGetterMethod().getReturnType());
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidJsonDbApiUsageException("Invalid continuation token: " + continuationToken, e);
+        }
+        String tokenSortField = token.path("sort").isTextual() ? token.get("sort").asText() : null;
+        if (!Objects.equals(sortField, tokenSortField)) {
+            throw new InvalidJsonDbApiUsageException("Continuation token is of pages sorted by " + (null == tokenSortField ? "id" : "'" + tokenSortField + "'")
+                    + ", not by " + (null == sortField ? "id" : "'" + sortField + "'"));
         }
+        return new SimpleImmutableEntry<>(key, id);
     }
 
     /*
@@ -910,18 +2157,28 @@ public class JsonDBTemplate implements JsonDBOperations {
      * 
      * @see io.jsondb.JsonDBOperations#insert(java.lang.Object, java.lang.String)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> void insert(Object objectToSave, String collectionName) {
+        awaitCommit(applyInsert(objectToSave, collectionName), collectionName);
+    }
+
+    /**
+     * Inserts the object in memory and writes it to the collection file, or queues it with the group committer.
+     *
+     * @return future that completes once the change is written
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Void> applyInsert(Object objectToSave, String collectionName) {
         if (null == objectToSave) {
             throw new InvalidJsonDbApiUsageException("Null Object cannot be inserted into DB");
         }
         Util.ensureNotRestricted(objectToSave);
         Object objToSave = Util.deepCopy(objectToSave);
         CollectionMetaData cmd = cmdMap.get(collectionName);
+        awaitCapacity();
         cmd.getCollectionLock().writeLock().lock();
         try {
-            Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+            Map<Object, T> collection = publishedVersion(collectionName);
             if (null == collection) {
                 throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first");
             }
@@ -935,19 +2192,24 @@ public class JsonDBTemplate implements JsonDBOperations {
                 throw new InvalidJsonDbApiUsageException("Object already present in Collection. Use Update or Upsert operation instead of Insert");
             }
 
-            JsonWriter jw;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            if (null != groupCommitter) {
+                CompletableFuture<Void> commit = submitWrites(cmd, collectionName, List.of(PendingWrite.insert(objToSave)));
+                Map<Object, T> next = nextVersion(collection);
+                next.put(Util.deepCopy(id), (T) objToSave);
+                publish(collectionName, next);
+                return commit;
             }
 
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
+
             boolean appendResult = jw.appendToJsonFile(collection.values(), objToSave);
 
             if (appendResult) {
-                collection.put(Util.deepCopy(id), (T) objToSave);
+                Map<Object, T> next = nextVersion(collection);
+                next.put(Util.deepCopy(id), (T) objToSave);
+                publish(collectionName, next);
             }
+            return CompletableFuture.completedFuture(null);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
@@ -971,16 +2233,26 @@ public class JsonDBTemplate implements JsonDBOperations {
      * 
      * @see io.jsondb.JsonDBOperations#insert(java.util.Collection, java.lang.String)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> void insert(Collection<? extends T> batchToSave, String collectionName) {
+        awaitCommit(applyInsert(batchToSave, collectionName), collectionName);
+    }
+
+    /**
+     * Inserts the batch in memory and writes it to the collection file, or queues it with the group committer.
+     *
+     * @return future that completes once the change is written
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Void> applyInsert(Collection<? extends T> batchToSave, String collectionName) {
         if (null == batchToSave) {
             throw new InvalidJsonDbApiUsageException("Null Object batch cannot be inserted into DB");
         }
         CollectionMetaData collectionMeta = cmdMap.get(collectionName);
+        awaitCapacity();
         collectionMeta.getCollectionLock().writeLock().lock();
         try {
-            Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+            Map<Object, T> collection = publishedVersion(collectionName);
             if (null == collection) {
                 throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first");
             }
@@ -1004,18 +2276,27 @@ public class JsonDBTemplate implements JsonDBOperations {
                 newCollection.put(Util.deepCopy(id), (T) obj);
             }
 
-            JsonWriter jw;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            if (null != groupCommitter) {
+                List<PendingWrite> writes = new ArrayList<>(newCollection.size());
+                for (T obj : newCollection.values()) {
+                    writes.add(PendingWrite.insert(obj));
+                }
+                CompletableFuture<Void> commit = submitWrites(cmd, collectionName, writes);
+                Map<Object, T> next = nextVersion(collection);
+                next.putAll(newCollection);
+                publish(collectionName, next);
+                return commit;
             }
+
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
             boolean appendResult = jw.appendToJsonFile(collection.values(), newCollection.values());
 
             if (appendResult) {
-                collection.putAll(newCollection);
+                Map<Object, T> next = nextVersion(collection);
+                next.putAll(newCollection);
+                publish(collectionName, next);
             }
+            return CompletableFuture.completedFuture(null);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
@@ -1041,16 +2322,26 @@ public class JsonDBTemplate implements JsonDBOperations {
      */
     @Override
     public <T> void save(Object objectToSave, String collectionName) {
+        awaitCommit(applySave(objectToSave, collectionName), collectionName);
+    }
+
+    /**
+     * Replaces the object in memory and writes it to the collection file, or queues it with the group committer.
+     *
+     * @return future that completes once the change is written
+     */
+    private <T> CompletableFuture<Void> applySave(Object objectToSave, String collectionName) {
         if (null == objectToSave) {
             throw new InvalidJsonDbApiUsageException("Null Object cannot be updated into DB");
         }
         Util.ensureNotRestricted(objectToSave);
         Object objToSave = Util.deepCopy(objectToSave);
         CollectionMetaData collectionMeta = cmdMap.get(collectionName);
+        awaitCapacity();
         collectionMeta.getCollectionLock().writeLock().lock();
         try {
             @SuppressWarnings("unchecked")
-            Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+            Map<Object, T> collection = publishedVersion(collectionName);
             if (null == collection) {
                 throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
             }
@@ -1067,20 +2358,26 @@ public class JsonDBTemplate implements JsonDBOperations {
             if (encrypted && cmd.hasSecret()) {
                 CryptoUtil.encryptFields(objToSave, cmd, dbConfig.getCipher());
             }
-            JsonWriter jw = null;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            if (null != groupCommitter) {
+                CompletableFuture<Void> commit = submitWrites(cmd, collectionName, List.of(PendingWrite.update(objToSave)));
+                @SuppressWarnings("unchecked")
+                T newObject = (T) objToSave;
+                Map<Object, T> next = nextVersion(collection);
+                next.put(id, newObject);
+                publish(collectionName, next);
+                return commit;
             }
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
             @SuppressWarnings("unchecked")
             boolean updateResult = jw.updateInJsonFile(collection, id, (T) objToSave);
             if (updateResult) {
                 @SuppressWarnings("unchecked")
                 T newObject = (T) objToSave;
-                collection.put(id, newObject);
+                Map<Object, T> next = nextVersion(collection);
+                next.put(id, newObject);
+                publish(collectionName, next);
             }
+            return CompletableFuture.completedFuture(null);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
@@ -1116,16 +2413,26 @@ public class JsonDBTemplate implements JsonDBOperations {
      */
     @Override
     public <T> T remove(Object objectToRemove, String collectionName) {
+        return awaitCommit(applyRemove(objectToRemove, collectionName), collectionName);
+    }
+
+    /**
+     * Removes the object from memory and from the collection file, or queues the removal with the group committer.
+     *
+     * @return future that completes once the change is written, with the removed documents
+     */
+    private <T> CompletableFuture<T> applyRemove(Object objectToRemove, String collectionName) {
         if (null == objectToRemove) {
             throw new InvalidJsonDbApiUsageException("Null Object cannot be removed from DB");
         }
         Util.ensureNotRestricted(objectToRemove);
 
         CollectionMetaData collectionMeta = cmdMap.get(collectionName);
+        awaitCapacity();
         collectionMeta.getCollectionLock().writeLock().lock();
         try {
             @SuppressWarnings("unchecked")
-            Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+            Map<Object, T> collection = publishedVersion(collectionName);
             if (null == collection) {
                 throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
             }
@@ -1136,20 +2443,24 @@ public class JsonDBTemplate implements JsonDBOperations {
                 throw new InvalidJsonDbApiUsageException(String.format("Objects with Id %s not found in collection %s", id, collectionName));
             }
 
-            JsonWriter jw;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            if (null != groupCommitter) {
+                CompletableFuture<Void> commit = submitWrites(cmd, collectionName, List.of(PendingWrite.delete(id)));
+                Map<Object, T> next = nextVersion(collection);
+                T objectRemoved = next.remove(id);
+                publish(collectionName, next);
+                return commit.thenApply(v -> objectRemoved);
             }
+
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
             boolean substractResult = jw.removeFromJsonFile(collection, id);
             if (substractResult) {
-                T objectRemoved = collection.remove(id);
+                Map<Object, T> next = nextVersion(collection);
+                T objectRemoved = next.remove(id);
+                publish(collectionName, next);
                 // Don't need to clone it, this object no more exists in the collection
-                return objectRemoved;
+                return CompletableFuture.completedFuture(objectRemoved);
             } else {
-                return null;
+                return CompletableFuture.completedFuture(null);
             }
         } finally {
             collectionMeta.getCollectionLock().writeLock().unlock();
@@ -1173,14 +2484,24 @@ public class JsonDBTemplate implements JsonDBOperations {
      */
     @Override
     public <T> List<T> remove(Collection<? extends T> batchToRemove, String collectionName) {
+        return awaitCommit(applyRemove(batchToRemove, collectionName), collectionName);
+    }
+
+    /**
+     * Removes the batch from memory and from the collection file, or queues the removal with the group committer.
+     *
+     * @return future that completes once the change is written, with the removed documents
+     */
+    private <T> CompletableFuture<List<T>> applyRemove(Collection<? extends T> batchToRemove, String collectionName) {
         if (null == batchToRemove) {
             throw new InvalidJsonDbApiUsageException("Null Object batch cannot be removed from DB");
         }
         CollectionMetaData cmd = cmdMap.get(collectionName);
+        awaitCapacity();
         cmd.getCollectionLock().writeLock().lock();
         try {
             @SuppressWarnings("unchecked")
-            Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+            Map<Object, T> collection = publishedVersion(collectionName);
             if (null == collection) {
                 throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
             }
@@ -1195,27 +2516,38 @@ public class JsonDBTemplate implements JsonDBOperations {
             }
 
             if (removeIds.size() < 1) {
-                return null;
+                return CompletableFuture.completedFuture(null);
             }
 
-            JsonWriter jw;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            if (null != groupCommitter) {
+                List<PendingWrite> writes = new ArrayList<>(removeIds.size());
+                for (Object id : removeIds) {
+                    writes.add(PendingWrite.delete(id));
+                }
+                CompletableFuture<Void> commit = submitWrites(cmd, collectionName, writes);
+                Map<Object, T> next = nextVersion(collection);
+                List<T> removedObjects = new ArrayList<>(removeIds.size());
+                for (Object id : removeIds) {
+                    removedObjects.add(next.remove(id));
+                }
+                publish(collectionName, next);
+                return commit.thenApply(v -> removedObjects);
             }
+
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
             boolean substractResult = jw.removeFromJsonFile(collection, removeIds);
 
             List<T> removedObjects = null;
             if (substractResult) {
+                Map<Object, T> next = nextVersion(collection);
                 removedObjects = new ArrayList<>();
                 for (Object id : removeIds) {
                     // Don't need to clone it, this object no more exists in the collection
-                    removedObjects.add(collection.remove(id));
+                    removedObjects.add(next.remove(id));
                 }
+                publish(collectionName, next);
             }
-            return removedObjects;
+            return CompletableFuture.completedFuture(removedObjects);
         } finally {
             cmd.getCollectionLock().writeLock().unlock();
         }
@@ -1240,18 +2572,28 @@ public class JsonDBTemplate implements JsonDBOperations {
      * 
      * @see org.jsondb.JsonDBOperations#upsert(java.lang.Object, java.lang.String)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> void upsert(Object objectToSave, String collectionName) {
+        awaitCommit(applyUpsert(objectToSave, collectionName), collectionName);
+    }
+
+    /**
+     * Inserts or replaces the object in memory and writes it to the collection file, or queues it with the group committer.
+     *
+     * @return future that completes once the change is written
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Void> applyUpsert(Object objectToSave, String collectionName) {
         if (null == objectToSave) {
             throw new InvalidJsonDbApiUsageException("Null Object cannot be upserted into DB");
         }
         Util.ensureNotRestricted(objectToSave);
         Object objToSave = Util.deepCopy(objectToSave);
         CollectionMetaData collectionMeta = cmdMap.get(collectionName);
+        awaitCapacity();
         collectionMeta.getCollectionLock().writeLock().lock();
         try {
-            Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+            Map<Object, T> collection = publishedVersion(collectionName);
             if (null == collection) {
                 throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first");
             }
@@ -1268,26 +2610,34 @@ public class JsonDBTemplate implements JsonDBOperations {
                 insert = false;
             }
 
-            JsonWriter jw;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            if (null != groupCommitter) {
+                PendingWrite write = insert ? PendingWrite.insert(objToSave) : PendingWrite.update(objToSave);
+                CompletableFuture<Void> commit = submitWrites(cmd, collectionName, List.of(write));
+                Map<Object, T> next = nextVersion(collection);
+                next.put(insert ? Util.deepCopy(id) : id, (T) objToSave);
+                publish(collectionName, next);
+                return commit;
             }
 
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
+
             if (insert) {
                 boolean insertResult = jw.appendToJsonFile(collection.values(), objToSave);
                 if (insertResult) {
-                    collection.put(Util.deepCopy(id), (T) objToSave);
+                    Map<Object, T> next = nextVersion(collection);
+                    next.put(Util.deepCopy(id), (T) objToSave);
+                    publish(collectionName, next);
                 }
             } else {
                 boolean updateResult = jw.updateInJsonFile(collection, id, (T) objToSave);
                 if (updateResult) {
                     T newObject = (T) objToSave;
-                    collection.put(id, newObject);
+                    Map<Object, T> next = nextVersion(collection);
+                    next.put(id, newObject);
+                    publish(collectionName, next);
                 }
             }
+            return CompletableFuture.completedFuture(null);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
@@ -1311,16 +2661,26 @@ public class JsonDBTemplate implements JsonDBOperations {
      * 
      * @see org.jsondb.JsonDBOperations#upsert(java.util.Collection, java.lang.String)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> void upsert(Collection<? extends T> batchToSave, String collectionName) {
+        awaitCommit(applyUpsert(batchToSave, collectionName), collectionName);
+    }
+
+    /**
+     * Inserts or replaces the batch in memory and writes it to the collection file, or queues it with the group committer.
+     *
+     * @return future that completes once the change is written
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Void> applyUpsert(Collection<? extends T> batchToSave, String collectionName) {
         if (null == batchToSave) {
             throw new InvalidJsonDbApiUsageException("Null Object batch cannot be upserted into DB");
         }
         CollectionMetaData collectionMeta = cmdMap.get(collectionName);
+        awaitCapacity();
         collectionMeta.getCollectionLock().writeLock().lock();
         try {
-            Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+            Map<Object, T> collection = publishedVersion(collectionName);
             if (null == collection) {
                 throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first");
             }
@@ -1352,27 +2712,42 @@ public class JsonDBTemplate implements JsonDBOperations {
                 }
             }
 
-            JsonWriter jw;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            if (null != groupCommitter) {
+                List<PendingWrite> writes = new ArrayList<>(collectionToInsert.size() + collectionToUpdate.size());
+                for (T obj : collectionToInsert.values()) {
+                    writes.add(PendingWrite.insert(obj));
+                }
+                for (T obj : collectionToUpdate.values()) {
+                    writes.add(PendingWrite.update(obj));
+                }
+                CompletableFuture<Void> commit = submitWrites(cmd, collectionName, writes);
+                Map<Object, T> next = nextVersion(collection);
+                next.putAll(collectionToInsert);
+                next.putAll(collectionToUpdate);
+                publish(collectionName, next);
+                return commit;
             }
 
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
+
             if (collectionToInsert.size() > 0) {
                 boolean insertResult = jw.appendToJsonFile(collection.values(), collectionToInsert.values());
                 if (insertResult) {
-                    collection.putAll(collectionToInsert);
+                    Map<Object, T> next = nextVersion(collection);
+                    next.putAll(collectionToInsert);
+                    collection = publish(collectionName, next);
                 }
             }
 
             if (collectionToUpdate.size() > 0) {
                 boolean updateResult = jw.updateInJsonFile(collection, collectionToUpdate);
                 if (updateResult) {
-                    collection.putAll(collectionToUpdate);
+                    Map<Object, T> next = nextVersion(collection);
+                    next.putAll(collectionToUpdate);
+                    publish(collectionName, next);
                 }
             }
+            return CompletableFuture.completedFuture(null);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
             log.error("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
@@ -1403,15 +2778,16 @@ public class JsonDBTemplate implements JsonDBOperations {
         }
         CollectionMetaData cmd = cmdMap.get(collectionName);
         @SuppressWarnings("unchecked")
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+        Map<Object, T> collection = publishedVersion(collectionName);
         if (null == cmd || null == collection) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
         }
+        CompletableFuture<Void> commit = null;
+        awaitCapacity();
         cmd.getCollectionLock().writeLock().lock();
         try {
-            JXPathContext context = contextsRef.get().get(collectionName);
-            @SuppressWarnings("unchecked")
-            Iterator<T> resultItr = context.iterate(jxQuery);
+            collection = currentVersion(collectionName);
+            Iterator<T> resultItr = iterate(jxQuery, collectionName, cmd);
             T objectToRemove = null;
             while (resultItr.hasNext()) {
                 objectToRemove = resultItr.next();
@@ -1423,16 +2799,20 @@ public class JsonDBTemplate implements JsonDBOperations {
                     throw new InvalidJsonDbApiUsageException(String.format("Objects with Id %s not found in collection %s", idToRemove, collectionName));
                 }
 
-                JsonWriter jw;
-                try {
-                    jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-                } catch (IOException ioe) {
-                    log.error("Failed to obtain writer for " + collectionName, ioe);
-                    throw new JsonDBException("Failed to save " + collectionName, ioe);
+                if (null != groupCommitter) {
+                    commit = submitWrites(cmd, collectionName, List.of(PendingWrite.delete(idToRemove)));
+                    Map<Object, T> next = nextVersion(collection);
+                    T objectRemoved = next.remove(idToRemove);
+                    publish(collectionName, next);
+                    return objectRemoved;
                 }
+
+                JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
                 boolean substractResult = jw.removeFromJsonFile(collection, idToRemove);
                 if (substractResult) {
-                    T objectRemoved = collection.remove(idToRemove);
+                    Map<Object, T> next = nextVersion(collection);
+                    T objectRemoved = next.remove(idToRemove);
+                    publish(collectionName, next);
                     // Don't need to clone it, this object no more exists in the collection
                     return objectRemoved;
                 } else {
@@ -1442,6 +2822,7 @@ public class JsonDBTemplate implements JsonDBOperations {
             return null; // Either the jxQuery found nothing or actual FileIO failed to substract it.
         } finally {
             cmd.getCollectionLock().writeLock().unlock();
+            awaitCommit(commit, collectionName);
         }
     }
 
@@ -1462,17 +2843,50 @@ public class JsonDBTemplate implements JsonDBOperations {
      */
     @Override
     public <T> List<T> findAllAndRemove(String jxQuery, String collectionName) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        return selectAndRemove(() -> iterate(jxQuery, collectionName, cmd), collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findAllAndRemove(java.util.function.Predicate, java.lang.Class)
+     */
+    @Override
+    public <T> List<T> findAllAndRemove(Predicate<? super T> predicate, Class<T> entityClass) {
+        return findAllAndRemove(predicate, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findAllAndRemove(java.util.function.Predicate, java.lang.String)
+     */
+    @Override
+    public <T> List<T> findAllAndRemove(Predicate<? super T> predicate, String collectionName) {
+        if (null == predicate) {
+            throw new InvalidJsonDbApiUsageException("Predicate cannot be null.");
+        }
+        return selectAndRemove(() -> this.<T>scan(predicate, collectionName).collect(Collectors.toList()).iterator(), collectionName);
+    }
+
+    /**
+     * Removes the documents found by a query, the documents are taken from the current version of the collection
+     * once the collection lock is held.
+     */
+    private <T> List<T> selectAndRemove(Supplier<Iterator<T>> documents, String collectionName) {
         CollectionMetaData cmd = cmdMap.get(collectionName);
         @SuppressWarnings("unchecked")
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+        Map<Object, T> collection = publishedVersion(collectionName);
         if (null == cmd || null == collection) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
         }
+        CompletableFuture<Void> commit = null;
+        awaitCapacity();
         cmd.getCollectionLock().writeLock().lock();
         try {
-            JXPathContext context = contextsRef.get().get(collectionName);
-            @SuppressWarnings("unchecked")
-            Iterator<T> resultItr = context.iterate(jxQuery);
+            collection = currentVersion(collectionName);
+            Iterator<T> resultItr = documents.get();
             Set<Object> removeIds = new HashSet<>();
             while (resultItr.hasNext()) {
                 T objectToRemove = resultItr.next();
@@ -1484,27 +2898,37 @@ public class JsonDBTemplate implements JsonDBOperations {
                 return null;
             }
 
-            JsonWriter jw;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            if (null != groupCommitter) {
+                List<PendingWrite> writes = new ArrayList<>(removeIds.size());
+                Map<Object, T> next = nextVersion(collection);
+                List<T> removedObjects = new ArrayList<>(removeIds.size());
+                for (Object id : removeIds) {
+                    writes.add(PendingWrite.delete(id));
+                    removedObjects.add(next.remove(id));
+                }
+                commit = submitWrites(cmd, collectionName, writes);
+                publish(collectionName, next);
+                return removedObjects;
             }
+
+            JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
             boolean substractResult = jw.removeFromJsonFile(collection, removeIds);
 
             List<T> removedObjects = null;
             if (substractResult) {
+                Map<Object, T> next = nextVersion(collection);
                 removedObjects = new ArrayList<>();
                 for (Object id : removeIds) {
                     // Don't need to clone it, this object no more exists in the collection
-                    removedObjects.add(collection.remove(id));
+                    removedObjects.add(next.remove(id));
                 }
+                publish(collectionName, next);
             }
             return removedObjects;
 
         } finally {
             cmd.getCollectionLock().writeLock().unlock();
+            awaitCommit(commit, collectionName);
         }
     }
 
@@ -1527,14 +2951,16 @@ public class JsonDBTemplate implements JsonDBOperations {
     @Override
     public <T> T findAndModify(String jxQuery, Update update, String collectionName) {
         CollectionMetaData cmd = cmdMap.get(collectionName);
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+        Map<Object, T> collection = publishedVersion(collectionName);
         if (null == cmd || null == collection) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
         }
+        CompletableFuture<Void> commit = null;
+        awaitCapacity();
         cmd.getCollectionLock().writeLock().lock();
         try {
-            JXPathContext context = contextsRef.get().get(collectionName);
-            Iterator<T> resultItr = context.iterate(jxQuery);
+            collection = currentVersion(collectionName);
+            Iterator<T> resultItr = iterate(jxQuery, collectionName, cmd);
             T objectToModify = null;
             T clonedModifiedObject = null;
 
@@ -1559,20 +2985,22 @@ public class JsonDBTemplate implements JsonDBOperations {
                 }
 
                 Object idToModify = Util.getIdForEntity(clonedModifiedObject, cmd.getIdAnnotatedFieldGetterMethod());
-                JsonWriter jw = null;
-                try {
-                    jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-                } catch (IOException ioe) {
-                    log.error("Failed to obtain writer for " + collectionName, ioe);
-                    throw new JsonDBException("Failed to save " + collectionName, ioe);
+                boolean updateResult;
+                if (null != groupCommitter) {
+                    commit = submitWrites(cmd, collectionName, List.of(PendingWrite.update(clonedModifiedObject)));
+                    updateResult = true;
+                } else {
+                    JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
+                    updateResult = jw.updateInJsonFile(collection, idToModify, clonedModifiedObject);
                 }
-                boolean updateResult = jw.updateInJsonFile(collection, idToModify, clonedModifiedObject);
                 if (updateResult) {
-                    collection.put(idToModify, clonedModifiedObject);
+                    Map<Object, T> next = nextVersion(collection);
+                    next.put(idToModify, clonedModifiedObject);
+                    publish(collectionName, next);
                     // Clone it once more because we want to disconnect it from the in-memory objects before returning.
                     T returnObj = (T) Util.deepCopy(clonedModifiedObject);
                     if (encrypted && cmd.hasSecret() && null != returnObj) {
-                        CryptoUtil.decryptFields(returnObj, cmd, dbConfig.getCipher());
+                        CryptoUtil.decryptFields(returnObj, cmd, dbConfig.getCipher(), decryptedValues);
                     }
                     return returnObj;
                 }
@@ -1583,6 +3011,7 @@ public class JsonDBTemplate implements JsonDBOperations {
             throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
         } finally {
             cmd.getCollectionLock().writeLock().unlock();
+            awaitCommit(commit, collectionName);
         }
     }
 
@@ -1601,18 +3030,52 @@ public class JsonDBTemplate implements JsonDBOperations {
      * 
      * @see io.jsondb.JsonDBOperations#findAllAndModify(java.lang.String, io.jsondb.query.Update, java.lang.String)
      */
-    @SuppressWarnings("unchecked")
     @Override
     public <T> List<T> findAllAndModify(String jxQuery, Update update, String collectionName) {
         CollectionMetaData cmd = cmdMap.get(collectionName);
-        Map<Object, T> collection = (Map<Object, T>) collectionsRef.get().get(collectionName);
+        return selectAndModify(() -> iterate(jxQuery, collectionName, cmd), update, collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findAllAndModify(java.util.function.Predicate, io.jsondb.query.Update, java.lang.Class)
+     */
+    @Override
+    public <T> List<T> findAllAndModify(Predicate<? super T> predicate, Update update, Class<T> entityClass) {
+        return findAllAndModify(predicate, update, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.JsonDBOperations#findAllAndModify(java.util.function.Predicate, io.jsondb.query.Update, java.lang.String)
+     */
+    @Override
+    public <T> List<T> findAllAndModify(Predicate<? super T> predicate, Update update, String collectionName) {
+        if (null == predicate) {
+            throw new InvalidJsonDbApiUsageException("Predicate cannot be null.");
+        }
+        return selectAndModify(() -> this.<T>scan(predicate, collectionName).collect(Collectors.toList()).iterator(), update, collectionName);
+    }
+
+    /**
+     * Applies an Update to the documents found by a query, the documents are taken from the current version
+     * of the collection once the collection lock is held.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> selectAndModify(Supplier<Iterator<T>> documents, Update update, String collectionName) {
+        CollectionMetaData cmd = cmdMap.get(collectionName);
+        Map<Object, T> collection = publishedVersion(collectionName);
         if (null == cmd || null == collection) {
             throw new InvalidJsonDbApiUsageException("Collection by name '" + collectionName + "' not found. Create collection first.");
         }
+        CompletableFuture<Void> commit = null;
+        awaitCapacity();
         cmd.getCollectionLock().writeLock().lock();
         try {
-            JXPathContext context = contextsRef.get().get(collectionName);
-            Iterator<T> resultItr = context.iterate(jxQuery);
+            collection = currentVersion(collectionName);
+            Iterator<T> resultItr = documents.get();
             Map<Object, T> clonedModifiedObjects = new HashMap<>();
 
             while (resultItr.hasNext()) {
@@ -1635,23 +3098,29 @@ public class JsonDBTemplate implements JsonDBOperations {
                 clonedModifiedObjects.put(id, clonedModifiedObject);
             }
 
-            JsonWriter jw = null;
-            try {
-                jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-            } catch (IOException ioe) {
-                log.error("Failed to obtain writer for " + collectionName, ioe);
-                throw new JsonDBException("Failed to save " + collectionName, ioe);
+            boolean updateResult;
+            if (null != groupCommitter) {
+                List<PendingWrite> writes = new ArrayList<>(clonedModifiedObjects.size());
+                for (T obj : clonedModifiedObjects.values()) {
+                    writes.add(PendingWrite.update(obj));
+                }
+                commit = submitWrites(cmd, collectionName, writes);
+                updateResult = true;
+            } else {
+                JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
+                updateResult = jw.updateInJsonFile(collection, clonedModifiedObjects);
             }
-            boolean updateResult = jw.updateInJsonFile(collection, clonedModifiedObjects);
             if (updateResult) {
-                collection.putAll(clonedModifiedObjects);
+                Map<Object, T> next = nextVersion(collection);
+                next.putAll(clonedModifiedObjects);
+                publish(collectionName, next);
                 // Clone it once more because we want to disconnect it from the in-memory objects before returning.
                 List<T> returnObjects = new ArrayList<>();
                 for (T obj : clonedModifiedObjects.values()) {
                     // Clone it once more because we want to disconnect it from the in-memory objects before returning.
                     T returnObj = (T) Util.deepCopy(obj);
                     if (encrypted && cmd.hasSecret() && null != returnObj) {
-                        CryptoUtil.decryptFields(returnObj, cmd, dbConfig.getCipher());
+                        CryptoUtil.decryptFields(returnObj, cmd, dbConfig.getCipher(), decryptedValues);
                     }
                     returnObjects.add(returnObj);
                 }
@@ -1663,6 +3132,7 @@ public class JsonDBTemplate implements JsonDBOperations {
             throw new JsonDBException("Error when decrypting value for a @Secret annotated field for entity: " + collectionName, e);
         } finally {
             cmd.getCollectionLock().writeLock().unlock();
+            awaitCommit(commit, collectionName);
         }
     }
 
@@ -1678,40 +3148,55 @@ public class JsonDBTemplate implements JsonDBOperations {
             throw new InvalidJsonDbApiUsageException("DB is not encrypted, nothing to change for EncryptionKey");
         }
 
-        for (Entry<String, Map<Object, ?>> entry : collectionsRef.get().entrySet()) {
-            CollectionMetaData cmd = cmdMap.get(entry.getKey());
+        List<CollectionMetaData> secretCollections = new ArrayList<>();
+        for (String name : collectionsRef.get().keySet()) {
+            CollectionMetaData cmd = cmdMap.get(name);
             if (cmd.hasSecret()) {
+                secretCollections.add(cmd);
+            }
+        }
+        // Queued writes hold values encrypted with the old key, they have to be written before the collections
+        // are re-crypted, otherwise they would land in the files after the re-crypted documents and replace them
+        while (true) {
+            for (CollectionMetaData cmd : secretCollections) {
+                awaitPendingWrites(cmd.getCollectionName());
+            }
+            for (CollectionMetaData cmd : secretCollections) {
                 cmd.getCollectionLock().writeLock().lock();
             }
+            if (!hasUnflushedWrites(secretCollections)) {
+                break;
+            }
+            // Writes were queued between the wait and the locks, nothing can be queued while the locks are held
+            for (CollectionMetaData cmd : secretCollections) {
+                cmd.getCollectionLock().writeLock().unlock();
+            }
         }
+        cipherLock.writeLock().lock();
         String collectionName = null;
         try {
-            for (Entry<String, Map<Object, ?>> entry : collectionsRef.get().entrySet()) {
+            for (Entry<String, PublishedCollection<?>> entry : collectionsRef.get().entrySet()) {
                 collectionName = entry.getKey();
-                Map<Object, T> collection = (Map<Object, T>) entry.getValue();
+                Map<Object, T> collection = ((PublishedCollection<T>) entry.getValue()).getVersion();
 
                 CollectionMetaData cmd = cmdMap.get(collectionName);
                 if (cmd.hasSecret()) {
                     Map<Object, T> reCryptedObjects = new LinkedHashMap<>();
                     for (Entry<Object, T> object : collection.entrySet()) {
                         T clonedObject = (T) Util.deepCopy(object.getValue());
-                        CryptoUtil.decryptFields(clonedObject, cmd, dbConfig.getCipher());
+                        CryptoUtil.decryptFields(clonedObject, cmd, dbConfig.getCipher(), decryptedValues);
                         CryptoUtil.encryptFields(clonedObject, cmd, newCipher);
                         // We will reuse the Id in the previous collection, should hopefully not cause any issues
                         reCryptedObjects.put(object.getKey(), clonedObject);
                     }
-                    JsonWriter jw = null;
-                    try {
-                        jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName));
-                    } catch (IOException ioe) {
-                        log.error("Failed to obtain writer for " + collectionName, ioe);
-                        throw new JsonDBException("Failed to save " + collectionName, ioe);
-                    }
+                    JsonWriter jw = new JsonWriter(dbConfig, cmd, collectionName, fileObjectsRef.get().get(collectionName), lockFileFor(collectionName), fileSyncer);
                     boolean updateResult = jw.updateInJsonFile(collection, reCryptedObjects);
                     if (!updateResult) {
                         throw new JsonDBException("Failed to write re-crypted collection data to .json files, database might have become insconsistent");
                     }
-                    collection.putAll(reCryptedObjects);
+                    Map<Object, T> next = nextVersion(collection);
+                    next.putAll(reCryptedObjects);
+                    publish(collectionName, next);
                 }
             }
             dbConfig.setCipher(newCipher);
@@ -1719,13 +3204,199 @@ public class JsonDBTemplate implements JsonDBOperations {
             log.error("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
             throw new JsonDBException("Error when encrypting value for a @Secret annotated field for entity: " + collectionName, e);
         } finally {
-            for (Entry<String, Map<Object, ?>> entry : collectionsRef.get().entrySet()) {
-                CollectionMetaData cmd = cmdMap.get(entry.getKey());
-                if (cmd.hasSecret()) {
-                    cmd.getCollectionLock().writeLock().unlock();
-                }
+            if (null != decryptedValues) {
+                // Drop the plain text of the values encrypted with the old key
+                decryptedValues.clear();
+            }
+            cipherLock.writeLock().unlock();
+            for (CollectionMetaData cmd : secretCollections) {
+                cmd.getCollectionLock().writeLock().unlock();
+            }
+        }
+    }
+
+    private boolean hasUnflushedWrites(List<CollectionMetaData> collections) {
+        if (null == groupCommitter) {
+            return false;
+        }
+        for (CollectionMetaData cmd : collections) {
+            if (groupCommitter.hasUnflushedWrites(cmd.getCollectionName())) {
+                return true;
             }
         }
+        return false;
+    }
+
+    private void ensureWriteBehind() {
+        if (null == groupCommitter) {
+            throw new InvalidJsonDbApiUsageException("Write behind is not enabled, the asynchronous operations need JsonDBConfig#writeBehindEnabled");
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#insertAsync(java.lang.Object)
+     */
+    @Override
+    public <T> CompletableFuture<Void> insertAsync(Object objectToSave) {
+        if (null == objectToSave) {
+            throw new InvalidJsonDbApiUsageException("Null Object cannot be inserted into DB");
+        }
+        return insertAsync(objectToSave, Util.determineEntityCollectionName(objectToSave));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#insertAsync(java.lang.Object, java.lang.String)
+     */
+    @Override
+    public <T> CompletableFuture<Void> insertAsync(Object objectToSave, String collectionName) {
+        ensureWriteBehind();
+        return applyInsert(objectToSave, collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#insertAsync(java.util.Collection, java.lang.Class)
+     */
+    @Override
+    public <T> CompletableFuture<Void> insertAsync(Collection<? extends T> batchToSave, Class<T> entityClass) {
+        return insertAsync(batchToSave, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#insertAsync(java.util.Collection, java.lang.String)
+     */
+    @Override
+    public <T> CompletableFuture<Void> insertAsync(Collection<? extends T> batchToSave, String collectionName) {
+        ensureWriteBehind();
+        return applyInsert(batchToSave, collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#saveAsync(java.lang.Object, java.lang.Class)
+     */
+    @Override
+    public <T> CompletableFuture<Void> saveAsync(Object objectToSave, Class<T> entityClass) {
+        return saveAsync(objectToSave, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#saveAsync(java.lang.Object, java.lang.String)
+     */
+    @Override
+    public <T> CompletableFuture<Void> saveAsync(Object objectToSave, String collectionName) {
+        ensureWriteBehind();
+        return applySave(objectToSave, collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#upsertAsync(java.lang.Object)
+     */
+    @Override
+    public <T> CompletableFuture<Void> upsertAsync(Object objectToSave) {
+        if (null == objectToSave) {
+            throw new InvalidJsonDbApiUsageException("Null Object cannot be upserted into DB");
+        }
+        return upsertAsync(objectToSave, Util.determineEntityCollectionName(objectToSave));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#upsertAsync(java.lang.Object, java.lang.String)
+     */
+    @Override
+    public <T> CompletableFuture<Void> upsertAsync(Object objectToSave, String collectionName) {
+        ensureWriteBehind();
+        return applyUpsert(objectToSave, collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#upsertAsync(java.util.Collection, java.lang.Class)
+     */
+    @Override
+    public <T> CompletableFuture<Void> upsertAsync(Collection<? extends T> batchToSave, Class<T> entityClass) {
+        return upsertAsync(batchToSave, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#upsertAsync(java.util.Collection, java.lang.String)
+     */
+    @Override
+    public <T> CompletableFuture<Void> upsertAsync(Collection<? extends T> batchToSave, String collectionName) {
+        ensureWriteBehind();
+        return applyUpsert(batchToSave, collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#removeAsync(java.lang.Object)
+     */
+    @Override
+    public <T> CompletableFuture<T> removeAsync(Object objectToRemove) {
+        if (null == objectToRemove) {
+            throw new InvalidJsonDbApiUsageException("Null Object cannot be removed from DB");
+        }
+        return removeAsync(objectToRemove, Util.determineEntityCollectionName(objectToRemove));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#removeAsync(java.lang.Object, java.lang.Class)
+     */
+    @Override
+    public <T> CompletableFuture<T> removeAsync(Object objectToRemove, Class<T> entityClass) {
+        return removeAsync(objectToRemove, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#removeAsync(java.lang.Object, java.lang.String)
+     */
+    @Override
+    public <T> CompletableFuture<T> removeAsync(Object objectToRemove, String collectionName) {
+        ensureWriteBehind();
+        return applyRemove(objectToRemove, collectionName);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#removeAsync(java.util.Collection, java.lang.Class)
+     */
+    @Override
+    public <T> CompletableFuture<List<T>> removeAsync(Collection<? extends T> batchToRemove, Class<T> entityClass) {
+        return removeAsync(batchToRemove, Util.determineCollectionName(entityClass));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see io.jsondb.AsyncJsonDBOperations#removeAsync(java.util.Collection, java.lang.String)
+     */
+    @Override
+    public <T> CompletableFuture<List<T>> removeAsync(Collection<? extends T> batchToRemove, String collectionName) {
+        ensureWriteBehind();
+        return applyRemove(batchToRemove, collectionName);
     }
 
     /*
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import lombok.Getter;
+
+/**
+ * Running totals of the loads of a single collection from its .json file and operation log,
+ * both at startup and on every reload.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Getter
+public class LoadStats {
+    private final String collectionName;
+    private long loads;
+    private long lastDocuments;
+    private long totalDurationMillis;
+    private long lastDurationMillis;
+    private long lastLoadTime;
+
+    public LoadStats(String collectionName) {
+        this.collectionName = collectionName;
+    }
+
+    private LoadStats(LoadStats other) {
+        this.collectionName = other.collectionName;
+        this.loads = other.loads;
+        this.lastDocuments = other.lastDocuments;
+        this.totalDurationMillis = other.totalDurationMillis;
+        this.lastDurationMillis = other.lastDurationMillis;
+        this.lastLoadTime = other.lastLoadTime;
+    }
+
+    synchronized void record(long documents, long durationMillis) {
+        this.loads++;
+        this.lastDocuments = documents;
+        this.totalDurationMillis += durationMillis;
+        this.lastDurationMillis = durationMillis;
+        this.lastLoadTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return a copy of the current totals that will not change anymore
+     */
+    synchronized LoadStats copy() {
+        return new LoadStats(this);
+    }
+}
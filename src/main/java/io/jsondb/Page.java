@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * A page of documents returned by a keyset paginated query, together with the token to fetch the next page.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Getter
+public class Page<T> {
+    private final List<T> documents;
+    /**
+     * Opaque token to pass to the next query to continue after this page, null if there are no more documents.
+     */
+    private final String continuationToken;
+
+    public Page(List<T> documents, String continuationToken) {
+        this.documents = documents;
+        this.continuationToken = continuationToken;
+    }
+
+    public boolean hasNext() {
+        return null != continuationToken;
+    }
+}
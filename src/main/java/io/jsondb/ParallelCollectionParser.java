@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import io.jsondb.io.JsonReader;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses the ranges of a large collection file side by side on the common ForkJoin pool. The documents of
+ * the ranges are merged in file order, so the collection ends up exactly as if the file was read line by line.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+class ParallelCollectionParser<T> {
+    private final ObjectReader reader;
+    private final Method getterMethodForId;
+    private int lines;
+
+    ParallelCollectionParser(ObjectMapper objectMapper, Class<T> entity, Method getterMethodForId) {
+        this.reader = objectMapper.readerFor(entity);
+        this.getterMethodForId = getterMethodForId;
+    }
+
+    /**
+     * @param ranges the ranges of the file returned by {@link JsonReader#splitRecords(int)}
+     * @param collection the map the documents are added to in file order
+     * @throws Exception the exception of the first line in file order that failed to parse
+     */
+    void parse(List<ByteBuffer> ranges, Map<Object, T> collection) throws Exception {
+        List<ForkJoinTask<ParsedRange<T>>> tasks = new ArrayList<>();
+        for (ByteBuffer range : ranges) {
+            tasks.add(ForkJoinPool.commonPool().submit(() -> parse(range)));
+        }
+        try {
+            for (ForkJoinTask<ParsedRange<T>> task : tasks) {
+                ParsedRange<T> parsed = task.join();
+                collection.putAll(parsed.documents);
+                lines += parsed.lines;
+                if (null != parsed.failure) {
+                    throw parsed.failure;
+                }
+            }
+        } finally {
+            for (ForkJoinTask<ParsedRange<T>> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return the number of lines parsed, if parsing failed the lines before the one that failed
+     */
+    int getLines() {
+        return lines;
+    }
+
+    private ParsedRange<T> parse(ByteBuffer range) {
+        ParsedRange<T> parsed = new ParsedRange<>();
+        try {
+            ByteBuffer record;
+            while ((record = JsonReader.nextRecord(range)) != null) {
+                T row = reader.readValue(new ByteBufferBackedInputStream(record));
+                parsed.documents.put(Util.getIdForEntity(row, getterMethodForId), row);
+                parsed.lines++;
+            }
+        } catch (Exception e) {
+            parsed.failure = e;
+        }
+        return parsed;
+    }
+
+    private static class ParsedRange<T> {
+        private final Map<Object, T> documents = new LinkedHashMap<>();
+        private int lines;
+        private Exception failure;
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A immutable sorted map. It is a AVL tree whose updates copy only the nodes on the path from the root to the
+ * changed key, about log2 of the size of them, and share every other node with the tree they were made from.
+ * So a tree and the one derived from it by a single change cost barely more memory than one of them, and the
+ * change costs the same however big the tree is. Every node knows the size of its subtree, so the entry at a
+ * position is found as fast as the entry of a key.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+final class PersistentTree<K, V> {
+
+    static final class Node<K, V> implements Map.Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int height;
+        private final int size;
+
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException("A PersistentTree is never changed");
+        }
+    }
+
+    private final Comparator<? super K> order;
+    private final Node<K, V> root;
+
+    private PersistentTree(Comparator<? super K> order, Node<K, V> root) {
+        this.order = order;
+        this.root = root;
+    }
+
+    static <K, V> PersistentTree<K, V> empty(Comparator<? super K> order) {
+        return new PersistentTree<>(order, null);
+    }
+
+    /**
+     * Builds a balanced tree in one pass, faster than putting the entries one by one.
+     *
+     * @param order the order of the keys
+     * @param entries the entries in the order of their keys, no key twice
+     * @return the tree
+     */
+    static <K, V> PersistentTree<K, V> fromSorted(Comparator<? super K> order, List<? extends Map.Entry<K, V>> entries) {
+        return new PersistentTree<>(order, build(entries, 0, entries.size()));
+    }
+
+    private static <K, V> Node<K, V> build(List<? extends Map.Entry<K, V>> entries, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        Map.Entry<K, V> entry = entries.get(middle);
+        return new Node<>(entry.getKey(), entry.getValue(), build(entries, from, middle), build(entries, middle + 1, to));
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return null == root;
+    }
+
+    Comparator<? super K> order() {
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        Node<K, V> node = root;
+        while (null != node) {
+            int c = order.compare((K) key, node.key);
+            if (c == 0) {
+                return node.value;
+            }
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    boolean containsKey(Object key) {
+        return null != get(key);
+    }
+
+    /**
+     * @param index a position between 0 and size - 1
+     * @return the entry at the position in the order of the keys
+     */
+    Map.Entry<K, V> getAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * @return a tree with the value for the key, this tree if it already has exactly that value
+     */
+    PersistentTree<K, V> put(K key, V value) {
+        Node<K, V> newRoot = put(root, key, value);
+        return newRoot == root ? this : new PersistentTree<>(order, newRoot);
+    }
+
+    private Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (null == node) {
+            return new Node<>(key, value, null, null);
+        }
+        int c = order.compare(key, node.key);
+        if (c < 0) {
+            Node<K, V> left = put(node.left, key, value);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (c > 0) {
+            Node<K, V> right = put(node.right, key, value);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        return node.value == value ? node : new Node<>(node.key, value, node.left, node.right);
+    }
+
+    /**
+     * @return a tree without the key, this tree if it does not have the key
+     */
+    PersistentTree<K, V> remove(Object key) {
+        Node<K, V> newRoot = remove(root, key);
+        return newRoot == root ? this : new PersistentTree<>(order, newRoot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V> remove(Node<K, V> node, Object key) {
+        if (null == node) {
+            return null;
+        }
+        int c = order.compare((K) key, node.key);
+        if (c < 0) {
+            Node<K, V> left = remove(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (c > 0) {
+            Node<K, V> right = remove(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (null == node.left) {
+            return node.right;
+        }
+        if (null == node.right) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (null != successor.left) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+    }
+
+    private Node<K, V> removeFirst(Node<K, V> node) {
+        if (null == node.left) {
+            return node.right;
+        }
+        return balance(node.key, node.value, removeFirst(node.left), node.right);
+    }
+
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            Node<K, V> pivot = left.right;
+            return new Node<>(pivot.key, pivot.value, new Node<>(left.key, left.value, left.left, pivot.left),
+                    new Node<>(key, value, pivot.right, right));
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            Node<K, V> pivot = right.left;
+            return new Node<>(pivot.key, pivot.value, new Node<>(key, value, left, pivot.left),
+                    new Node<>(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return null == node ? 0 : node.height;
+    }
+
+    private static int size(Node<?, ?> node) {
+        return null == node ? 0 : node.size;
+    }
+
+    /**
+     * @return the entries in the order of the keys
+     */
+    Iterator<Map.Entry<K, V>> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * @param index the position of the first entry
+     * @return the entries in the order of the keys, from the one at the position on
+     */
+    Iterator<Map.Entry<K, V>> iterator(int index) {
+        NodeIterator iterator = new NodeIterator(null, false, false);
+        Node<K, V> node = root;
+        while (null != node) {
+            int leftSize = size(node.left);
+            if (index <= leftSize) {
+                iterator.path.push(node);
+                if (index == leftSize) {
+                    break;
+                }
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return iterator;
+    }
+
+    /**
+     * The entries whose keys are within bounds, a null bound leaves the range open on that side.
+     *
+     * @param from the lowest key
+     * @param fromInclusive true if the lowest key is in the range
+     * @param to the highest key
+     * @param toInclusive true if the highest key is in the range
+     * @param descending true for the highest key first
+     * @return the entries
+     */
+    Iterator<Map.Entry<K, V>> iterator(K from, boolean fromInclusive, K to, boolean toInclusive, boolean descending) {
+        K start = descending ? to : from;
+        boolean startInclusive = descending ? toInclusive : fromInclusive;
+        NodeIterator iterator = new NodeIterator(descending ? from : to, descending ? fromInclusive : toInclusive, descending);
+        Node<K, V> node = root;
+        while (null != node) {
+            int c = null == start ? (descending ? 1 : -1) : order.compare(start, node.key);
+            if (descending) {
+                c = -c;
+            }
+            if (c < 0 || (c == 0 && startInclusive)) {
+                iterator.path.push(node);
+                if (c == 0) {
+                    break;
+                }
+                node = descending ? node.right : node.left;
+            } else {
+                node = descending ? node.left : node.right;
+            }
+        }
+        return iterator;
+    }
+
+    /**
+     * Walks the tree in order, keeping the nodes whose subtree on the far side is not walked yet.
+     */
+    private final class NodeIterator implements Iterator<Map.Entry<K, V>> {
+        private final Deque<Node<K, V>> path = new ArrayDeque<>();
+        private final K end;
+        private final boolean endInclusive;
+        private final boolean descending;
+
+        private NodeIterator(K end, boolean endInclusive, boolean descending) {
+            this.end = end;
+            this.endInclusive = endInclusive;
+            this.descending = descending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (path.isEmpty()) {
+                return false;
+            }
+            if (null == end) {
+                return true;
+            }
+            int c = order.compare(path.peek().key, end);
+            if (descending) {
+                c = -c;
+            }
+            if (c < 0 || (c == 0 && endInclusive)) {
+                return true;
+            }
+            path.clear();
+            return false;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = path.pop();
+            Node<K, V> next = descending ? node.left : node.right;
+            while (null != next) {
+                path.push(next);
+                next = descending ? next.right : next.left;
+            }
+            return node;
+        }
+    }
+}
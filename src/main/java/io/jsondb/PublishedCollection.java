@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import org.apache.commons.jxpath.JXPathContext;
+
+/**
+ * What readers of a collection see: one version of its documents, the JXPath context over them and the indexes
+ * of them. A writer publishes all three at once by replacing the PublishedCollection, so a reader that took one
+ * never sees the indexes or the context of a different version than the documents.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+final class PublishedCollection<T> {
+    private final CollectionVersion<T> version;
+    private final JXPathContext context;
+    private final CollectionIndexes indexes;
+
+    PublishedCollection(CollectionVersion<T> version, JXPathContext context, CollectionIndexes indexes) {
+        this.version = version;
+        this.context = context;
+        this.indexes = indexes;
+    }
+
+    CollectionVersion<T> getVersion() {
+        return version;
+    }
+
+    JXPathContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return the indexes of the @Indexed fields, null if the collection has none
+     */
+    CollectionIndexes getIndexes() {
+        return indexes;
+    }
+}
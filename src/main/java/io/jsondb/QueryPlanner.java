@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plans a JXPath query against the indexes of a collection. The planner understands the predicates most queries
+ * are made of, comparisons of a top level field with a literal combined by and, or and parentheses, like
+ * /.[status='ACTIVE' and (region='eu' or region='us')]. Equality predicates on the id or on a @Indexed field, and
+ * less or greater than predicates on a number field with a range index, are looked up, and their results
+ * intersected for and, and united for or.
+ *
+ * A plan is exact when every predicate was looked up, then the documents found are the result. Otherwise they are
+ * only the candidates, a superset of the result, and each of them is evaluated by JXPath. A query the planner does
+ * not understand is left to JXPath as a whole, so the result of a planned query is always the same as the result
+ * of JXPath. A query it understands but that narrows down no candidates has every document as a candidate.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+class QueryPlanner {
+
+    /**
+     * The ids of the documents a plan found, in collection order, or null if every document is a candidate.
+     */
+    static class Plan {
+        private final List<Object> ids;
+        private final boolean exact;
+
+        Plan(List<Object> ids, boolean exact) {
+            this.ids = ids;
+            this.exact = exact;
+        }
+
+        List<Object> getIds() {
+            return ids;
+        }
+
+        /**
+         * @return true if the ids are the result, false if they are candidates JXPath has to evaluate the query on
+         */
+        boolean isExact() {
+            return exact;
+        }
+    }
+
+    /**
+     * The documents a predicate can be true for, ids null if that can be any document.
+     */
+    private static class Candidates {
+        private final Set<Object> ids;
+        private final boolean exact;
+
+        Candidates(Set<Object> ids, boolean exact) {
+            this.ids = ids;
+            this.exact = exact;
+        }
+    }
+
+    private static final Candidates ANY = new Candidates(null, false);
+
+    /**
+     * A parsed predicate.
+     */
+    interface Predicate {
+    }
+
+    static class Comparison implements Predicate {
+        final String field;
+        final String operator;
+        final String literal;
+        final boolean quoted;
+
+        Comparison(String field, String operator, String literal, boolean quoted) {
+            this.field = field;
+            this.operator = operator;
+            this.literal = literal;
+            this.quoted = quoted;
+        }
+    }
+
+    static class Junction implements Predicate {
+        final boolean and;
+        final List<Predicate> predicates;
+
+        Junction(boolean and, List<Predicate> predicates) {
+            this.and = and;
+            this.predicates = predicates;
+        }
+    }
+
+    /**
+     * @param jxQuery the query
+     * @param cmd the metadata of the collection
+     * @param collection the published version of the collection the query runs against
+     * @param indexes the indexes published with the version, null if the collection has no @Indexed fields
+     * @return the plan, or null if the query has to be evaluated by JXPath as a whole
+     *         because it may look at more than one document at a time
+     */
+    static Plan plan(String jxQuery, CollectionMetaData cmd, CollectionVersion<?> collection, CollectionIndexes indexes) {
+        Predicate predicate = parse(jxQuery);
+        if (null == predicate) {
+            return null;
+        }
+        Candidates candidates = candidates(predicate, cmd, collection, indexes);
+        if (null == candidates.ids) {
+            return new Plan(null, false);
+        }
+        return new Plan(collection.inCollectionOrder(candidates.ids), candidates.exact);
+    }
+
+    private static Candidates candidates(Predicate predicate, CollectionMetaData cmd, Map<Object, ?> collection, CollectionIndexes indexes) {
+        if (predicate instanceof Comparison) {
+            return candidates((Comparison) predicate, cmd, collection, indexes);
+        }
+        Junction junction = (Junction) predicate;
+        boolean exact = true;
+        List<Set<Object>> sets = new ArrayList<>();
+        for (Predicate part : junction.predicates) {
+            Candidates candidates = candidates(part, cmd, collection, indexes);
+            if (null == candidates.ids) {
+                if (!junction.and) {
+                    return ANY; // Any document can be true for one part, so for the whole
+                }
+                exact = false;
+            } else {
+                sets.add(candidates.ids);
+                exact &= candidates.exact;
+            }
+        }
+        if (sets.isEmpty()) {
+            return ANY;
+        }
+        Set<Object> ids;
+        if (junction.and) {
+            sets.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            ids = new HashSet<>(sets.get(0));
+            for (int i = 1; i < sets.size() && !ids.isEmpty(); i++) {
+                ids.retainAll(sets.get(i));
+            }
+        } else {
+            ids = new HashSet<>();
+            for (Set<Object> set : sets) {
+                ids.addAll(set);
+            }
+        }
+        return new Candidates(ids, exact);
+    }
+
+    private static Candidates candidates(Comparison comparison, CollectionMetaData cmd, Map<Object, ?> collection, CollectionIndexes indexes) {
+        if (!"=".equals(comparison.operator)) {
+            if (null != indexes && indexes.isIndexed(comparison.field)) {
+                Set<Object> ids = indexes.ids(comparison.field, comparison.operator, comparison.literal);
+                if (null != ids) {
+                    return new Candidates(ids, true);
+                }
+            }
+            return ANY;
+        }
+        if (comparison.field.equals(cmd.getIdAnnotatedFieldName())
+                && String.class == cmd.getIdAnnotatedFieldGetterMethod().getReturnType()
+                && comparison.quoted && comparison.literal.length() > 0) {
+            // A String id is compared as a String with a String, and is never null in a collection
+            Set<Object> ids = collection.containsKey(comparison.literal) ? Collections.singleton(comparison.literal) : Collections.emptySet();
+            return new Candidates(ids, true);
+        }
+        if (null != indexes && indexes.isIndexed(comparison.field)) {
+            Object key = indexes.keyOf(comparison.field, comparison.literal, comparison.quoted);
+            if (null != key) {
+                return new Candidates(indexes.ids(comparison.field, key), true);
+            }
+        }
+        return ANY;
+    }
+
+    /**
+     * @param jxQuery the query
+     * @return the predicate of the query, or null if the query is not one the planner understands
+     */
+    static Predicate parse(String jxQuery) {
+        if (null == jxQuery) {
+            return null;
+        }
+        List<String> tokens = tokenize(jxQuery);
+        if (null == tokens) {
+            return null;
+        }
+        return new Parser(tokens).query();
+    }
+
+    /**
+     * @return the tokens, a String literal keeps its quotes, or null if there is a character the planner does not know
+     */
+    private static List<String> tokenize(String jxQuery) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        int length = jxQuery.length();
+        while (i < length) {
+            char c = jxQuery.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if ("/.[]()=".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '!' || c == '<' || c == '>') {
+                if (i + 1 < length && jxQuery.charAt(i + 1) == '=') {
+                    tokens.add(c + "=");
+                    i += 2;
+                } else if (c == '!') {
+                    return null;
+                } else {
+                    tokens.add(String.valueOf(c));
+                    i++;
+                }
+            } else if (c == '\'' || c == '"') {
+                int end = jxQuery.indexOf(c, i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                tokens.add(jxQuery.substring(i, end + 1));
+                i = end + 1;
+            } else if (Character.isDigit(c) || (c == '-' && i + 1 < length && Character.isDigit(jxQuery.charAt(i + 1)))) {
+                int end = i + 1;
+                while (end < length && Character.isDigit(jxQuery.charAt(end))) {
+                    end++;
+                }
+                if (end + 1 < length && jxQuery.charAt(end) == '.' && Character.isDigit(jxQuery.charAt(end + 1))) {
+                    end++;
+                    while (end < length && Character.isDigit(jxQuery.charAt(end))) {
+                        end++;
+                    }
+                }
+                tokens.add(jxQuery.substring(i, end));
+                i = end;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i + 1;
+                while (end < length && (Character.isLetterOrDigit(jxQuery.charAt(end)) || jxQuery.charAt(end) == '_')) {
+                    end++;
+                }
+                tokens.add(jxQuery.substring(i, end));
+                i = end;
+            } else {
+                return null;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isName(String token) {
+        return Character.isLetter(token.charAt(0)) || token.charAt(0) == '_';
+    }
+
+    private static boolean isLiteral(String token) {
+        char c = token.charAt(0);
+        return c == '\'' || c == '"' || c == '-' || Character.isDigit(c);
+    }
+
+    private static boolean isOperator(String token) {
+        return "=".equals(token) || "!=".equals(token) || "<".equals(token) || "<=".equals(token)
+                || ">".equals(token) || ">=".equals(token);
+    }
+
+    /**
+     * query := '/'? '.' ('[' or ']')+, or := and ('or' and)*, and := primary ('and' primary)*,
+     * primary := '(' or ')' | name operator literal | literal operator name
+     */
+    private static class Parser {
+        private final List<String> tokens;
+        private int position;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        private String peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        private boolean accept(String token) {
+            if (token.equals(peek())) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        Predicate query() {
+            accept("/");
+            if (!accept(".")) {
+                return null;
+            }
+            // Several predicates in a row must all be true
+            List<Predicate> predicates = new ArrayList<>();
+            while (accept("[")) {
+                Predicate predicate = or();
+                if (null == predicate || !accept("]")) {
+                    return null;
+                }
+                predicates.add(predicate);
+            }
+            if (predicates.isEmpty() || null != peek()) {
+                return null;
+            }
+            return predicates.size() == 1 ? predicates.get(0) : new Junction(true, predicates);
+        }
+
+        private Predicate or() {
+            return junction(false);
+        }
+
+        private Predicate junction(boolean and) {
+            List<Predicate> predicates = new ArrayList<>();
+            do {
+                Predicate predicate = and ? primary() : junction(true);
+                if (null == predicate) {
+                    return null;
+                }
+                predicates.add(predicate);
+            } while (accept(and ? "and" : "or"));
+            return predicates.size() == 1 ? predicates.get(0) : new Junction(and, predicates);
+        }
+
+        private Predicate primary() {
+            if (accept("(")) {
+                Predicate predicate = or();
+                return null != predicate && accept(")") ? predicate : null;
+            }
+            if (position + 3 > tokens.size()) {
+                return null;
+            }
+            String left = tokens.get(position);
+            String operator = tokens.get(position + 1);
+            String right = tokens.get(position + 2);
+            if (!isOperator(operator)) {
+                return null;
+            }
+            position += 3;
+            if (isName(left) && isLiteral(right)) {
+                return comparison(left, operator, right);
+            } else if (isLiteral(left) && isName(right)) {
+                return comparison(right, mirror(operator), left);
+            }
+            return null;
+        }
+
+        private Comparison comparison(String field, String operator, String literal) {
+            boolean quoted = literal.charAt(0) == '\'' || literal.charAt(0) == '"';
+            return new Comparison(field, operator, quoted ? literal.substring(1, literal.length() - 1) : literal, quoted);
+        }
+
+        private String mirror(String operator) {
+            switch (operator) {
+                case "<":
+                    return ">";
+                case "<=":
+                    return ">=";
+                case ">":
+                    return "<";
+                case ">=":
+                    return "<=";
+                default:
+                    return operator;
+            }
+        }
+    }
+}
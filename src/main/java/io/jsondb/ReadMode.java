@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+/**
+ * How the documents returned by the find methods and getCollection are handed out to the caller.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public enum ReadMode {
+    /**
+     * Every returned document is a deep copy, the caller may change it without touching the documents held by JsonDB.
+     */
+    COPY,
+    /**
+     * <b>Unsafe, the caller must never change a returned document.</b> The documents held by JsonDB are returned
+     * as they are, not copies and not read only views, only the lists holding them cannot be modified. Calling a
+     * setter of a returned document, or changing a collection or object reachable from it, changes the stored
+     * document behind JsonDB's back: every other reader sees the change, the indexes of the collection no longer
+     * match it, and it is written to disk by the next write of the collection, or lost if there is none.
+     *
+     * JsonDB never changes a stored document in place, a write replaces it, so a returned document keeps the state
+     * it had when it was read. Documents of a collection with @Secret fields are still copied when the fields have
+     * to be decrypted. Use it only for hot read paths whose code is known not to mutate what it reads, and copy a
+     * document before changing it to save it.
+     */
+    SHARED_UNSAFE
+}
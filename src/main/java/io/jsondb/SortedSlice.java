@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts and slices a stream of documents, keeping only the documents the slice can select from. A slice
+ * like "0:50" or "-50:" only ever selects from the first or the last few of the sorted documents, whatever
+ * their number, so a bounded heap of those few is kept instead of a sorted list of them all.
+ *
+ * Documents that compare equal keep the order they were added in, exactly as the stable sort of the
+ * full list would leave them, so the result is the same as sorting everything and then slicing.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+class SortedSlice<T> {
+    private final String slice;
+    private final Comparator<Ranked<T>> order;
+    private final int window;
+    private final boolean head;
+    private final PriorityQueue<Ranked<T>> kept;
+    private long count;
+
+    private SortedSlice(String slice, Comparator<? super T> comparator, int bound) {
+        this.slice = slice;
+        Comparator<Ranked<T>> byDocument = (a, b) -> comparator.compare(a.document, b.document);
+        this.order = byDocument.thenComparingLong(r -> r.sequence);
+        this.head = bound > 0;
+        this.window = Math.abs(bound);
+        // The root of the heap is the kept document that is dropped first
+        this.kept = new PriorityQueue<>(head ? order.reversed() : order);
+    }
+
+    /**
+     * @param slice a slice string, see {@link Util#getSliceIndexes(String, int)}
+     * @param comparator the sort order of the documents
+     * @return a SortedSlice or null if the slice is not bounded, then the documents have to be sorted in full
+     */
+    static <T> SortedSlice<T> of(String slice, Comparator<? super T> comparator) {
+        int bound = Util.getSliceBound(slice);
+        if (0 == bound) {
+            return null;
+        }
+        return new SortedSlice<>(slice, comparator, bound);
+    }
+
+    void add(T document) {
+        kept.add(new Ranked<>(document, count++));
+        if (kept.size() > window) {
+            kept.poll();
+        }
+    }
+
+    /**
+     * @return the documents the slice selects, in the order it selects them
+     */
+    List<T> result() {
+        List<Ranked<T>> sorted = new ArrayList<>(kept);
+        sorted.sort(order);
+        // When more documents were added than kept the slice is known to select only from the kept ones
+        int size = (int) count;
+        int offset = head ? 0 : size - sorted.size();
+        List<Integer> indexes = Util.getSliceIndexes(slice, size);
+        if (null == indexes) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            result.add(sorted.get(index - offset).document);
+        }
+        return result;
+    }
+
+    private static class Ranked<T> {
+        private final T document;
+        private final long sequence;
+
+        Ranked(T document, long sequence) {
+            this.document = document;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -68,6 +68,7 @@ public class Util {
             .registerModule(new ParameterNamesModule())
             .registerModule(new Jdk8Module())
             .registerModule(new JavaTimeModule());
+    private static DeepCopier deepCopier = new DeepCopier(objectMapper);
 
     protected static void ensureNotRestricted(Object o) {
         if (o.getClass().isArray() || RESTRICTED_CLASSES.contains(o.getClass().getName())) {
@@ -142,7 +143,8 @@ public class Util {
         Object id = UUID.randomUUID().toString();
         if (null != setterMethodForId) {
             try {
-                id = setterMethodForId.invoke(document, id);
+                // The setter returns nothing, the id generated here is the id of the document
+                setterMethodForId.invoke(document, id);
             } catch (IllegalAccessException e) {
                 log.error("Failed to invoke setter method for a idAnnotated field due to permissions", e);
                 throw new InvalidJsonDbApiUsageException("Failed to invoke setter method for a idAnnotated field due to permissions", e);
@@ -175,20 +177,22 @@ public class Util {
 
     /**
      * A utility method that creates a deep clone of the specified object.
-     * There is no other way of doing this reliably.
+     * The result is the same as a round trip through Jackson, see {@link DeepCopier}.
      *
      * @param fromBean java bean to be cloned.
      * @return a new java bean cloned from fromBean.
      */
     protected static Object deepCopy(Object fromBean) {
-        try {
-            if (fromBean != null) {
-                return objectMapper.readValue(objectMapper.writeValueAsString(fromBean), fromBean.getClass());
-            }
-            return null;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        return deepCopier.copy(fromBean);
+    }
+
+    /**
+     * Builds the copier used by {@link #deepCopy(Object)} for a class ahead of its first use.
+     *
+     * @param clazz the class of the documents of a collection
+     */
+    protected static void prepareDeepCopy(Class<?> clazz) {
+        deepCopier.prepare(clazz);
     }
 
     /**
@@ -344,6 +348,48 @@ public class Util {
         return true;
     }
 
+    /**
+     * Works out from the slice string alone whether a slice only ever selects from the first or the last few
+     * elements of a slice_target, whatever the number n of its elements.
+     * Example slice = "10:60:2" selects from the first 60 elements and slice = "-50:" from the last 50.
+     *
+     * @param slice a slice string, see {@link #getSliceIndexes(String, int)}
+     * @return the number of first elements the slice selects from, or the negated number of last elements,
+     *         0 if that depends on n or the slice string is not valid
+     */
+    public static int getSliceBound(String slice) {
+        if (!isSliceable(slice)) {
+            return 0;
+        }
+        String[] parts = slice.split(":", -1);
+        if (parts.length > 3) {
+            return 0;
+        }
+        try {
+            Integer i = parts[0].trim().length() > 0 ? Integer.valueOf(parts[0].trim()) : null;
+            Integer j = parts.length > 1 && parts[1].trim().length() > 0 ? Integer.valueOf(parts[1].trim()) : null;
+            int k = parts.length > 2 && parts[2].trim().length() > 0 ? Integer.parseInt(parts[2].trim()) : 1;
+            if (k > 0) {
+                if (null != i && i < 0 && i > Integer.MIN_VALUE) {
+                    return i; // Indexes from n + i up to n - 1
+                }
+                if (null != j && j > 0) {
+                    return j; // Indexes from i up to j - 1
+                }
+            } else if (k < 0) {
+                if (null != i && i >= 0 && i < Integer.MAX_VALUE) {
+                    return i + 1; // Indexes from i down to 0
+                }
+                if (null != j && j < -1) {
+                    return j + 1; // Indexes from n - 1 down to n + j + 1
+                }
+            }
+        } catch (NumberFormatException e) {
+            // getSliceIndexes reports the illegal slice
+        }
+        return 0;
+    }
+
     /**
      * Utility method to compute the indexes to select based on slice string
      * 
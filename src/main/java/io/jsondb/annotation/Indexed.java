@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a field of a document to keep a index of, from its values to the ids of the documents.
+ * Queries for documents whose field equals a value look them up in the index instead of scanning the collection.
+ *
+ * A {@link Type#HASH} index field must be a String, a enum or a number. A {@link Type#RANGE} index keeps the
+ * values in order, its field must be a String, a number or a java.time type like LocalDate or Instant.
+ * The field cannot be a @Secret field.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD })
+public @interface Indexed {
+
+  /**
+   * The kind of index kept of a field.
+   */
+  enum Type {
+    /**
+     * Looks up the documents whose field equals a value.
+     */
+    HASH,
+    /**
+     * Also looks up the documents whose number field is less or greater than a value, and returns
+     * documents in the order of their field, see {@link io.jsondb.JsonDBOperations#findRange}.
+     */
+    RANGE
+  }
+
+  Type type() default Type.HASH;
+}
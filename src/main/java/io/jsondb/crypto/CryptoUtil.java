@@ -90,6 +90,24 @@ public class CryptoUtil {
      */
     public static void decryptFields(Object object, CollectionMetaData cmd, ICipher cipher)
             throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        decryptFields(object, cmd, cipher, null);
+    }
+
+    /**
+     * A utility method to decrypt the value of field marked by the @Secret annotation using its
+     * setter/mutator method, values decrypted before are taken from the cache.
+     *
+     * @param object the actual Object representing the POJO we want the Id of.
+     * @param cmd the CollectionMetaData object from which we can obtain the list
+     *            containing names of fields which have the @Secret annotation
+     * @param cipher the actual cipher implementation to use
+     * @param cache the cache of decrypted values, null to always decrypt
+     * @throws IllegalAccessException Error when invoking method for a @Secret annotated field due to permissions
+     * @throws IllegalArgumentException Error when invoking method for a @Secret annotated field due to wrong arguments
+     * @throws InvocationTargetException Error when invoking method for a @Secret annotated field, the method threw a exception
+     */
+    public static void decryptFields(Object object, CollectionMetaData cmd, ICipher cipher, DecryptedValueCache cache)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
         for (String secretAnnotatedFieldName : cmd.getSecretAnnotatedFieldNames()) {
             Method getterMethod = cmd.getGetterMethodForFieldName(secretAnnotatedFieldName);
@@ -100,7 +118,7 @@ public class CryptoUtil {
             try {
                 value = (String) getterMethod.invoke(object);
                 if (null != value) {
-                    decryptedValue = cipher.decrypt(value);
+                    decryptedValue = decryptValue(value, cipher, cache);
                     setterMethod.invoke(object, decryptedValue);
                 }
             } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
@@ -110,6 +128,18 @@ public class CryptoUtil {
         }
     }
 
+    /**
+     * A utility method to decrypt a single value of a field marked by the @Secret annotation.
+     *
+     * @param value the encrypted value, not null
+     * @param cipher the actual cipher implementation to use
+     * @param cache the cache of decrypted values, null to always decrypt
+     * @return the decrypted value
+     */
+    public static String decryptValue(String value, ICipher cipher, DecryptedValueCache cache) {
+        return null == cache ? cipher.decrypt(value) : cache.decrypt(cipher, value);
+    }
+
     /**
      * Utility method to help generate a strong 128 bit Key to be used for the DefaultAESCBCCipher.
      * 
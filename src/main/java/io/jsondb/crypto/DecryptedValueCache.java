@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.crypto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.time.Duration;
+
+/**
+ * A bounded cache of the plain text of @Secret values, keyed by their cipher text.
+ *
+ * Every encryption of a value gets a IV of its own, so a cipher text only ever stands for the one plain
+ * text it was made from, as long as the key does not change. The cache must be cleared when it does.
+ * Note the plain text values are held in memory for as long as they are cached.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class DecryptedValueCache {
+
+    private final Cache<String, String> values;
+
+    /**
+     * @param maximumSize the number of values after which the least recently used are evicted
+     * @param ttlMillis how long a value is kept after it was decrypted, 0 keeps it until it is evicted
+     */
+    public DecryptedValueCache(long maximumSize, long ttlMillis) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats();
+        if (ttlMillis > 0) {
+            builder.expireAfterWrite(Duration.ofMillis(ttlMillis));
+        }
+        this.values = builder.build();
+    }
+
+    /**
+     * @param cipher the cipher to decrypt the value with if it is not cached
+     * @param cipherText the encrypted value
+     * @return the plain text of the value
+     */
+    public String decrypt(ICipher cipher, String cipherText) {
+        String value = values.getIfPresent(cipherText);
+        if (null == value) {
+            value = cipher.decrypt(cipherText);
+            values.put(cipherText, value);
+        }
+        return value;
+    }
+
+    public void clear() {
+        values.invalidateAll();
+    }
+
+    public DecryptionCacheStats getStats() {
+        CacheStats stats = values.stats();
+        return new DecryptionCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), values.size());
+    }
+}
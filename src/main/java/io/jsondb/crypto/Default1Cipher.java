@@ -76,8 +76,42 @@ public class Default1Cipher implements ICipher {
         }
     }
 
+    /**
+     * The Cipher and buffers of one thread, so encrypting and decrypting neither looks up the provider
+     * nor draws from the shared SecureRandom for every value.
+     *
+     * An IV is a random prefix drawn once per thread followed by a counter, which makes the IVs of a thread
+     * unique without any coordination between threads. The IV keeps its size, so the output stays compatible.
+     */
+    private static final class Engine {
+        private final Cipher cipher;
+        private final byte[] iv = new byte[IV_SIZE];
+        private long counter;
+        private byte[] buffer = new byte[256];
+
+        private Engine() throws NoSuchAlgorithmException, NoSuchProviderException, NoSuchPaddingException {
+            this.cipher = Cipher.getInstance(CIPHER_ALGORITHM, PROVIDER);
+            byte[] prefix = new byte[IV_SIZE - Long.BYTES];
+            rnd.nextBytes(prefix);
+            System.arraycopy(prefix, 0, iv, 0, prefix.length);
+        }
+
+        private byte[] nextIv() {
+            ByteBuffer.wrap(iv, IV_SIZE - Long.BYTES, Long.BYTES).putLong(counter++);
+            return iv;
+        }
+
+        private byte[] buffer(int size) {
+            if (buffer.length < size) {
+                buffer = new byte[Math.max(size, buffer.length * 2)];
+            }
+            return buffer;
+        }
+    }
+
     private final Charset charset;
     private final SecretKeySpec key;
+    private final ThreadLocal<Engine> engines = new ThreadLocal<>();
 
     /**
      * Creates a new default cipher using 'UTF-8' encoding, with a base64-encoded key.
@@ -139,6 +173,15 @@ public class Default1Cipher implements ICipher {
         this.key = new SecretKeySpec(encryptionKey, ENCRYPTION_ALGORITHM);
     }
 
+    private Engine engine() throws NoSuchAlgorithmException, NoSuchProviderException, NoSuchPaddingException {
+        Engine engine = engines.get();
+        if (null == engine) {
+            engine = new Engine();
+            engines.set(engine);
+        }
+        return engine;
+    }
+
     /**
      * This method is used to encrypt(Symmetric) plainText coming in input using AES algorithm
      * 
@@ -148,19 +191,15 @@ public class Default1Cipher implements ICipher {
     @Override
     public String encrypt(String plainText) {
         try {
-            byte[] iv = new byte[IV_SIZE];
-            rnd.nextBytes(iv);
-            Cipher enc = Cipher.getInstance(CIPHER_ALGORITHM, PROVIDER);
+            Engine engine = engine();
+            byte[] iv = engine.nextIv();
+            Cipher enc = engine.cipher;
             enc.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_SIZE, iv));
             byte[] input = plainText.getBytes(charset);
-            int sizeReq = IV_SIZE + enc.getOutputSize(input.length);
-            byte[] output = new byte[sizeReq];
-            ByteBuffer store = ByteBuffer.wrap(output);
-            store.put(iv);
-            int extra = enc.doFinal(input, 0, input.length, output, IV_SIZE);
-            store.position(store.position() + extra);
-            store.flip();
-            ByteBuffer bb = Base64.getEncoder().encode(store);
+            byte[] output = engine.buffer(IV_SIZE + enc.getOutputSize(input.length));
+            System.arraycopy(iv, 0, output, 0, IV_SIZE);
+            int length = IV_SIZE + enc.doFinal(input, 0, input.length, output, IV_SIZE);
+            ByteBuffer bb = Base64.getEncoder().encode(ByteBuffer.wrap(output, 0, length));
             return new String(bb.array(), 0, bb.limit(), StandardCharsets.US_ASCII);
         } catch (NoSuchPaddingException | NoSuchProviderException | NoSuchAlgorithmException | IllegalBlockSizeException | InvalidAlgorithmParameterException e) {
             throw new JsonDBException("Default cipher cannot be used on this VM installation", e);
@@ -181,16 +220,19 @@ public class Default1Cipher implements ICipher {
     public String decrypt(String cipherText) {
         byte[] in = Base64.getDecoder().decode(cipherText);
         try {
-            Cipher dec = Cipher.getInstance(CIPHER_ALGORITHM, PROVIDER);
+            Engine engine = engine();
+            Cipher dec = engine.cipher;
             dec.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_SIZE, in, 0, IV_SIZE));
-            return new String(dec.doFinal(in, IV_SIZE, in.length - IV_SIZE), charset);
+            byte[] output = engine.buffer(dec.getOutputSize(in.length - IV_SIZE));
+            int length = dec.doFinal(in, IV_SIZE, in.length - IV_SIZE, output, 0);
+            return new String(output, 0, length, charset);
         } catch (NoSuchPaddingException | NoSuchProviderException | NoSuchAlgorithmException | IllegalBlockSizeException e) {
             throw new JsonDBException("Default cipher cannot be used on this VM installation", e);
         } catch (InvalidKeyException e) {
             throw new JsonDBException("Invalid key", e);
         } catch (AEADBadTagException e) {
             throw new JsonDBException("Incorrect key for this ciphertext (or ciphertext is corrupted)", e);
-        } catch (BadPaddingException | InvalidAlgorithmParameterException e) {
+        } catch (BadPaddingException | InvalidAlgorithmParameterException | ShortBufferException e) {
             throw new JsonDBException("Unexpected (bug?) crypto error", e);
         }
     }
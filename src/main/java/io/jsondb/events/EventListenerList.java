@@ -24,6 +24,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.jsondb.CollectionMetaData;
 import io.jsondb.JsonDBConfig;
 import io.jsondb.JsonDBException;
+import io.jsondb.io.JsonOpLog;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -157,9 +158,22 @@ public class EventListenerList {
                                     listener.collectionFileModified(collectionName);
                                 }
                             }
+                        } else if (fileName.endsWith(JsonOpLog.EXTENSION) && cmdMap.containsKey(collectionName)) {
+                            // Records appended to the operation log change the collection just like a rewrite of the .json file
+                            if (kind == StandardWatchEventKinds.ENTRY_CREATE || kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+                                for (CollectionFileChangeListener listener : listeners) {
+                                    listener.collectionFileModified(collectionName);
+                                }
+                            }
                         }
                     }
                 }
+                // Without a reset the key is never queued again and later changes would go unnoticed,
+                // e.g. the content written right after a file was created or truncated
+                if (!watckKey.reset()) {
+                    log.debug("The watch key for the dbFiles location is no longer valid");
+                    return;
+                }
             }
         }
     }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A long lived handle on the lock file (lock/&lt;collection&gt;.json.lock) of a collection.
+ *
+ * The lock file is opened on first use and kept open until {@link #close()}, so taking the lock does not
+ * cost a create, open and close of the file every time. Threads of this JVM are kept apart with a in-memory
+ * lock, the OS level {@link FileLock} that keeps other processes out is only taken with cross process locking.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Slf4j
+public class CollectionLockFile {
+
+    @Getter
+    private final File fileLockLocation;
+    private final boolean crossProcess;
+    private final ReentrantLock mutex = new ReentrantLock();
+
+    private RandomAccessFile raf;
+    private FileChannel channel;
+
+    /**
+     * @param collectionFile the .json file of the collection
+     * @param crossProcess true to take the OS level file lock as well
+     */
+    public CollectionLockFile(File collectionFile, boolean crossProcess) {
+        File lockFilesLocation = new File(collectionFile.getParentFile(), "lock");
+        this.fileLockLocation = new File(lockFilesLocation, collectionFile.getName() + ".lock");
+        this.crossProcess = crossProcess;
+    }
+
+    /**
+     * Takes the lock, blocks while another thread of this JVM holds it and with cross process locking also
+     * while another process holds it. Every successful invocation must be followed by {@link #release(FileLock)}
+     * on the same thread.
+     *
+     * @return the OS level lock or null without cross process locking
+     * @throws IOException if the lock file cannot be opened or the OS level lock cannot be taken
+     */
+    public FileLock lock() throws IOException {
+        mutex.lock();
+        if (!crossProcess) {
+            return null;
+        }
+        try {
+            return open().lock();
+        } catch (IOException | OverlappingFileLockException | Error e) {
+            mutex.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the lock taken by {@link #lock()}, the lock file stays open. Does nothing if the current
+     * thread does not hold the lock, e.g. because {@link #lock()} failed.
+     *
+     * @param lock the OS level lock returned by {@link #lock()}
+     */
+    public void release(FileLock lock) {
+        if (!mutex.isHeldByCurrentThread()) {
+            return;
+        }
+        try {
+            if (lock != null && lock.isValid()) {
+                lock.release();
+            }
+        } catch (IOException e) {
+            log.error("Failed to release lock {}", fileLockLocation.getName(), e);
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     * Closes the lock file, it is opened again if the lock is taken afterwards.
+     */
+    public void close() {
+        mutex.lock();
+        try {
+            if (null != channel) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.error("Failed to close FileChannel for lock file {}", fileLockLocation.getName(), e);
+                }
+                try {
+                    raf.close();
+                } catch (IOException e) {
+                    log.error("Failed to close RandomAccessFile for lock file {}", fileLockLocation.getName(), e);
+                }
+                channel = null;
+                raf = null;
+            }
+        } finally {
+            mutex.unlock();
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        if (null == channel || !channel.isOpen()) {
+            File lockFilesLocation = fileLockLocation.getParentFile();
+            if (!lockFilesLocation.exists()) {
+                lockFilesLocation.mkdirs();
+            }
+            raf = new RandomAccessFile(fileLockLocation, "rw");
+            channel = raf.getChannel();
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.io;
+
+import lombok.Getter;
+
+/**
+ * Running totals of the time spent forcing the files of a single collection to the storage device.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Getter
+public class DurabilityStats {
+    private final String collectionName;
+    private long syncs;
+    private long totalSyncMicros;
+    private long lastSyncMicros;
+    private long maxSyncMicros;
+
+    public DurabilityStats(String collectionName) {
+        this.collectionName = collectionName;
+    }
+
+    private DurabilityStats(DurabilityStats other) {
+        this.collectionName = other.collectionName;
+        this.syncs = other.syncs;
+        this.totalSyncMicros = other.totalSyncMicros;
+        this.lastSyncMicros = other.lastSyncMicros;
+        this.maxSyncMicros = other.maxSyncMicros;
+    }
+
+    synchronized void record(long syncMicros) {
+        this.syncs++;
+        this.totalSyncMicros += syncMicros;
+        this.lastSyncMicros = syncMicros;
+        this.maxSyncMicros = Math.max(maxSyncMicros, syncMicros);
+    }
+
+    /**
+     * @return a copy of the current totals that will not change anymore
+     */
+    synchronized DurabilityStats copy() {
+        return new DurabilityStats(this);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.io;
+
+import io.jsondb.Durability;
+import io.jsondb.JsonDBConfig;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Forces the files written for a collection to the storage device according to the {@link Durability}
+ * configured for the collection.
+ *
+ * FLUSH and FSYNC force a file right after it has been written, FSYNC also forces the directory once a
+ * collection file has been replaced. FSYNC_BATCHED only remembers the files that were written, they are forced
+ * together by {@link #syncPending()}, which the owner invokes periodically and which is also invoked once
+ * durabilityBatchOps writes are pending.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Slf4j
+public class FileSyncer {
+
+    private final JsonDBConfig dbConfig;
+    private final Map<String, DurabilityStats> stats = new ConcurrentHashMap<>();
+
+    private Map<Path, String> pendingFiles = new LinkedHashMap<>();
+    private Map<Path, String> pendingDirectories = new LinkedHashMap<>();
+    private int pendingOps;
+
+    public FileSyncer(JsonDBConfig dbConfig) {
+        this.dbConfig = dbConfig;
+    }
+
+    /**
+     * Invoked with the channel of a file that has just been written, before the file is closed.
+     *
+     * @param collectionName name of the collection the file belongs to
+     * @param channel channel of the written file, all buffered data must have been flushed to it
+     * @throws IOException if the file could not be forced
+     */
+    public void written(String collectionName, FileChannel channel) throws IOException {
+        Durability durability = dbConfig.getDurability(collectionName);
+        if (durability == Durability.FLUSH || durability == Durability.FSYNC) {
+            long start = System.nanoTime();
+            channel.force(durability == Durability.FSYNC);
+            record(collectionName, start);
+        }
+    }
+
+    /**
+     * Invoked once a written file is in place, either because it was renamed onto the collection file
+     * or because records were appended to it.
+     *
+     * @param collectionName name of the collection the file belongs to
+     * @param file the collection file or operation log
+     * @param directoryChanged true if the write created or replaced the directory entry of the file
+     */
+    public void committed(String collectionName, Path file, boolean directoryChanged) {
+        Durability durability = dbConfig.getDurability(collectionName);
+        if (durability == Durability.FSYNC) {
+            if (directoryChanged) {
+                forceDirectory(collectionName, file.toAbsolutePath().getParent());
+            }
+        } else if (durability == Durability.FSYNC_BATCHED) {
+            boolean batchFull;
+            synchronized (this) {
+                pendingFiles.put(file, collectionName);
+                if (directoryChanged) {
+                    pendingDirectories.put(file.toAbsolutePath().getParent(), collectionName);
+                }
+                pendingOps++;
+                int batchOps = dbConfig.getDurabilityBatchOps();
+                batchFull = batchOps > 0 && pendingOps >= batchOps;
+            }
+            if (batchFull) {
+                syncPending();
+            }
+        }
+    }
+
+    /**
+     * Forces all files and directories that FSYNC_BATCHED writes have left behind since the last invocation.
+     */
+    public void syncPending() {
+        Map<Path, String> files;
+        Map<Path, String> directories;
+        synchronized (this) {
+            if (pendingOps == 0) {
+                return;
+            }
+            files = pendingFiles;
+            directories = pendingDirectories;
+            pendingFiles = new LinkedHashMap<>();
+            pendingDirectories = new LinkedHashMap<>();
+            pendingOps = 0;
+        }
+        for (Entry<Path, String> entry : files.entrySet()) {
+            long start = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(entry.getKey(), StandardOpenOption.WRITE)) {
+                channel.force(true);
+                record(entry.getValue(), start);
+            } catch (NoSuchFileException e) {
+                // The collection was dropped or its operation log discarded in the meantime, nothing left to force
+            } catch (IOException e) {
+                log.error("Failed to force file {} of collection {} to the storage device", entry.getKey(), entry.getValue(), e);
+            }
+        }
+        for (Entry<Path, String> entry : directories.entrySet()) {
+            forceDirectory(entry.getValue(), entry.getKey());
+        }
+    }
+
+    /**
+     * The totals of all the syncs done for a collection since the syncer was created
+     *
+     * @param collectionName name of the collection
+     * @return a copy of the totals of the collection
+     */
+    public DurabilityStats getStats(String collectionName) {
+        return stats.computeIfAbsent(collectionName, DurabilityStats::new).copy();
+    }
+
+    private void forceDirectory(String collectionName, Path directory) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+            record(collectionName, start);
+        } catch (IOException e) {
+            // Some platforms do not allow a directory to be opened, there the rename is as durable as it gets
+            log.debug("Failed to force directory {} to the storage device", directory, e);
+        }
+    }
+
+    private void record(String collectionName, long start) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        stats.computeIfAbsent(collectionName, DurabilityStats::new).record(micros);
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.io;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsondb.CollectionMetaData;
+import io.jsondb.InvalidJsonDbApiUsageException;
+import io.jsondb.JsonDBConfig;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An append-only operation log that sits next to a collection .json file.
+ *
+ * Each line of the log is a single INSERT, UPDATE or DELETE record keyed by the document id.
+ * Appending a record costs the same no matter how big the collection is, the full state of the
+ * collection is the base .json file with all records of the log replayed on top of it.
+ *
+ * The log does no locking of its own, callers are expected to hold the lock of the collection file.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Slf4j
+public class JsonOpLog {
+
+    public static final String EXTENSION = ".oplog";
+
+    static final String INSERT = "INSERT";
+    static final String UPDATE = "UPDATE";
+    static final String DELETE = "DELETE";
+
+    private static final byte NEWLINE = '\n';
+
+    @Getter
+    private File logFile;
+    private Charset charset;
+    private ObjectMapper objectMapper;
+    private CollectionMetaData cmd;
+    private JsonDBConfig dbConfig;
+
+    public JsonOpLog(JsonDBConfig dbConfig, CollectionMetaData cmd, File collectionFile) {
+        this.logFile = getLogFile(collectionFile);
+        this.charset = dbConfig.getCharset();
+        this.objectMapper = dbConfig.getObjectMapper();
+        this.cmd = cmd;
+        this.dbConfig = dbConfig;
+    }
+
+    /**
+     * A utility method to determine the location of the operation log for a collection file
+     *
+     * @param collectionFile the .json file of the collection
+     * @return the file which holds the operation log of the collection
+     */
+    public static File getLogFile(File collectionFile) {
+        String fileName = collectionFile.getName();
+        if (fileName.endsWith(".json")) {
+            fileName = fileName.substring(0, fileName.length() - 5);
+        }
+        return new File(collectionFile.getParentFile(), fileName + EXTENSION);
+    }
+
+    /**
+     * Forms a INSERT record for the provided document
+     *
+     * @param document the document that was inserted
+     * @return the log record
+     */
+    String insertRecord(Object document) {
+        return documentRecord(INSERT, document);
+    }
+
+    /**
+     * Forms a UPDATE record for the provided document
+     *
+     * @param document the new state of the document
+     * @return the log record
+     */
+    String updateRecord(Object document) {
+        return documentRecord(UPDATE, document);
+    }
+
+    /**
+     * Forms a DELETE record for the provided id
+     *
+     * @param id id of the document that was removed
+     * @return the log record
+     */
+    String deleteRecord(Object id) {
+        try {
+            return "{\"op\":\"" + DELETE + "\",\"id\":" + objectMapper.writeValueAsString(id) + "}";
+        } catch (JsonProcessingException e) {
+            log.error("Failed in coverting Id to Json collection {}", cmd.getCollectionName(), e);
+            throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + cmd.getCollectionName(), e);
+        }
+    }
+
+    /**
+     * Forms the record for a mutation that was applied in memory
+     *
+     * @param write the mutation
+     * @return the log record
+     */
+    String record(PendingWrite write) {
+        switch (write.getOperation()) {
+            case INSERT:
+                return insertRecord(write.getPayload());
+            case UPDATE:
+                return updateRecord(write.getPayload());
+            default:
+                return deleteRecord(write.getPayload());
+        }
+    }
+
+    private String documentRecord(String op, Object document) {
+        try {
+            return "{\"op\":\"" + op + "\",\"doc\":" + cmd.getSerializedDocuments().serialize(dbConfig, document) + "}";
+        } catch (JsonProcessingException e) {
+            log.error("Failed in coverting Object to Json collection {}", cmd.getCollectionName(), e);
+            throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + cmd.getCollectionName(), e);
+        }
+    }
+
+    /**
+     * Appends the provided records to the end of the log using a single write.
+     *
+     * @param records the records to append, each record is written as a line.
+     * @param fileSyncer forces the log after the records are written, may be null
+     * @throws IOException if the log could not be written
+     */
+    void append(Collection<String> records, FileSyncer fileSyncer) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String record : records) {
+            sb.append(record).append(System.lineSeparator());
+        }
+        try (FileOutputStream fos = new FileOutputStream(logFile, true);
+                Writer writer = new OutputStreamWriter(fos, charset)) {
+            writer.write(sb.toString());
+            if (null != fileSyncer) {
+                writer.flush();
+                fileSyncer.written(cmd.getCollectionName(), fos.getChannel());
+            }
+        }
+    }
+
+    /**
+     * Deletes the log, this is done after the full collection has been written to the .json file.
+     */
+    void discard() {
+        try {
+            Files.deleteIfExists(logFile.toPath());
+        } catch (IOException e) {
+            log.error("Failed to delete operation log {}", logFile.getName(), e);
+        }
+    }
+
+    /**
+     * Replays all the records in the log on top of the provided collection.
+     *
+     * A last line that cannot be parsed, or that is not ended by a line separator, is treated as a torn write:
+     * it is ignored and cut off the log, so the next append starts on a line of its own. Any other unparsable
+     * line makes the whole replay fail. The caller must hold the lock of the collection file.
+     *
+     * @param collection the collection as loaded from the .json file
+     * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+     *            and member of the baseScanPackage
+     * @return number of records replayed
+     * @throws IOException if the log could not be read or contains a corrupt record
+     */
+    public <T> int replay(Map<Object, T> collection) throws IOException {
+        if (!logFile.exists()) {
+            return 0;
+        }
+        CharsetDecoder decoder = charset.newDecoder();
+        decoder.onMalformedInput(CodingErrorAction.REPORT);
+        decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+
+        int replayed = 0;
+        long recordsEnd = 0; // where the last complete record ends
+        IOException torn = null;
+        try (InputStream in = new FileInputStream(logFile)) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            byte[] buffer = new byte[64 * 1024];
+            long bufferStart = 0;
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                int lineStart = 0;
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] != NEWLINE) {
+                        continue;
+                    }
+                    if (null != torn) {
+                        throw torn;
+                    }
+                    line.write(buffer, lineStart, i - lineStart);
+                    lineStart = i + 1;
+                    JsonNode record;
+                    try {
+                        record = objectMapper.readTree(decoder.decode(ByteBuffer.wrap(line.toByteArray())).toString());
+                    } catch (CharacterCodingException | JsonProcessingException e) {
+                        torn = e;
+                        continue;
+                    } finally {
+                        line.reset();
+                    }
+                    apply(record, collection);
+                    replayed++;
+                    recordsEnd = bufferStart + lineStart;
+                }
+                line.write(buffer, lineStart, n - lineStart);
+                bufferStart += n;
+            }
+            if (null != torn && line.size() > 0) {
+                throw torn;
+            }
+        }
+        if (recordsEnd < logFile.length()) {
+            log.warn("Removing incomplete last record from operation log {}", logFile.getName());
+            try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(recordsEnd);
+            }
+        }
+        return replayed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void apply(JsonNode record, Map<Object, T> collection) throws IOException {
+        Method getterMethodForId = cmd.getIdAnnotatedFieldGetterMethod();
+        String op = record.path("op").asText();
+        if (DELETE.equals(op)) {
+            Class<?> idType = null == getterMethodForId ? Object.class : getterMethodForId.getReturnType();
+            collection.remove(objectMapper.treeToValue(record.get("id"), idType));
+        } else if (INSERT.equals(op) || UPDATE.equals(op)) {
+            T document = objectMapper.treeToValue(record.get("doc"), (Class<T>) cmd.getClazz());
+            collection.put(getIdForEntity(document, getterMethodForId), document);
+        } else {
+            throw new IOException("Unknown operation '" + op + "' in operation log " + logFile.getName());
+        }
+    }
+
+    private Object getIdForEntity(Object document, Method getterMethodForId) throws IOException {
+        if (null == getterMethodForId) {
+            return null;
+        }
+        try {
+            return getterMethodForId.invoke(document);
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+            throw new IOException("Failed to invoke getter method for a idAnnotated field", e);
+        }
+    }
+}
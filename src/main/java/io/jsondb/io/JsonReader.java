@@ -26,66 +26,88 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * A special File Reader to read the .json DB files that ensures
  * proper character encoding is used and the necessary File Locks are created.
  *
+ * A UTF-8 file can also be read record by record with {@link #nextRecord()}, which memory maps the file
+ * and returns the bytes of each line without decoding them, so they can be handed to Jackson directly.
+ *
  * @author Farooq Khan
  * @version 1.0 25-Sep-2016
  */
 @Slf4j
 public class JsonReader {
 
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
     private File collectionFile;
+    private boolean utf8;
 
-    private RandomAccessFile raf;
     private FileInputStream fis;
-    private FileChannel channel;
     private InputStreamReader isr;
     private BufferedReader reader;
     private FileLock lock;
-    private File lockFilesLocation;
-    private File fileLockLocation;
+    private CollectionLockFile lockFile;
+    private boolean ownsLockFile;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long fileSize;
 
     public JsonReader(JsonDBConfig dbConfig, File collectionFile) throws IOException {
-        this.collectionFile = collectionFile;
-        this.lockFilesLocation = new File(collectionFile.getParentFile(), "lock");
-        this.fileLockLocation = new File(lockFilesLocation, collectionFile.getName() + ".lock");
+        this(dbConfig, collectionFile, new CollectionLockFile(collectionFile, true), true);
+    }
 
-        if (!lockFilesLocation.exists()) {
-            lockFilesLocation.mkdirs();
-        }
-        if (!fileLockLocation.exists()) {
-            fileLockLocation.createNewFile();
-        }
+    /**
+     * @param dbConfig the settings used by Json DB
+     * @param collectionFile the .json file of the collection
+     * @param lockFile the lock file of the collection, it is held until {@link #close()} and left open afterwards
+     * @throws IOException if the collection file cannot be opened
+     */
+    public JsonReader(JsonDBConfig dbConfig, File collectionFile, CollectionLockFile lockFile) throws IOException {
+        this(dbConfig, collectionFile, lockFile, false);
+    }
+
+    private JsonReader(JsonDBConfig dbConfig, File collectionFile, CollectionLockFile lockFile, boolean ownsLockFile)
+            throws IOException {
+        this.collectionFile = collectionFile;
+        this.lockFile = lockFile;
+        this.ownsLockFile = ownsLockFile;
+        this.utf8 = StandardCharsets.UTF_8.equals(dbConfig.getCharset());
 
         CharsetDecoder decoder = dbConfig.getCharset().newDecoder();
         decoder.onMalformedInput(CodingErrorAction.REPORT);
         decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
 
-        raf = new RandomAccessFile(fileLockLocation, "rw");
-        channel = raf.getChannel();
         try {
-            lock = channel.lock();
+            lock = lockFile.lock();
         } catch (IOException | OverlappingFileLockException e) {
-            try {
-                channel.close();
-                raf.close();
-            } catch (IOException e1) {
-                log.error("Failed while closing RandomAccessFile for collection file {}", collectionFile.getName());
+            if (ownsLockFile) {
+                lockFile.close();
             }
-            throw new JsonFileLockException("JsonReader failed to obtain a file lock for file " + fileLockLocation, e);
+            throw new JsonFileLockException("JsonReader failed to obtain a file lock for file " + lockFile.getFileLockLocation(), e);
         }
 
-        fis = new FileInputStream(collectionFile);
+        try {
+            fis = new FileInputStream(collectionFile);
+        } catch (IOException e) {
+            releaseLock();
+            throw e;
+        }
         isr = new InputStreamReader(fis, decoder);
         reader = new BufferedReader(isr);
     }
@@ -102,7 +124,139 @@ public class JsonReader {
         return reader.readLine();
     }
 
+    /**
+     * @return true if the file can be read with {@link #nextRecord()}, which is only possible for UTF-8 files
+     * as the lines are split on newline bytes
+     */
+    public boolean isRecordReadingSupported() {
+        return utf8;
+    }
+
+    /**
+     * Returns the next line of the file as a view on the memory mapped file, without the line terminator.
+     * The bytes are not copied or decoded, which makes this a lot cheaper than {@link #readLine()} for large
+     * files. Must not be mixed with {@link #readLine()} on the same reader.
+     *
+     * @return the bytes of the next line or null at the end of the file
+     * @throws IOException if the file cannot be mapped or a single line exceeds 2GB
+     */
+    public ByteBuffer nextRecord() throws IOException {
+        if (!utf8) {
+            throw new IllegalStateException("Records can only be read from UTF-8 files");
+        }
+        if (null == region) {
+            fileSize = fis.getChannel().size();
+            mapRegion(0);
+        }
+        while (true) {
+            int start = region.position();
+            int limit = region.limit();
+            for (int i = start; i < limit; i++) {
+                if (region.get(i) == NEWLINE) {
+                    region.position(i + 1);
+                    return record(start, i);
+                }
+            }
+            if (regionStart + limit >= fileSize) {
+                // Like a stream the end of the file is where it is now, it may have grown since it was mapped
+                fileSize = fis.getChannel().size();
+                if (regionStart + limit >= fileSize) {
+                    if (start == limit) {
+                        return null;
+                    }
+                    // The last line has no line terminator
+                    region.position(limit);
+                    return record(start, limit);
+                }
+            } else if (start == 0) {
+                throw new IOException("Line at offset " + regionStart + " of collection file " + collectionFile.getName() + " exceeds 2GB");
+            }
+            // The line continues beyond this region, map the next region starting at the line
+            mapRegion(regionStart + start);
+        }
+    }
+
+    /**
+     * Splits the lines of the file that were not read yet into about the given number of ranges, every range
+     * ends at a line boundary so the ranges can be parsed independently. The lines of a range are returned by
+     * {@link #nextRecord(ByteBuffer)}. Afterwards {@link #nextRecord()} returns null.
+     *
+     * @param parts the number of ranges wanted
+     * @return the ranges in file order, views on the memory mapped file
+     * @throws IOException if the file cannot be mapped or a single line exceeds 2GB
+     */
+    public List<ByteBuffer> splitRecords(int parts) throws IOException {
+        if (!utf8) {
+            throw new IllegalStateException("Records can only be read from UTF-8 files");
+        }
+        if (null == region) {
+            fileSize = fis.getChannel().size();
+            mapRegion(0);
+        }
+        long position = regionStart + region.position();
+        long target = Math.max(1, (fileSize - position + parts - 1) / Math.max(1, parts));
+        List<ByteBuffer> ranges = new ArrayList<>();
+        while (position < fileSize) {
+            int size = (int) Math.min(fileSize - position, Integer.MAX_VALUE);
+            MappedByteBuffer range = fis.getChannel().map(FileChannel.MapMode.READ_ONLY, position, size);
+            int end = (int) Math.min(target, size) - 1;
+            while (end < size && range.get(end) != NEWLINE) {
+                end++;
+            }
+            if (end == size) {
+                if (position + size < fileSize) {
+                    throw new IOException("Line at offset " + position + " of collection file " + collectionFile.getName() + " exceeds 2GB");
+                }
+            } else {
+                // The range includes the newline
+                end++;
+            }
+            ranges.add(range.slice(0, end));
+            position += end;
+        }
+        mapRegion(fileSize);
+        return ranges;
+    }
+
+    /**
+     * Returns the next line of a range returned by {@link #splitRecords(int)}, without the line terminator,
+     * and advances the position of the range past it.
+     *
+     * @param range the range to read from
+     * @return the bytes of the next line or null at the end of the range
+     */
+    public static ByteBuffer nextRecord(ByteBuffer range) {
+        int start = range.position();
+        int limit = range.limit();
+        if (start == limit) {
+            return null;
+        }
+        int end = start;
+        while (end < limit && range.get(end) != NEWLINE) {
+            end++;
+        }
+        range.position(end < limit ? end + 1 : limit);
+        if (end > start && range.get(end - 1) == CARRIAGE_RETURN) {
+            end--;
+        }
+        return range.slice(start, end - start);
+    }
+
+    private ByteBuffer record(int start, int end) {
+        if (end > start && region.get(end - 1) == CARRIAGE_RETURN) {
+            end--;
+        }
+        return region.slice(start, end - start);
+    }
+
+    private void mapRegion(long position) throws IOException {
+        long size = Math.min(fileSize - position, Integer.MAX_VALUE);
+        region = fis.getChannel().map(FileChannel.MapMode.READ_ONLY, position, size);
+        regionStart = position;
+    }
+
     public void close() {
+        region = null;
         try {
             reader.close();
         } catch (IOException e) {
@@ -113,27 +267,18 @@ public class JsonReader {
         } catch (IOException e) {
             log.error("Failed to close InputStreamReader for collection file {}", collectionFile.getName(), e);
         }
-        try {
-            if (lock.isValid()) {
-                lock.release();
-            }
-        } catch (IOException e) {
-            log.error("Failed to release lock for collection file {}", collectionFile.getName(), e);
-        }
-        try {
-            channel.close();
-        } catch (IOException e) {
-            log.error("Failed to close FileChannel for collection file {}", collectionFile.getName(), e);
-        }
         try {
             fis.close();
         } catch (IOException e) {
             log.error("Failed to close FileInputStream for collection file {}", collectionFile.getName(), e);
         }
-        try {
-            raf.close();
-        } catch (IOException e) {
-            log.error("Failed to close RandomAccessFile for collection file {}", collectionFile.getName(), e);
+        releaseLock();
+    }
+
+    private void releaseLock() {
+        lockFile.release(lock);
+        if (ownsLockFile) {
+            lockFile.close();
         }
     }
 }
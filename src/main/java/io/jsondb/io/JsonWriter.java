@@ -31,13 +31,16 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.io.RandomAccessFile;
+import java.io.Writer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -61,13 +64,31 @@ public class JsonWriter {
     private SchemaVersion schemaVersion;
     private CollectionMetaData cmd;
 
-    private File lockFilesLocation;
-    private File fileLockLocation;
+    private CollectionLockFile lockFile;
+    private boolean ownsLockFile;
 
-    private RandomAccessFile raf;
-    private FileChannel channel;
+    private JsonDBConfig dbConfig;
+    private JsonOpLog opLog;
+    private FileSyncer fileSyncer;
 
     public JsonWriter(JsonDBConfig dbConfig, CollectionMetaData cmd, String collectionName, File collectionFile) throws IOException {
+        this(dbConfig, cmd, collectionName, collectionFile, new CollectionLockFile(collectionFile, true), null);
+        this.ownsLockFile = true;
+    }
+
+    /**
+     * A writer created with this constructor can be reused for any number of operations, the lock file
+     * is left open in between and belongs to the caller.
+     *
+     * @param dbConfig the settings used by Json DB
+     * @param cmd metadata of the collection
+     * @param collectionName name of the collection
+     * @param collectionFile the .json file of the collection
+     * @param lockFile the lock file of the collection
+     * @param fileSyncer forces the written files according to the durability of the collection, if null nothing is forced
+     */
+    public JsonWriter(JsonDBConfig dbConfig, CollectionMetaData cmd, String collectionName, File collectionFile,
+            CollectionLockFile lockFile, FileSyncer fileSyncer) {
 
         this.dbFilesLocation = dbConfig.getDbFilesLocation();
         this.collectionName = collectionName;
@@ -76,54 +97,110 @@ public class JsonWriter {
         this.objectMapper = dbConfig.getObjectMapper();
         this.schemaVersion = new SchemaVersion(cmd.getSchemaVersion());
         this.cmd = cmd;
-
-        this.lockFilesLocation = new File(collectionFile.getParentFile(), "lock");
-        this.fileLockLocation = new File(lockFilesLocation, collectionFile.getName() + ".lock");
-
-        if (!lockFilesLocation.exists()) {
-            lockFilesLocation.mkdirs();
-        }
-        if (!fileLockLocation.exists()) {
-            fileLockLocation.createNewFile();
-        }
-
-        raf = new RandomAccessFile(fileLockLocation, "rw");
-        channel = raf.getChannel();
+        this.dbConfig = dbConfig;
+        this.opLog = new JsonOpLog(dbConfig, cmd, collectionFile);
+        this.lockFile = lockFile;
+        this.fileSyncer = fileSyncer;
     }
 
     private FileLock acquireLock() throws IOException {
         try {
-            FileLock fileLock = channel.lock();
-            return fileLock;
+            return lockFile.lock();
         } catch (IOException e) {
-            try {
-                channel.close();
-                raf.close();
-            } catch (IOException e1) {
-                log.error("Failed while closing RandomAccessFile for collection file {}", collectionFile.getName());
+            if (ownsLockFile) {
+                lockFile.close();
             }
             throw e;
         }
     }
 
     private void releaseLock(FileLock lock) {
+        lockFile.release(lock);
+        if (ownsLockFile) {
+            lockFile.close();
+        }
+    }
+
+    /**
+     * Invoked after the .json file has been replaced with the complete collection,
+     * the records in the operation log are obsolete from now on.
+     */
+    private void collectionFileReplaced() {
+        opLog.discard();
+        cmd.incrementFileGeneration();
+        syncCommitted(collectionFile, true);
+    }
+
+    /**
+     * Forces a file that has just been written according to the durability of the collection.
+     *
+     * @param writer the writer used to write the file, it is flushed first
+     * @param fos the stream of the file
+     * @throws IOException if the file could not be forced
+     */
+    private void syncWritten(Writer writer, FileOutputStream fos) throws IOException {
+        if (null != fileSyncer) {
+            writer.flush();
+            fileSyncer.written(collectionName, fos.getChannel());
+        }
+    }
+
+    private String serialize(Object document) throws JsonProcessingException {
+        return cmd.getSerializedDocuments().serialize(dbConfig, document);
+    }
+
+    private void syncCommitted(File file, boolean directoryChanged) {
+        if (null != fileSyncer) {
+            fileSyncer.committed(collectionName, file.toPath(), directoryChanged);
+        }
+    }
+
+    /**
+     * A utility method that appends the provided records to the operation log of the collection
+     * while holding the lock of the collection file
+     *
+     * @param records the operation log records to append
+     * @return true if success
+     */
+    private boolean appendToOpLog(List<String> records) {
+        FileLock lock = null;
         try {
-            if (lock != null && lock.isValid()) {
-                lock.release();
+            try {
+                lock = acquireLock();
+            } catch (IOException e) {
+                log.error("Failed to acquire lock for collection file {}", collectionFile.getName(), e);
+                return false;
             }
-        } catch (IOException e) {
-            log.error("Failed to release lock for collection file {}", collectionFile.getName(), e);
+            try {
+                boolean created = !opLog.getLogFile().exists();
+                opLog.append(records, fileSyncer);
+                syncCommitted(opLog.getLogFile(), created);
+            } catch (IOException e) {
+                log.error("Failed to append records to operation log {}", opLog.getLogFile().getName(), e);
+                return false;
+            }
+            return true;
+        } finally {
+            releaseLock(lock);
         }
-        try {
-            channel.close();
-        } catch (IOException e) {
-            log.error("Failed to close FileChannel for collection file {}", collectionFile.getName(), e);
+    }
+
+    /**
+     * A utility method that appends mutations, which were already applied to the collection in memory,
+     * to the operation log of the collection in a single write.
+     *
+     * @param writes the mutations in the order they were applied
+     * @return true if success
+     */
+    public boolean appendToOpLog(Collection<PendingWrite> writes) {
+        if (cmd.isReadOnly()) {
+            throw new InvalidJsonDbApiUsageException("Failed to modify collection, Collection is loaded as readonly");
         }
-        try {
-            raf.close();
-        } catch (IOException e) {
-            log.error("Failed to close RandomAccessFile for collection file {}", collectionFile.getName(), e);
+        List<String> records = new ArrayList<>(writes.size());
+        for (PendingWrite write : writes) {
+            records.add(opLog.record(write));
         }
+        return appendToOpLog(records);
     }
 
     /**
@@ -140,6 +217,9 @@ public class JsonWriter {
         if (cmd.isReadOnly()) {
             throw new InvalidJsonDbApiUsageException("Failed to modify collection, Collection is loaded as readonly");
         }
+        if (dbConfig.isOperationLogEnabled()) {
+            return appendToOpLog(List.of(opLog.insertRecord(objectToSave)));
+        }
         FileLock lock = null;
         try {
             try {
@@ -172,13 +252,14 @@ public class JsonWriter {
                 writer.newLine();
 
                 for (T o : collection) {
-                    String documentData = objectMapper.writeValueAsString(o);
+                    String documentData = serialize(o);
                     writer.write(documentData);
                     writer.newLine();
                 }
-                String newDocument = objectMapper.writeValueAsString(objectToSave);
+                String newDocument = serialize(objectToSave);
                 writer.write(newDocument);
                 writer.newLine();
+                syncWritten(writer, fos);
             } catch (JsonProcessingException e) {
                 log.error("Failed in coverting Object to Json collection {}", collectionName, e);
                 throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + collectionName, e);
@@ -205,6 +286,7 @@ public class JsonWriter {
 
             try {
                 Files.move(tFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
             } catch (IOException e) {
                 log.error("Failed to move temporary collection file {} to collection file {}", tFileName, collectionFile.getName(), e);
             }
@@ -229,6 +311,13 @@ public class JsonWriter {
         if (cmd.isReadOnly()) {
             throw new InvalidJsonDbApiUsageException("Failed to modify collection, Collection is loaded as readonly");
         }
+        if (dbConfig.isOperationLogEnabled()) {
+            List<String> records = new ArrayList<>(batchToSave.size());
+            for (T o : batchToSave) {
+                records.add(opLog.insertRecord(o));
+            }
+            return appendToOpLog(records);
+        }
         FileLock lock = null;
         try {
             try {
@@ -261,15 +350,16 @@ public class JsonWriter {
                 writer.newLine();
 
                 for (T o : collection) {
-                    String documentData = objectMapper.writeValueAsString(o);
+                    String documentData = serialize(o);
                     writer.write(documentData);
                     writer.newLine();
                 }
                 for (T o : batchToSave) {
-                    String documentData = objectMapper.writeValueAsString(o);
+                    String documentData = serialize(o);
                     writer.write(documentData);
                     writer.newLine();
                 }
+                syncWritten(writer, fos);
             } catch (JsonProcessingException e) {
                 log.error("Failed in coverting Object to Json collection {}", collectionName, e);
                 throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + collectionName, e);
@@ -296,6 +386,7 @@ public class JsonWriter {
 
             try {
                 Files.move(tFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
             } catch (IOException e) {
                 log.error("Failed to move temporary collection file {} to collection file {}", tFileName, collectionFile.getName(), e);
             }
@@ -320,6 +411,9 @@ public class JsonWriter {
         if (cmd.isReadOnly()) {
             throw new InvalidJsonDbApiUsageException("Failed to modify collection, Collection is loaded as readonly");
         }
+        if (dbConfig.isOperationLogEnabled()) {
+            return appendToOpLog(List.of(opLog.deleteRecord(id)));
+        }
         FileLock lock = null;
         try {
             try {
@@ -353,11 +447,12 @@ public class JsonWriter {
 
                 for (Entry<Object, T> entry : collection.entrySet()) {
                     if (!entry.getKey().equals(id)) {
-                        String documentData = objectMapper.writeValueAsString(entry.getValue());
+                        String documentData = serialize(entry.getValue());
                         writer.write(documentData);
                         writer.newLine();
                     }
                 }
+                syncWritten(writer, fos);
             } catch (JsonProcessingException e) {
                 log.error("Failed in coverting Object to Json collection {}", collectionName, e);
                 throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + collectionName, e);
@@ -384,6 +479,7 @@ public class JsonWriter {
 
             try {
                 Files.move(tFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
             } catch (IOException e) {
                 log.error("Failed to move temporary collection file {} to collection file {}", tFileName, collectionFile.getName(), e);
             }
@@ -408,6 +504,13 @@ public class JsonWriter {
         if (cmd.isReadOnly()) {
             throw new InvalidJsonDbApiUsageException("Failed to modify collection, Collection is loaded as readonly");
         }
+        if (dbConfig.isOperationLogEnabled()) {
+            List<String> records = new ArrayList<>(removeIds.size());
+            for (Object id : removeIds) {
+                records.add(opLog.deleteRecord(id));
+            }
+            return appendToOpLog(records);
+        }
         FileLock lock = null;
         try {
             try {
@@ -441,11 +544,12 @@ public class JsonWriter {
 
                 for (Entry<Object, T> entry : collection.entrySet()) {
                     if (!removeIds.contains(entry.getKey())) {
-                        String documentData = objectMapper.writeValueAsString(entry.getValue());
+                        String documentData = serialize(entry.getValue());
                         writer.write(documentData);
                         writer.newLine();
                     }
                 }
+                syncWritten(writer, fos);
             } catch (JsonProcessingException e) {
                 log.error("Failed in coverting Object to Json collection {}", collectionName, e);
                 throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + collectionName, e);
@@ -472,6 +576,7 @@ public class JsonWriter {
 
             try {
                 Files.move(tFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
             } catch (IOException e) {
                 log.error("Failed to move temporary collection file {} to collection file {}", tFileName, collectionFile.getName(), e);
             }
@@ -497,6 +602,9 @@ public class JsonWriter {
         if (cmd.isReadOnly()) {
             throw new InvalidJsonDbApiUsageException("Failed to modify collection, Collection is loaded as readonly");
         }
+        if (dbConfig.isOperationLogEnabled()) {
+            return appendToOpLog(List.of(opLog.updateRecord(objectToSave)));
+        }
         FileLock lock = null;
         try {
             try {
@@ -536,10 +644,11 @@ public class JsonWriter {
                         o = entry.getValue();
                     }
 
-                    String documentData = objectMapper.writeValueAsString(o);
+                    String documentData = serialize(o);
                     writer.write(documentData);
                     writer.newLine();
                 }
+                syncWritten(writer, fos);
             } catch (JsonProcessingException e) {
                 log.error("Failed in coverting Object to Json collection {}", collectionName, e);
                 throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + collectionName, e);
@@ -566,6 +675,7 @@ public class JsonWriter {
 
             try {
                 Files.move(tFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
             } catch (IOException e) {
                 log.error("Failed to move temporary collection file {} to collection file {}", tFileName, collectionFile.getName(), e);
             }
@@ -590,6 +700,13 @@ public class JsonWriter {
         if (cmd.isReadOnly()) {
             throw new InvalidJsonDbApiUsageException("Failed to modify collection, Collection is loaded as readonly");
         }
+        if (dbConfig.isOperationLogEnabled()) {
+            List<String> records = new ArrayList<>(modifiedObjects.size());
+            for (T o : modifiedObjects.values()) {
+                records.add(opLog.updateRecord(o));
+            }
+            return appendToOpLog(records);
+        }
         FileLock lock = null;
         try {
             try {
@@ -629,10 +746,11 @@ public class JsonWriter {
                         o = entry.getValue();
                     }
 
-                    String documentData = objectMapper.writeValueAsString(o);
+                    String documentData = serialize(o);
                     writer.write(documentData);
                     writer.newLine();
                 }
+                syncWritten(writer, fos);
             } catch (JsonProcessingException e) {
                 log.error("Failed in coverting Object to Json collection {}", collectionName, e);
                 throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + collectionName, e);
@@ -659,6 +777,7 @@ public class JsonWriter {
 
             try {
                 Files.move(tFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
             } catch (IOException e) {
                 log.error("Failed to move temporary collection file {} to collection file {}", tFileName, collectionFile.getName(), e);
             }
@@ -715,10 +834,11 @@ public class JsonWriter {
                 writer.newLine();
 
                 for (T o : collection) {
-                    String documentData = objectMapper.writeValueAsString(o);
+                    String documentData = serialize(o);
                     writer.write(documentData);
                     writer.newLine();
                 }
+                syncWritten(writer, fos);
             } catch (JsonProcessingException e) {
                 log.error("Failed in coverting Object to Json collection {}", collectionName, e);
                 throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + collectionName, e);
@@ -745,6 +865,7 @@ public class JsonWriter {
 
             try {
                 Files.move(tFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
             } catch (IOException e) {
                 log.error("Failed to move temporary collection file {} to collection file {}", tFileName, collectionFile.getName(), e);
             }
@@ -808,11 +929,12 @@ public class JsonWriter {
                 String newKeyWithQuotes = "\"" + newKey + "\":";
 
                 for (T o : collection) {
-                    String documentData = objectMapper.writeValueAsString(o);
+                    String documentData = serialize(o);
                     documentData = documentData.replace(oldKeyWithQuotes, newKeyWithQuotes);
                     writer.write(documentData);
                     writer.newLine();
                 }
+                syncWritten(writer, fos);
             } catch (JsonProcessingException e) {
                 log.error("Failed in coverting Object to Json collection {}", collectionName, e);
                 throw new InvalidJsonDbApiUsageException("Failed Json Processing for collection " + collectionName, e);
@@ -839,6 +961,7 @@ public class JsonWriter {
 
             try {
                 Files.move(tFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
             } catch (IOException e) {
                 log.error("Failed to move temporary collection file {} to collection file {}", tFileName, collectionFile.getName(), e);
             }
@@ -848,4 +971,103 @@ public class JsonWriter {
             releaseLock(lock);
         }
     }
+
+    /**
+     * A utility method that writes the provided snapshot of a collection to a new temporary file.
+     * No lock is taken, the collection file itself is not touched until {@link #replaceWithSnapshot(File, long)}
+     *
+     * @param snapshot the documents of the collection
+     * @param <T> Type annotated with {@link io.jsondb.annotation.Document} annotation
+     *            and member of the baseScanPackage
+     * @return the temporary file holding the snapshot or null on failure
+     */
+    public <T> File writeSnapshot(Collection<T> snapshot) {
+        File tFile;
+        try {
+            tFile = File.createTempFile(collectionName, null, dbFilesLocation);
+        } catch (IOException e) {
+            log.error("Failed to create temporary file for snapshot", e);
+            return null;
+        }
+        try (FileOutputStream fos = new FileOutputStream(tFile);
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(fos, charset))) {
+            // Stamp version first
+            writer.write(objectMapper.writeValueAsString(schemaVersion));
+            writer.newLine();
+
+            for (T o : snapshot) {
+                writer.write(serialize(o));
+                writer.newLine();
+            }
+            if (null != fileSyncer) {
+                writer.flush();
+                fileSyncer.written(collectionName, fos.getChannel());
+            }
+        } catch (IOException e) {
+            log.error("Failed to write snapshot of collection {} to temporary file {}", collectionName, tFile.getName(), e);
+            tFile.delete();
+            return null;
+        }
+        return tFile;
+    }
+
+    /**
+     * A utility method that atomically replaces the collection file with a snapshot written by
+     * {@link #writeSnapshot(Collection)}. The records appended to the operation log after the snapshot
+     * was taken are kept, everything before logOffset is contained in the snapshot and dropped.
+     *
+     * If the process dies between replacing the .json file and the operation log, the complete old log is
+     * replayed on top of the snapshot, which results in the same collection as every record is keyed by id.
+     *
+     * @param snapshotFile the temporary file holding the snapshot
+     * @param logOffset the length of the operation log at the time the snapshot was taken, read under the lock of
+     *        the collection file so it is the end of a record
+     * @return true if success
+     */
+    public boolean replaceWithSnapshot(File snapshotFile, long logOffset) {
+        FileLock lock = null;
+        File tLog = null;
+        try {
+            try {
+                lock = acquireLock();
+            } catch (IOException e) {
+                log.error("Failed to acquire lock for collection file {}", collectionFile.getName(), e);
+                snapshotFile.delete();
+                return false;
+            }
+            File logFile = opLog.getLogFile();
+            long logLength = logFile.length();
+            if (logLength > logOffset) {
+                tLog = File.createTempFile(collectionName, null, dbFilesLocation);
+                try (FileChannel in = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+                        FileChannel out = FileChannel.open(tLog.toPath(), StandardOpenOption.WRITE)) {
+                    long position = logOffset;
+                    while (position < logLength) {
+                        position += in.transferTo(position, logLength - position, out);
+                    }
+                    if (null != fileSyncer) {
+                        fileSyncer.written(collectionName, out);
+                    }
+                }
+                Files.move(snapshotFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                cmd.incrementFileGeneration();
+                Files.move(tLog.toPath(), logFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                syncCommitted(collectionFile, false);
+                syncCommitted(logFile, true);
+            } else {
+                Files.move(snapshotFile.toPath(), collectionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                collectionFileReplaced();
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to replace collection file {} with snapshot {}", collectionFile.getName(), snapshotFile.getName(), e);
+            snapshotFile.delete();
+            if (null != tLog) {
+                tLog.delete();
+            }
+            return false;
+        } finally {
+            releaseLock(lock);
+        }
+    }
 }
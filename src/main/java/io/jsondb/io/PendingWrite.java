@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.io;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A mutation that has already been applied to a collection in memory and still has to be written to disk.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PendingWrite {
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    private final Operation operation;
+    /**
+     * The document for INSERT and UPDATE, the id of the document for DELETE
+     */
+    private final Object payload;
+
+    public static PendingWrite insert(Object document) {
+        return new PendingWrite(Operation.INSERT, document);
+    }
+
+    public static PendingWrite update(Object document) {
+        return new PendingWrite(Operation.UPDATE, document);
+    }
+
+    public static PendingWrite delete(Object id) {
+        return new PendingWrite(Operation.DELETE, id);
+    }
+}
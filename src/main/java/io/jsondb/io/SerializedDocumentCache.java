@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.io;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jsondb.JsonDBConfig;
+
+/**
+ * The last serialized form of the documents of a collection, so a rewrite of the collection file only
+ * runs Jackson for the documents that changed since the previous write.
+ *
+ * The documents are the keys, compared by identity and weakly referenced. A document held by JsonDB is never
+ * changed in place, a write replaces it with a new object, so the entry of a changed document is simply not
+ * found again and goes away with the old object.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class SerializedDocumentCache {
+
+    private final Cache<Object, String> documents = CacheBuilder.newBuilder().weakKeys().recordStats().build();
+    private volatile ObjectMapper objectMapper;
+
+    /**
+     * @param dbConfig the settings used by Json DB
+     * @param document a document of the collection
+     * @return the document as JSON, from the cache if it was serialized before with the same ObjectMapper
+     * @throws JsonProcessingException if the document could not be serialized
+     */
+    public String serialize(JsonDBConfig dbConfig, Object document) throws JsonProcessingException {
+        ObjectMapper mapper = dbConfig.getObjectMapper();
+        if (!dbConfig.isSerializedDocumentCacheEnabled()) {
+            return mapper.writeValueAsString(document);
+        }
+        if (mapper != objectMapper) {
+            // A different ObjectMapper may well produce different JSON
+            documents.invalidateAll();
+            objectMapper = mapper;
+        }
+        String json = documents.getIfPresent(document);
+        if (null == json) {
+            json = mapper.writeValueAsString(document);
+            documents.put(document, json);
+        }
+        return json;
+    }
+
+    /**
+     * @return number of documents that were serialized by an earlier write
+     */
+    public long getHitCount() {
+        return documents.stats().hitCount();
+    }
+
+    /**
+     * @return number of documents that had to be serialized
+     */
+    public long getMissCount() {
+        return documents.stats().missCount();
+    }
+
+    public void clear() {
+        documents.invalidateAll();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.query;
+
+import io.jsondb.InvalidJsonDbApiUsageException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The fields of the documents a projected find query returns, in the order they are returned.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class Projection {
+
+  private final List<String> fields;
+
+  private Projection(List<String> fields) {
+    this.fields = fields;
+  }
+
+  /**
+   * Static factory method to create a Projection of the provided fields
+   *
+   * @param fields the names of the top level fields of the document to return
+   * @return the Projection
+   */
+  public static Projection of(String... fields) {
+    if (null == fields || fields.length < 1) {
+      throw new InvalidJsonDbApiUsageException("A projection needs at least one field");
+    }
+    return new Projection(Collections.unmodifiableList(Arrays.asList(fields.clone())));
+  }
+
+  public List<String> getFields() {
+    return fields;
+  }
+}
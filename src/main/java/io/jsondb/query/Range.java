@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.query;
+
+import io.jsondb.InvalidJsonDbApiUsageException;
+
+/**
+ * The values of a field with a {@code @Indexed(type = RANGE)} index a range query returns the documents of,
+ * in the order of the values. Without bounds a Range is all the documents with a value, in ascending order.
+ *
+ * The bounds are values of the type of the field, any Number for a number field.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class Range {
+
+  private final String field;
+  private Object from;
+  private boolean fromInclusive;
+  private Object to;
+  private boolean toInclusive;
+  private boolean descending;
+  private int limit;
+
+  private Range(String field) {
+    this.field = field;
+  }
+
+  /**
+   * Static factory method to create a Range of all the values of the provided field
+   *
+   * @param field the name of a top level field of the document with a range index
+   * @return the Range
+   */
+  public static Range of(String field) {
+    if (null == field) {
+      throw new InvalidJsonDbApiUsageException("A range needs a field");
+    }
+    return new Range(field);
+  }
+
+  public Range greaterThan(Object value) {
+    return from(value, false);
+  }
+
+  public Range atLeast(Object value) {
+    return from(value, true);
+  }
+
+  public Range lessThan(Object value) {
+    return to(value, false);
+  }
+
+  public Range atMost(Object value) {
+    return to(value, true);
+  }
+
+  /**
+   * Returns the documents from the highest value down, documents with the same value stay in collection order
+   *
+   * @return this Range
+   */
+  public Range descending() {
+    this.descending = true;
+    return this;
+  }
+
+  /**
+   * @param limit the number of documents after which the query stops
+   * @return this Range
+   */
+  public Range limit(int limit) {
+    if (limit < 1) {
+      throw new InvalidJsonDbApiUsageException("The limit of a range must be at least 1");
+    }
+    this.limit = limit;
+    return this;
+  }
+
+  private Range from(Object value, boolean inclusive) {
+    if (null == value) {
+      throw new InvalidJsonDbApiUsageException("The bound of a range cannot be null");
+    }
+    this.from = value;
+    this.fromInclusive = inclusive;
+    return this;
+  }
+
+  private Range to(Object value, boolean inclusive) {
+    if (null == value) {
+      throw new InvalidJsonDbApiUsageException("The bound of a range cannot be null");
+    }
+    this.to = value;
+    this.toInclusive = inclusive;
+    return this;
+  }
+
+  public String getField() {
+    return field;
+  }
+
+  /**
+   * @return the lower bound, or null if there is none
+   */
+  public Object getFrom() {
+    return from;
+  }
+
+  public boolean isFromInclusive() {
+    return fromInclusive;
+  }
+
+  /**
+   * @return the upper bound, or null if there is none
+   */
+  public Object getTo() {
+    return to;
+  }
+
+  public boolean isToInclusive() {
+    return toInclusive;
+  }
+
+  public boolean isDescending() {
+    return descending;
+  }
+
+  /**
+   * @return the number of documents after which the query stops, 0 if there is no limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+}
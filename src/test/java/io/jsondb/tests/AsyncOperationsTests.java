@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.DefaultSchemaVersionComparator;
+import io.jsondb.InvalidJsonDbApiUsageException;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.crypto.Default1Cipher;
+import io.jsondb.crypto.ICipher;
+import io.jsondb.tests.model.Instance;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Junit tests for the asynchronous write-behind operations
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class AsyncOperationsTests {
+    private static final String INSTANCES_JSON = "instances.json";
+    @TempDir
+    private File dbFilesFolder;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, INSTANCES_JSON));
+    }
+
+    private JsonDBConfig createConfig(boolean writeBehindEnabled, boolean operationLogEnabled) {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        dbConfig.setWriteBehindEnabled(writeBehindEnabled);
+        dbConfig.setOperationLogEnabled(operationLogEnabled);
+        return dbConfig;
+    }
+
+    private Instance createInstance(String id) {
+        Instance instance = new Instance();
+        instance.setId(id);
+        instance.setHostname("ec2-54-191-" + id);
+        return instance;
+    }
+
+    @Test
+    public void testAsyncWithoutWriteBehind() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(false, false));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.insertAsync(createInstance("11")));
+    }
+
+    @Test
+    public void testInsertAsyncIsVisibleAndDurable() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(true, true));
+        CompletableFuture<Void> future = jsonDBTemplate.insertAsync(createInstance("11"));
+        // Applied in memory before the future completes
+        assertNotNull(jsonDBTemplate.findById("11", Instance.class));
+        future.join();
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false, false));
+        assertEquals(7, reloaded.findAll(Instance.class).size());
+        assertEquals("ec2-54-191-11", reloaded.findById("11", Instance.class).getHostname());
+    }
+
+    @Test
+    public void testMixedAsyncMutations() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(true, false));
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 10; i < 20; i++) {
+            futures.add(jsonDBTemplate.insertAsync(createInstance(String.valueOf(i)), "instances"));
+        }
+        Instance modified = createInstance("12");
+        modified.setHostname("ec2-54-191-12-modified");
+        futures.add(jsonDBTemplate.saveAsync(modified, Instance.class));
+        futures.add(jsonDBTemplate.upsertAsync(createInstance("20")));
+        CompletableFuture<Instance> removed = jsonDBTemplate.removeAsync(createInstance("01"), Instance.class);
+        CompletableFuture<List<Instance>> batchRemoved = jsonDBTemplate.removeAsync(List.of(createInstance("13"), createInstance("14")), Instance.class);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        assertEquals("01", removed.join().getId());
+        assertEquals(2, batchRemoved.join().size());
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false, false));
+        assertEquals(6 + 10 + 1 - 3, reloaded.findAll(Instance.class).size());
+        assertEquals("ec2-54-191-12-modified", reloaded.findById("12", Instance.class).getHostname());
+        assertNull(reloaded.findById("01", Instance.class));
+    }
+
+    @Test
+    public void testSyncMutationAfterAsyncMutation() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(true, true));
+        jsonDBTemplate.insertAsync(createInstance("11"));
+        // Written after the asynchronous insert, so the document must not come back on reload
+        jsonDBTemplate.remove(createInstance("11"), Instance.class);
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false, false));
+        assertNull(reloaded.findById("11", Instance.class));
+    }
+
+    @Test
+    public void testBoundedQueue() {
+        JsonDBConfig dbConfig = createConfig(true, true);
+        dbConfig.setWriteBehindMaxPending(2);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 10; i < 60; i++) {
+            futures.add(jsonDBTemplate.insertAsync(createInstance(String.valueOf(i))));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false, false));
+        assertEquals(56, reloaded.findAll(Instance.class).size());
+    }
+
+    @Test
+    public void testChangeEncryptionWaitsForAsyncWrites() throws Exception {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model",
+                new Default1Cipher("1r8+24pibarAWgS85/Heeg=="), false, new DefaultSchemaVersionComparator());
+        dbConfig.setWriteBehindEnabled(true);
+        dbConfig.setOperationLogEnabled(true);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 10; i < 30; i++) {
+            Instance instance = createInstance(String.valueOf(i));
+            instance.setPrivateKey("key-" + i);
+            futures.add(jsonDBTemplate.insertAsync(instance));
+        }
+        Instance modified = jsonDBTemplate.findById("01", Instance.class);
+        modified.setPrivateKey("key-01-modified");
+        futures.add(jsonDBTemplate.saveAsync(modified, Instance.class));
+        futures.add(jsonDBTemplate.removeAsync(jsonDBTemplate.findById("02", Instance.class), Instance.class));
+
+        ICipher newCipher = new Default1Cipher("jCt039xT0eUwkIqAWACw/w==");
+        jsonDBTemplate.changeEncryption(newCipher);
+        for (CompletableFuture<?> future : futures) {
+            assertTrue(future.isDone());
+        }
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", newCipher);
+        assertEquals(25, reloaded.findAll(Instance.class).size());
+        assertEquals("key-29", reloaded.findById("29", Instance.class).getPrivateKey());
+        assertEquals("key-01-modified", reloaded.findById("01", Instance.class).getPrivateKey());
+        assertNull(reloaded.findById("02", Instance.class));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.DefaultSchemaVersionComparator;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.io.CollectionLockFile;
+import io.jsondb.tests.model.Instance;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Junit tests for the long lived lock files of collections
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class CollectionLockFileTests {
+    private static final String INSTANCES_JSON = "instances.json";
+    @TempDir
+    private File dbFilesFolder;
+    private File instancesJson;
+    private File lockFileLocation;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        instancesJson = new File(dbFilesFolder, INSTANCES_JSON);
+        lockFileLocation = new File(new File(dbFilesFolder, "lock"), INSTANCES_JSON + ".lock");
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), instancesJson);
+    }
+
+    private JsonDBTemplate createTemplate(boolean crossProcessLockingEnabled) {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        dbConfig.setCrossProcessLockingEnabled(crossProcessLockingEnabled);
+        return new JsonDBTemplate(dbConfig);
+    }
+
+    private void insertInstance(JsonDBTemplate jsonDBTemplate, String id) {
+        Instance instance = new Instance();
+        instance.setId(id);
+        instance.setHostname("ec2-54-191-" + id);
+        jsonDBTemplate.insert(instance);
+    }
+
+    @Test
+    public void testLockIsReleasedBetweenOperations() throws Exception {
+        JsonDBTemplate jsonDBTemplate = createTemplate(true);
+        insertInstance(jsonDBTemplate, "l1");
+        insertInstance(jsonDBTemplate, "l2");
+
+        try (RandomAccessFile raf = new RandomAccessFile(lockFileLocation, "rw");
+                FileChannel channel = raf.getChannel()) {
+            FileLock lock = channel.tryLock();
+            assertNotNull(lock);
+            lock.release();
+        }
+        assertEquals(8, jsonDBTemplate.findAll(Instance.class).size());
+    }
+
+    @Test
+    public void testWithoutCrossProcessLocking() throws Exception {
+        JsonDBTemplate jsonDBTemplate = createTemplate(false);
+
+        try (RandomAccessFile raf = new RandomAccessFile(lockFileLocation, "rw");
+                FileChannel channel = raf.getChannel();
+                FileLock lock = channel.lock()) {
+            // Only the threads of this JVM are kept apart, so a OS level lock held elsewhere does not block writes
+            insertInstance(jsonDBTemplate, "l1");
+        }
+        assertEquals(7, createTemplate(false).findAll(Instance.class).size());
+    }
+
+    @Test
+    public void testDropAndRecreateCollection() {
+        JsonDBTemplate jsonDBTemplate = createTemplate(true);
+        jsonDBTemplate.dropCollection(Instance.class);
+        jsonDBTemplate.createCollection(Instance.class);
+        insertInstance(jsonDBTemplate, "l1");
+
+        assertEquals(1, createTemplate(true).findAll(Instance.class).size());
+    }
+
+    @Test
+    public void testLockReleaseAndReopen() throws Exception {
+        CollectionLockFile lockFile = new CollectionLockFile(instancesJson, true);
+        // Releasing without holding the lock does nothing
+        lockFile.release(null);
+
+        FileLock lock = lockFile.lock();
+        assertTrue(lock.isValid());
+        lockFile.release(lock);
+        assertTrue(!lock.isValid());
+
+        lockFile.close();
+        lock = lockFile.lock();
+        assertTrue(lock.isValid());
+        lockFile.release(lock);
+        lockFile.close();
+
+        CollectionLockFile inJvmOnly = new CollectionLockFile(instancesJson, false);
+        assertNull(inJvmOnly.lock());
+        inJvmOnly.release(null);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.CompactionStats;
+import io.jsondb.DefaultSchemaVersionComparator;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.io.JsonOpLog;
+import io.jsondb.tests.model.Instance;
+import io.jsondb.tests.util.TestUtils;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Junit tests for the compaction of collection files and operation logs
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class CompactionTests {
+    private static final String INSTANCES_JSON = "instances.json";
+    @TempDir
+    private File dbFilesFolder;
+    private File instancesJson;
+    private File instancesLog;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        instancesJson = new File(dbFilesFolder, INSTANCES_JSON);
+        instancesLog = JsonOpLog.getLogFile(instancesJson);
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), instancesJson);
+    }
+
+    private JsonDBConfig createConfig() {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        dbConfig.setOperationLogEnabled(true);
+        return dbConfig;
+    }
+
+    private void modifyInstances(JsonDBTemplate jsonDBTemplate) {
+        for (int i = 0; i < 10; i++) {
+            Instance instance = new Instance();
+            instance.setId("1" + i);
+            instance.setHostname("ec2-54-191-1" + i);
+            jsonDBTemplate.insert(instance);
+            instance.setHostname("ec2-54-191-1" + i + "-updated");
+            jsonDBTemplate.save(instance, Instance.class);
+        }
+        jsonDBTemplate.remove(jsonDBTemplate.findById("01", Instance.class), Instance.class);
+    }
+
+    @Test
+    public void testCompactCollection() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig());
+        modifyInstances(jsonDBTemplate);
+        assertEquals(21, TestUtils.getNoOfLinesInFile(instancesLog));
+
+        assertTrue(jsonDBTemplate.compactCollection(Instance.class));
+
+        assertFalse(instancesLog.exists());
+        assertEquals(16, TestUtils.getNoOfLinesInFile(instancesJson));
+        assertEquals("{\"id\":\"19\",\"hostname\":\"ec2-54-191-19-updated\",\"privateKey\":null,\"publicKey\":null}",
+                TestUtils.lastLine(instancesJson));
+
+        CompactionStats stats = jsonDBTemplate.getCompactionStats("instances");
+        assertEquals(1, stats.getCompactions());
+        assertEquals(instancesJson.length(), stats.getBytesWritten());
+        assertTrue(stats.getBytesReclaimed() > 0);
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig());
+        assertEquals(15, reloaded.findAll(Instance.class).size());
+        assertNull(reloaded.findById("01", Instance.class));
+        assertEquals("ec2-54-191-15-updated", reloaded.findById("15", Instance.class).getHostname());
+    }
+
+    @Test
+    public void testCompactCollectionWithoutLog() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig());
+        assertFalse(jsonDBTemplate.compactCollection(Instance.class));
+        assertEquals(0, jsonDBTemplate.getCompactionStats("instances").getCompactions());
+    }
+
+    @Test
+    public void testWritesAfterCompactionAreLogged() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig());
+        modifyInstances(jsonDBTemplate);
+        jsonDBTemplate.compactCollection(Instance.class);
+
+        Instance instance = new Instance();
+        instance.setId("20");
+        jsonDBTemplate.insert(instance);
+        assertEquals(1, TestUtils.getNoOfLinesInFile(instancesLog));
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig());
+        assertEquals(16, reloaded.findAll(Instance.class).size());
+    }
+
+    @Test
+    public void testBackgroundCompaction() throws InterruptedException {
+        JsonDBConfig dbConfig = createConfig();
+        dbConfig.setCompactionIntervalMillis(20);
+        dbConfig.setCompactionMinLogBytes(0);
+        dbConfig.setCompactionGarbageRatio(0);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        modifyInstances(jsonDBTemplate);
+
+        for (int i = 0; i < 250 && instancesLog.exists(); i++) {
+            Thread.sleep(20);
+        }
+        assertFalse(instancesLog.exists());
+        assertTrue(jsonDBTemplate.getCompactionStats("instances").getCompactions() > 0);
+        assertNotNull(jsonDBTemplate.findById("19", Instance.class));
+        assertEquals(15, jsonDBTemplate.findAll(Instance.class).size());
+    }
+
+    @Test
+    public void testCompactionWhileLargeBatchesAreFlushed() throws Exception {
+        JsonDBConfig dbConfig = createConfig();
+        dbConfig.setGroupCommitEnabled(true);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        // A batch is far bigger than the buffer of the writer, so it is appended to the log in many chunks
+        String padding = "x".repeat(4 * 1024);
+        int rounds = 40;
+        int batchSize = 25;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int round = 0; round < rounds; round++) {
+                List<Instance> batch = new ArrayList<>();
+                for (int i = 0; i < batchSize; i++) {
+                    Instance instance = new Instance();
+                    instance.setId("c-" + round + "-" + i);
+                    instance.setHostname(padding);
+                    batch.add(instance);
+                }
+                Future<?> flushed = executor.submit(() -> jsonDBTemplate.insert(batch, Instance.class));
+                while (!flushed.isDone()) {
+                    jsonDBTemplate.compactCollection(Instance.class);
+                }
+                flushed.get();
+
+                // A log whose kept tail starts in the middle of a record cannot be loaded
+                JsonDBTemplate reloaded = new JsonDBTemplate(createConfig());
+                assertEquals(6 + (round + 1) * batchSize, reloaded.findAll(Instance.class).size());
+                assertNotNull(reloaded.findById("c-" + round + "-" + (batchSize - 1), Instance.class));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
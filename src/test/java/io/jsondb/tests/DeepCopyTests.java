@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.tests.model.PojoWithEnumFields;
+import io.jsondb.tests.model.PojoWithNestedTypes;
+import io.jsondb.tests.model.Site;
+import io.jsondb.tests.model.Volume;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Junit tests for the deep copies of documents handed in and out of the DB
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class DeepCopyTests {
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate;
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new Jdk8Module())
+            .registerModule(new JavaTimeModule());
+
+    @BeforeEach
+    public void setUp() {
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model");
+        jsonDBTemplate.createCollection(PojoWithNestedTypes.class);
+    }
+
+    private Site site(String id, String location) {
+        Site site = new Site();
+        site.setId(id);
+        site.setLocation(location);
+        return site;
+    }
+
+    private PojoWithNestedTypes createPojo() {
+        PojoWithNestedTypes pojo = new PojoWithNestedTypes();
+        pojo.setId("n1");
+        pojo.setStatus(PojoWithEnumFields.Status.CREATED);
+        pojo.setSite(site("s0", "Amsterdam"));
+        List<Site> sites = new ArrayList<>();
+        sites.add(site("s1", "Utrecht"));
+        sites.add(null);
+        pojo.setSites(sites);
+        Map<String, Volume> volumes = new LinkedHashMap<>();
+        Volume volume = new Volume();
+        volume.setId("v1");
+        volume.setSize(100);
+        volume.setFlash(true);
+        volumes.put("boot", volume);
+        pojo.setVolumes(volumes);
+        Set<String> tags = new HashSet<>();
+        tags.add("prod");
+        pojo.setTags(tags);
+        pojo.setPorts(new int[] {80, 443});
+        pojo.setCreated(LocalDateTime.of(2026, 10, 17, 12, 30, 15, 123456789));
+        pojo.setUpdated(new Date(1000000L));
+        pojo.setAny(List.of(site("s2", "Delft")));
+        pojo.setNote("not stored");
+        return pojo;
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        PojoWithNestedTypes pojo = createPojo();
+        jsonDBTemplate.insert(pojo);
+
+        pojo.getSite().setLocation("Rotterdam");
+        pojo.getSites().get(0).setLocation("Rotterdam");
+        pojo.getVolumes().get("boot").setSize(1);
+        pojo.getTags().add("test");
+        pojo.getPorts()[0] = 8080;
+        pojo.getUpdated().setTime(0);
+
+        PojoWithNestedTypes found = jsonDBTemplate.findById("n1", PojoWithNestedTypes.class);
+        assertEquals("Amsterdam", found.getSite().getLocation());
+        assertEquals("Utrecht", found.getSites().get(0).getLocation());
+        assertNull(found.getSites().get(1));
+        assertEquals(100, found.getVolumes().get("boot").getSize());
+        assertEquals(Set.of("prod"), found.getTags());
+        assertArrayEquals(new int[] {80, 443}, found.getPorts());
+        assertEquals(1000000L, found.getUpdated().getTime());
+
+        PojoWithNestedTypes foundAgain = jsonDBTemplate.findById("n1", PojoWithNestedTypes.class);
+        assertNotSame(found, foundAgain);
+        assertNotSame(found.getSite(), foundAgain.getSite());
+        assertNotSame(found.getSites(), foundAgain.getSites());
+        assertNotSame(found.getVolumes().get("boot"), foundAgain.getVolumes().get("boot"));
+    }
+
+    @Test
+    public void testCopyMatchesJacksonRoundTrip() throws Exception {
+        PojoWithNestedTypes pojo = createPojo();
+        jsonDBTemplate.insert(pojo);
+
+        PojoWithNestedTypes found = jsonDBTemplate.findById("n1", PojoWithNestedTypes.class);
+        PojoWithNestedTypes roundTrip = objectMapper.readValue(objectMapper.writeValueAsString(pojo), PojoWithNestedTypes.class);
+
+        assertEquals(objectMapper.writeValueAsString(roundTrip), objectMapper.writeValueAsString(found));
+        // Ignored properties are not copied and a untyped value is copied the way Jackson reads it back
+        assertNull(found.getNote());
+        assertTrue(found.getAny() instanceof List<?> any && any.get(0) instanceof Map);
+        assertEquals(pojo.getCreated(), found.getCreated());
+        assertEquals(PojoWithEnumFields.Status.CREATED, found.getStatus());
+    }
+}
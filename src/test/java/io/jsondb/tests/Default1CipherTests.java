@@ -28,9 +28,17 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -80,4 +88,57 @@ public class Default1CipherTests {
         assertEquals(msg, decryptedText);
         assertTrue(encryptedText.length() > 40, "ciphertext too short");
     }
+
+    @Test
+    public void testUniqueIvsAndCompatibleLength() throws UnsupportedEncodingException, GeneralSecurityException {
+        ICipher cipher = new Default1Cipher(CryptoUtil.generate128BitKey("MyPassword", "ksdfkja923u4anf"));
+        String first = cipher.encrypt("Hallo, Wie gehts");
+        String second = cipher.encrypt("Hallo, Wie gehts");
+        assertNotEquals(first, second);
+        // Same layout as before, a 16 byte IV followed by the cipher text and the 16 byte tag
+        assertEquals("dy4tf8d4HNkbfI9dPY4DPldga+RA+lTknLSZwajanyTjuGkqQGf5MfUDYhSgWMF1".length(), first.length());
+        assertEquals("Hallo, Wie gehts", cipher.decrypt(second));
+    }
+
+    @Test
+    public void testBufferGrowth() throws UnsupportedEncodingException, GeneralSecurityException {
+        ICipher cipher = new Default1Cipher(CryptoUtil.generate128BitKey("MyPassword", "ksdfkja923u4anf"));
+        String longText = "0123456789abcdef".repeat(100);
+        assertEquals(longText, cipher.decrypt(cipher.encrypt(longText)));
+        assertEquals("short", cipher.decrypt(cipher.encrypt("short")));
+        assertEquals("", cipher.decrypt(cipher.encrypt("")));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        ICipher cipher = new Default1Cipher(CryptoUtil.generate128BitKey("MyPassword", "ksdfkja923u4anf"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    List<String> encrypted = new ArrayList<>();
+                    for (int i = 0; i < 500; i++) {
+                        String text = "secret-" + thread + "-" + i;
+                        String cipherText = cipher.encrypt(text);
+                        assertEquals(text, cipher.decrypt(cipherText));
+                        encrypted.add(cipherText);
+                    }
+                    return encrypted;
+                }));
+            }
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                all.addAll(future.get());
+            }
+            assertEquals(2000, all.size());
+            // Values encrypted on other threads decrypt on this one
+            for (String cipherText : futures.get(0).get()) {
+                assertTrue(cipher.decrypt(cipherText).startsWith("secret-0-"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
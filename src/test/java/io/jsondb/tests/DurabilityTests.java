@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.DefaultSchemaVersionComparator;
+import io.jsondb.Durability;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.io.DurabilityStats;
+import io.jsondb.tests.model.Instance;
+import java.io.File;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Junit tests for the durability levels of collection writes
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class DurabilityTests {
+    private static final String INSTANCES_JSON = "instances.json";
+    @TempDir
+    private File dbFilesFolder;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, INSTANCES_JSON));
+    }
+
+    private JsonDBConfig createConfig(Durability durability, boolean operationLogEnabled) {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        dbConfig.setDurability(durability);
+        dbConfig.setOperationLogEnabled(operationLogEnabled);
+        return dbConfig;
+    }
+
+    private void insertInstances(JsonDBTemplate jsonDBTemplate, int count) {
+        insertInstances(jsonDBTemplate, 0, count);
+    }
+
+    private void insertInstances(JsonDBTemplate jsonDBTemplate, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            Instance instance = new Instance();
+            instance.setId("d" + i);
+            instance.setHostname("ec2-54-191-d" + i);
+            jsonDBTemplate.insert(instance);
+        }
+    }
+
+    private void assertReloaded(int expected) {
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(Durability.NONE, false));
+        assertEquals(expected, reloaded.findAll(Instance.class).size());
+        assertNotNull(reloaded.findById("d0", Instance.class));
+    }
+
+    @Test
+    public void testNoneDoesNotSync() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(Durability.NONE, false));
+        insertInstances(jsonDBTemplate, 3);
+
+        assertEquals(0, jsonDBTemplate.getDurabilityStats("instances").getSyncs());
+        assertReloaded(9);
+    }
+
+    @Test
+    public void testFlushSyncsEveryWrite() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(Durability.FLUSH, false));
+        insertInstances(jsonDBTemplate, 3);
+
+        // Only the contents of the temporary files, the directory is left alone
+        assertEquals(3, jsonDBTemplate.getDurabilityStats("instances").getSyncs());
+        assertReloaded(9);
+    }
+
+    @Test
+    public void testFsyncSyncsFileAndDirectory() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(Durability.FSYNC, false));
+        insertInstances(jsonDBTemplate, 3);
+
+        DurabilityStats stats = jsonDBTemplate.getDurabilityStats("instances");
+        assertTrue(stats.getSyncs() >= 3);
+        assertTrue(stats.getTotalSyncMicros() >= stats.getMaxSyncMicros());
+        assertReloaded(9);
+    }
+
+    @Test
+    public void testFsyncWithOperationLog() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(Durability.FSYNC, true));
+        insertInstances(jsonDBTemplate, 3);
+
+        assertTrue(jsonDBTemplate.getDurabilityStats("instances").getSyncs() >= 3);
+        assertReloaded(9);
+    }
+
+    @Test
+    public void testBatchedSyncsAfterBatchOps() {
+        JsonDBConfig dbConfig = createConfig(Durability.FSYNC_BATCHED, true);
+        dbConfig.setDurabilityBatchIntervalMillis(0);
+        dbConfig.setDurabilityBatchOps(5);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+
+        insertInstances(jsonDBTemplate, 4);
+        assertEquals(0, jsonDBTemplate.getDurabilityStats("instances").getSyncs());
+
+        insertInstances(jsonDBTemplate, 4, 1);
+        // The log and the directory it was created in
+        assertEquals(2, jsonDBTemplate.getDurabilityStats("instances").getSyncs());
+        assertReloaded(11);
+    }
+
+    @Test
+    public void testBatchedSyncsOnInterval() throws Exception {
+        JsonDBConfig dbConfig = createConfig(Durability.FSYNC_BATCHED, false);
+        dbConfig.setDurabilityBatchIntervalMillis(50);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        insertInstances(jsonDBTemplate, 3);
+
+        for (int i = 0; i < 100 && jsonDBTemplate.getDurabilityStats("instances").getSyncs() == 0; i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(jsonDBTemplate.getDurabilityStats("instances").getSyncs() > 0);
+        assertReloaded(9);
+    }
+
+    @Test
+    public void testDurabilityPerCollection() {
+        JsonDBConfig dbConfig = createConfig(Durability.NONE, false);
+        dbConfig.setDurability("instances", Durability.FLUSH);
+        assertEquals(Durability.FLUSH, dbConfig.getDurability("instances"));
+        assertEquals(Durability.NONE, dbConfig.getDurability("sites"));
+
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        insertInstances(jsonDBTemplate, 2);
+        assertEquals(2, jsonDBTemplate.getDurabilityStats("instances").getSyncs());
+
+        dbConfig.setDurability("instances", null);
+        assertEquals(Durability.NONE, dbConfig.getDurability("instances"));
+    }
+
+    @Test
+    public void testSyncCollectionFiles() {
+        JsonDBConfig dbConfig = createConfig(Durability.FSYNC_BATCHED, false);
+        dbConfig.setDurabilityBatchIntervalMillis(0);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        insertInstances(jsonDBTemplate, 2);
+        assertEquals(0, jsonDBTemplate.getDurabilityStats("instances").getSyncs());
+
+        jsonDBTemplate.syncCollectionFiles();
+        assertTrue(jsonDBTemplate.getDurabilityStats("instances").getSyncs() > 0);
+    }
+}
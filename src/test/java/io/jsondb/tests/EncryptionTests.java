@@ -21,8 +21,11 @@
 package io.jsondb.tests;
 
 import com.google.common.io.Files;
+import io.jsondb.DefaultSchemaVersionComparator;
 import io.jsondb.InvalidJsonDbApiUsageException;
+import io.jsondb.JsonDBConfig;
 import io.jsondb.JsonDBTemplate;
+import io.jsondb.crypto.DecryptionCacheStats;
 import io.jsondb.crypto.Default1Cipher;
 import io.jsondb.crypto.ICipher;
 import io.jsondb.tests.model.Instance;
@@ -103,6 +106,27 @@ public class EncryptionTests {
         assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", i.getPrivateKey());
     }
 
+    @Test
+    public void changeEncryptionWritesQueuedWritesFirst() throws GeneralSecurityException {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model",
+                new Default1Cipher("1r8+24pibarAWgS85/Heeg=="), false, new DefaultSchemaVersionComparator());
+        dbConfig.setWriteBehindEnabled(true);
+        dbConfig.setOperationLogEnabled(true);
+        JsonDBTemplate writeBehindTemplate = new JsonDBTemplate(dbConfig);
+        Instance instance = new Instance();
+        instance.setId("11");
+        instance.setHostname("ec2-54-191-11");
+        instance.setPrivateKey("b87eb02f5dd7e5232d7b0fc30a5015e4");
+        writeBehindTemplate.insertAsync(instance);
+
+        ICipher newCipher = new Default1Cipher("jCt039xT0eUwkIqAWACw/w==");
+        writeBehindTemplate.changeEncryption(newCipher);
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", newCipher);
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", reloaded.findById("11", Instance.class).getPrivateKey());
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", reloaded.findById("01", Instance.class).getPrivateKey());
+    }
+
     @Test
     public void changeEncryptionTest2() throws GeneralSecurityException {
         ICipher newCipher = new Default1Cipher("jCt039xT0eUwkIqAWACw/w==");
@@ -110,4 +134,40 @@ public class EncryptionTests {
         InvalidJsonDbApiUsageException exception = assertThrows(InvalidJsonDbApiUsageException.class, () -> unencryptedjsonDBTemplate.changeEncryption(newCipher));
         assertEquals("DB is not encrypted, nothing to change for EncryptionKey", exception.getMessage());
     }
+
+    @Test
+    public void decryptionCacheTest() throws GeneralSecurityException {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model",
+                new Default1Cipher("1r8+24pibarAWgS85/Heeg=="), false, null);
+        dbConfig.setDecryptedValueCacheSize(100);
+        JsonDBTemplate cachingTemplate = new JsonDBTemplate(dbConfig);
+
+        Instance first = cachingTemplate.findById("01", "instances");
+        DecryptionCacheStats stats = cachingTemplate.getDecryptionCacheStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(0, stats.getHits());
+
+        Instance second = cachingTemplate.findById("01", "instances");
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", second.getPrivateKey());
+        assertEquals(first.getPrivateKey(), second.getPrivateKey());
+        stats = cachingTemplate.getDecryptionCacheStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getSize());
+
+        cachingTemplate.changeEncryption(new Default1Cipher("jCt039xT0eUwkIqAWACw/w=="));
+        assertEquals(0, cachingTemplate.getDecryptionCacheStats().getSize());
+        Instance afterChange = cachingTemplate.findById("01", "instances");
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", afterChange.getPrivateKey());
+    }
+
+    @Test
+    public void decryptionCacheDisabledTest() {
+        jsonDBTemplate.findById("01", "instances");
+        jsonDBTemplate.findById("01", "instances");
+        DecryptionCacheStats stats = jsonDBTemplate.getDecryptionCacheStats();
+        assertEquals(0, stats.getHits());
+        assertEquals(0, stats.getMisses());
+        assertEquals(0, stats.getSize());
+    }
 }
@@ -23,10 +23,12 @@ package io.jsondb.tests;
 import com.google.common.io.Files;
 import io.jsondb.InvalidJsonDbApiUsageException;
 import io.jsondb.JsonDBTemplate;
+import io.jsondb.Util;
 import io.jsondb.crypto.Default1Cipher;
 import io.jsondb.crypto.ICipher;
 import io.jsondb.tests.model.Instance;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -389,4 +391,38 @@ public class FindQueryTests {
         assertEquals(instances.get(1).getHostname(), "ec2-54-191-03");
         assertEquals(instances.get(2).getHostname(), "ec2-54-191-05");
     }
+
+    /**
+     * a test that bounded slices of sorted results, selected without sorting all the documents,
+     * are the same as slices of the fully sorted documents, including documents that compare equal
+     */
+    @Test
+    public void testFindQuery_AndSortAndBoundedSlice() {
+        for (int i = 10; i < 50; i++) {
+            Instance instance = new Instance();
+            instance.setId(String.valueOf(i));
+            instance.setHostname("ec2-54-191-" + (i % 7));
+            instance.setPrivateKey("b87eb02f5dd7e5232d7b0fc30a5015e4");
+            jsonDBTemplate.insert(instance);
+        }
+        Comparator<Instance> comparator = Comparator.comparing(Instance::getHostname);
+        List<Instance> sorted = jsonDBTemplate.findAll(Instance.class, comparator);
+        String[] slices = {"0:5", ":10:3", "-5:", "-12::2", "7::-1", "7:2:-2", "-3:-20:-1", "::-4", "5:1000", "-46:", "3:-2", "45::-3"};
+        for (String slice : slices) {
+            List<String> expected = new ArrayList<>();
+            for (int index : Util.getSliceIndexes(slice, sorted.size())) {
+                expected.add(sorted.get(index).getId());
+            }
+            List<String> found = new ArrayList<>();
+            for (Instance instance : jsonDBTemplate.find(".", Instance.class, comparator, slice)) {
+                found.add(instance.getId());
+            }
+            assertEquals(expected, found, slice);
+            List<String> foundAll = new ArrayList<>();
+            for (Instance instance : jsonDBTemplate.findAll(Instance.class, comparator, slice)) {
+                foundAll.add(instance.getId());
+            }
+            assertEquals(expected, foundAll, slice);
+        }
+    }
 }
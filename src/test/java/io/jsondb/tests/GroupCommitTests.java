@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.DefaultSchemaVersionComparator;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBException;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.io.JsonOpLog;
+import io.jsondb.query.Update;
+import io.jsondb.tests.model.Instance;
+import io.jsondb.tests.util.TestUtils;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Junit tests for the group commit mode
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class GroupCommitTests {
+    private static final String INSTANCES_JSON = "instances.json";
+    private static final int THREADS = 8;
+    private static final int INSERTS_PER_THREAD = 25;
+    @TempDir
+    private File dbFilesFolder;
+    private File instancesJson;
+    private File instancesLog;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        instancesJson = new File(dbFilesFolder, INSTANCES_JSON);
+        instancesLog = JsonOpLog.getLogFile(instancesJson);
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), instancesJson);
+    }
+
+    private JsonDBConfig createConfig(boolean groupCommitEnabled, boolean operationLogEnabled) {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        dbConfig.setGroupCommitEnabled(groupCommitEnabled);
+        dbConfig.setOperationLogEnabled(operationLogEnabled);
+        return dbConfig;
+    }
+
+    private void insertConcurrently(JsonDBTemplate jsonDBTemplate) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        Instance instance = new Instance();
+                        instance.setId("gc-" + thread + "-" + i);
+                        instance.setHostname("ec2-gc-" + thread + "-" + i);
+                        jsonDBTemplate.insert(instance);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentInsertsRewritingFile() throws Exception {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(true, false));
+        insertConcurrently(jsonDBTemplate);
+
+        int expected = 6 + THREADS * INSERTS_PER_THREAD;
+        assertEquals(expected, jsonDBTemplate.findAll(Instance.class).size());
+        // Every insert has returned, so all of them must already be in the .json file
+        assertEquals(expected + 1, TestUtils.getNoOfLinesInFile(instancesJson));
+        assertFalse(instancesLog.exists());
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false, false));
+        assertEquals(expected, reloaded.findAll(Instance.class).size());
+    }
+
+    @Test
+    public void testConcurrentInsertsWithOperationLog() throws Exception {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(true, true));
+        insertConcurrently(jsonDBTemplate);
+
+        int expected = 6 + THREADS * INSERTS_PER_THREAD;
+        assertEquals(expected, jsonDBTemplate.findAll(Instance.class).size());
+        assertEquals(7, TestUtils.getNoOfLinesInFile(instancesJson));
+        assertEquals(THREADS * INSERTS_PER_THREAD, TestUtils.getNoOfLinesInFile(instancesLog));
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false, false));
+        assertEquals(expected, reloaded.findAll(Instance.class).size());
+        assertNotNull(reloaded.findById("gc-3-7", Instance.class));
+    }
+
+    @Test
+    public void testMixedMutationsAreDurableOnReturn() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(true, true));
+        Instance instance = new Instance();
+        instance.setId("11");
+        instance.setHostname("ec2-54-191-11");
+        jsonDBTemplate.upsert(instance);
+
+        Update update = Update.update("hostname", "ec2-54-191-11-modified");
+        jsonDBTemplate.findAndModify("/.[id='11']", update, Instance.class);
+        jsonDBTemplate.findAndRemove("/.[id='01']", Instance.class);
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false, false));
+        assertEquals(6, reloaded.findAll(Instance.class).size());
+        assertNull(reloaded.findById("01", Instance.class));
+        assertEquals("ec2-54-191-11-modified", reloaded.findById("11", Instance.class).getHostname());
+    }
+
+    @Test
+    public void testFailedFlushRefusesWritesUntilReload() {
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(createConfig(true, true));
+        // A directory in place of the operation log makes every append fail
+        instancesLog.delete();
+        instancesLog.mkdir();
+
+        Instance lost = new Instance();
+        lost.setId("11");
+        lost.setHostname("ec2-54-191-11");
+        assertThrows(JsonDBException.class, () -> jsonDBTemplate.insert(lost));
+
+        instancesLog.delete();
+        Instance refused = new Instance();
+        refused.setId("12");
+        refused.setHostname("ec2-54-191-12");
+        assertThrows(JsonDBException.class, () -> jsonDBTemplate.insert(refused));
+
+        jsonDBTemplate.reloadCollection("instances");
+        assertNull(jsonDBTemplate.findById("11", Instance.class));
+        jsonDBTemplate.insert(refused);
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false, true));
+        assertEquals(7, reloaded.findAll(Instance.class).size());
+        assertNotNull(reloaded.findById("12", Instance.class));
+    }
+}
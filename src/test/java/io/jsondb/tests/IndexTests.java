@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import io.jsondb.InvalidJsonDbApiUsageException;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.query.Update;
+import io.jsondb.tests.model.Account;
+import io.jsondb.tests.model.Account.Status;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the indexes of @Indexed fields, the queries answered by a index must find exactly
+ * what the same predicate evaluated by JXPath finds.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class IndexTests {
+    private static final String[] REGIONS = {"eu", "us", "ap"};
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+
+    @BeforeEach
+    public void setUp() {
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model");
+        jsonDBTemplate.createCollection(Account.class);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            accounts.add(account("a" + i, REGIONS[i % 3], Status.values()[i % 2], i % 5));
+        }
+        jsonDBTemplate.insert(accounts, Account.class);
+    }
+
+    private Account account(String id, String region, Status status, int tier) {
+        Account account = new Account();
+        account.setId(id);
+        account.setRegion(region);
+        account.setStatus(status);
+        account.setTier(tier);
+        account.setName("account " + id);
+        return account;
+    }
+
+    private List<String> find(String jxQuery) {
+        List<String> ids = new ArrayList<>();
+        for (Account account : jsonDBTemplate.find(jxQuery, Account.class)) {
+            ids.add(account.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * The predicate in parentheses is not looked up in a index but evaluated by JXPath
+     */
+    private void assertSameAsScan(String field, String literal) {
+        List<String> indexed = find("/.[" + field + "=" + literal + "]");
+        assertEquals(find("/.[(" + field + "=" + literal + ")]"), indexed, field + "=" + literal);
+        Account first = jsonDBTemplate.findOne("/.[" + field + "=" + literal + "]", Account.class);
+        assertEquals(indexed.isEmpty() ? null : indexed.get(0), null == first ? null : first.getId());
+    }
+
+    private void assertAllSameAsScan() {
+        for (String region : REGIONS) {
+            assertSameAsScan("region", "'" + region + "'");
+        }
+        assertSameAsScan("region", "'moon'");
+        assertSameAsScan("region", "''");
+        assertSameAsScan("status", "'ACTIVE'");
+        assertSameAsScan("status", "'SUSPENDED'");
+        assertSameAsScan("status", "\"CLOSED\"");
+        assertSameAsScan("tier", "3");
+        assertSameAsScan("tier", "'3'");
+        assertSameAsScan("tier", "3.0");
+        assertSameAsScan("tier", "'x'");
+    }
+
+    @Test
+    public void testIndexedQueries() {
+        assertAllSameAsScan();
+        assertEquals(30, find("/.[region='eu']").size());
+        assertEquals(18, find(".[tier=0]").size());
+    }
+
+    @Test
+    public void testIndexesFollowWrites() {
+        jsonDBTemplate.save(account("a0", "us", Status.CLOSED, 7), Account.class);
+        jsonDBTemplate.remove(jsonDBTemplate.findById("a1", Account.class), Account.class);
+        jsonDBTemplate.upsert(account("a2", "moon", Status.ACTIVE, 3));
+        jsonDBTemplate.upsert(account("z1", "eu", Status.CLOSED, 3));
+        jsonDBTemplate.findAllAndModify("/.[region='ap']", Update.update("region", "eu"), Account.class);
+        jsonDBTemplate.findAndRemove("/.[id='a3']", Account.class);
+        jsonDBTemplate.insert(account("a3", "ap", Status.ACTIVE, 1));
+
+        assertAllSameAsScan();
+        assertEquals(List.of("a0"), find("/.[tier=7]"));
+        assertEquals(List.of("a2"), find("/.[region='moon']"));
+        assertEquals(List.of("a3"), find("/.[region='ap']"));
+        assertFalse(find("/.[region='eu']").contains("a1"));
+
+        jsonDBTemplate.reLoadDB();
+        assertAllSameAsScan();
+        assertEquals(List.of("a3"), find("/.[region='ap']"));
+    }
+
+    @Test
+    public void testIndexesFollowRandomWrites() {
+        Random random = new Random(42);
+        for (int i = 0; i < 400; i++) {
+            String id = "a" + random.nextInt(120);
+            Account account = account(id, REGIONS[random.nextInt(3)], Status.values()[random.nextInt(3)], random.nextInt(5));
+            switch (random.nextInt(4)) {
+                case 0:
+                    jsonDBTemplate.upsert(account);
+                    break;
+                case 1:
+                    Account existing = jsonDBTemplate.findById(id, Account.class);
+                    if (null != existing) {
+                        jsonDBTemplate.remove(existing, Account.class);
+                    }
+                    break;
+                case 2:
+                    // Changes a field that is not indexed, the indexes stay as they are
+                    jsonDBTemplate.findAllAndModify("/.[id='" + id + "']", Update.update("name", "renamed " + i), Account.class);
+                    break;
+                default:
+                    jsonDBTemplate.upsert(List.of(account, account(id + "b", "moon", Status.ACTIVE, 4)), Account.class);
+                    break;
+            }
+        }
+        assertAllSameAsScan();
+        assertSameAsScan("region", "'moon'");
+    }
+
+    @Test
+    public void testQueriesSeeIndexesOfTheVersionTheyRead() throws Exception {
+        // Every query finds exactly the documents of one version while a writer keeps moving accounts between regions
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 300; i++) {
+                jsonDBTemplate.save(account("a" + (i % 90), REGIONS[(i + 1) % 3], Status.ACTIVE, i % 5), Account.class);
+            }
+        });
+        while (!writer.isDone()) {
+            for (Account account : jsonDBTemplate.find("/.[region='eu' and tier=2]", Account.class)) {
+                assertEquals("eu", account.getRegion());
+                assertEquals(2, account.getTier());
+            }
+        }
+        writer.get(30, TimeUnit.SECONDS);
+        assertAllSameAsScan();
+    }
+
+    @Test
+    public void testIndexesAfterDropAndCreate() {
+        jsonDBTemplate.dropCollection(Account.class);
+        jsonDBTemplate.createCollection(Account.class);
+        assertEquals(0, find("/.[region='eu']").size());
+        jsonDBTemplate.insert(account("b1", "eu", Status.ACTIVE, 1));
+        assertEquals(List.of("b1"), find("/.[region='eu']"));
+    }
+
+    @Test
+    public void testUnknownFieldFallsBackToJXPath() {
+        assertEquals(1, find("/.[name='account a4']").size());
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.find("/.[region='eu']", "nosuchcollection"));
+    }
+}
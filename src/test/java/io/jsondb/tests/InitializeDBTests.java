@@ -22,7 +22,10 @@ package io.jsondb.tests;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.Files;
+import io.jsondb.DefaultSchemaVersionComparator;
+import io.jsondb.JsonDBConfig;
 import io.jsondb.JsonDBTemplate;
+import io.jsondb.LoadStats;
 import io.jsondb.crypto.Default1Cipher;
 import io.jsondb.crypto.ICipher;
 import io.jsondb.tests.model.Instance;
@@ -107,6 +110,64 @@ public class InitializeDBTests {
         assertEquals(instances.size(), size + 10);
     }
 
+    @Test
+    public void testParallelLoad() throws IOException {
+        for (String fileName : new String[] {"pojowithenumfields.json", "pojowithignoredfields.json"}) {
+            Files.copy(new File("src/test/resources/dbfiles", fileName), new File(dbFilesFolder, fileName));
+        }
+        JsonDBConfig sequentialConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        sequentialConfig.setCollectionLoadThreads(1);
+        JsonDBTemplate sequential = new JsonDBTemplate(sequentialConfig);
+
+        JsonDBConfig parallelConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        parallelConfig.setCollectionLoadThreads(4);
+        JsonDBTemplate parallel = new JsonDBTemplate(parallelConfig);
+
+        assertEquals(3, parallel.getCollectionNames().size());
+        assertEquals(sequential.getCollectionNames(), parallel.getCollectionNames());
+        for (String collectionName : parallel.getCollectionNames()) {
+            assertEquals(sequential.findAll(collectionName).size(), parallel.findAll(collectionName).size());
+            LoadStats stats = parallel.getLoadStats(collectionName);
+            assertEquals(1, stats.getLoads());
+            assertEquals(parallel.findAll(collectionName).size(), stats.getLastDocuments());
+        }
+
+        parallel.reLoadDB();
+        assertEquals(2, parallel.getLoadStats("instances").getLoads());
+        assertEquals(6, parallel.findAll(Instance.class).size());
+    }
+
+    @Test
+    public void testParallelParse() {
+        // Duplicate ids keep the position of their first line and the values of their last line
+        List<Instance> instances1 = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Instance inst = new Instance();
+            inst.setId(String.format("%03d", 100 + (i % 150)));
+            inst.setHostname("ec2-54-191-" + i);
+            instances1.add(inst);
+        }
+        appendDirectlyToJsonFile(instances1, new File(dbFilesFolder, INSTANCES_JSON));
+
+        JsonDBConfig sequentialConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        sequentialConfig.setParallelParseMinBytes(0);
+        List<Instance> expected = new JsonDBTemplate(sequentialConfig).findAll(Instance.class);
+
+        JsonDBConfig parallelConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        parallelConfig.setParallelParseMinBytes(1);
+        List<Instance> actual = new JsonDBTemplate(parallelConfig).findAll(Instance.class);
+
+        assertEquals(156, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getHostname(), actual.get(i).getHostname());
+        }
+    }
+
     private <T> boolean appendDirectlyToJsonFile(List<T> collectionData, File collectionFile) {
 
         boolean retval = false;
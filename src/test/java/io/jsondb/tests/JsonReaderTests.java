@@ -28,14 +28,20 @@ import io.jsondb.io.JsonReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for JsonReader IO utility class
@@ -66,6 +72,88 @@ public class JsonReaderTests {
         assertEquals("{\"schemaVersion\":\"1.0\"}", jr.readLine());
     }
 
+    private String toString(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testNextRecord() throws IOException {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+
+        JsonReader lineReader = new JsonReader(dbConfig, new File(dbFilesFolder, INSTANCES_JSON));
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = lineReader.readLine()) != null) {
+            lines.add(line);
+        }
+        lineReader.close();
+
+        JsonReader recordReader = new JsonReader(dbConfig, new File(dbFilesFolder, INSTANCES_JSON));
+        List<String> records = new ArrayList<>();
+        ByteBuffer record;
+        while ((record = recordReader.nextRecord()) != null) {
+            records.add(toString(record));
+        }
+        recordReader.close();
+
+        assertEquals(lines, records);
+    }
+
+    @Test
+    public void testNextRecordLineTerminators() throws IOException {
+        File file = new File(dbFilesFolder, "terminators.json");
+        Files.write("{\"a\":\"\u00e9\"}\r\n\n{\"b\":2}".getBytes(StandardCharsets.UTF_8), file);
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+
+        JsonReader jr = new JsonReader(dbConfig, file);
+        assertEquals("{\"a\":\"\u00e9\"}", toString(jr.nextRecord()));
+        assertEquals("", toString(jr.nextRecord()));
+        assertEquals("{\"b\":2}", toString(jr.nextRecord()));
+        assertNull(jr.nextRecord());
+        jr.close();
+
+        Files.write(new byte[0], file);
+        jr = new JsonReader(dbConfig, file);
+        assertNull(jr.nextRecord());
+        jr.close();
+    }
+
+    @Test
+    public void testSplitRecords() throws IOException {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+
+        JsonReader lineReader = new JsonReader(dbConfig, new File(dbFilesFolder, INSTANCES_JSON));
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = lineReader.readLine()) != null) {
+            lines.add(line);
+        }
+        lineReader.close();
+
+        for (int parts = 1; parts <= 10; parts++) {
+            JsonReader jr = new JsonReader(dbConfig, new File(dbFilesFolder, INSTANCES_JSON));
+            List<String> records = new ArrayList<>();
+            records.add(toString(jr.nextRecord()));
+            List<ByteBuffer> ranges = jr.splitRecords(parts);
+            assertTrue(ranges.size() <= parts);
+            for (ByteBuffer range : ranges) {
+                ByteBuffer record;
+                while ((record = JsonReader.nextRecord(range)) != null) {
+                    records.add(toString(record));
+                }
+            }
+            assertNull(jr.nextRecord());
+            jr.close();
+
+            assertEquals(lines, records);
+        }
+    }
+
     @Test
     public void testLockException() throws IOException {
         File lockFolder = new File(dbFilesFolder.getAbsolutePath(), "lock");
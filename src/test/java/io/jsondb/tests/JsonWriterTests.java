@@ -28,11 +28,16 @@ import io.jsondb.io.JsonWriter;
 import io.jsondb.tests.model.Instance;
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for JsonWriter IO utility class
@@ -63,4 +68,54 @@ public class JsonWriterTests {
 
         assertNotNull(jr);
     }
+
+    @Test
+    public void testRewriteReusesSerializedDocuments() throws IOException {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        CollectionMetaData cmd = new CollectionMetaData("instances", Instance.class, "1.0", null);
+        File collectionFile = new File(dbFilesFolder, INSTANCES_JSON);
+
+        Map<Object, Instance> collection = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            Instance instance = new Instance();
+            instance.setId(String.format("%02d", i));
+            instance.setHostname("ec2-54-191-" + i);
+            collection.put(instance.getId(), instance);
+        }
+        JsonWriter jw = new JsonWriter(dbConfig, cmd, "instances", collectionFile);
+        assertTrue(jw.reWriteJsonFile(collection.values(), false));
+        assertEquals(0, cmd.getSerializedDocuments().getHitCount());
+        assertEquals(5, cmd.getSerializedDocuments().getMissCount());
+
+        // A changed document is a new object, only it has to be serialized again
+        Instance changed = new Instance();
+        changed.setId("02");
+        changed.setHostname("ec2-54-191-changed");
+        jw = new JsonWriter(dbConfig, cmd, "instances", collectionFile);
+        assertTrue(jw.updateInJsonFile(collection, "02", changed));
+        assertEquals(4, cmd.getSerializedDocuments().getHitCount());
+        assertEquals(6, cmd.getSerializedDocuments().getMissCount());
+
+        List<String> lines = java.nio.file.Files.readAllLines(collectionFile.toPath());
+        assertEquals(6, lines.size());
+        assertEquals(dbConfig.getObjectMapper().writeValueAsString(changed), lines.get(3));
+        assertEquals(dbConfig.getObjectMapper().writeValueAsString(collection.get("04")), lines.get(5));
+    }
+
+    @Test
+    public void testSerializedDocumentCacheDisabled() throws IOException {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        dbConfig.setSerializedDocumentCacheEnabled(false);
+        CollectionMetaData cmd = new CollectionMetaData("instances", Instance.class, "1.0", null);
+
+        Instance instance = new Instance();
+        instance.setId("01");
+        JsonWriter jw = new JsonWriter(dbConfig, cmd, "instances", new File(dbFilesFolder, INSTANCES_JSON));
+        assertTrue(jw.reWriteJsonFile(List.of(instance), false));
+        assertTrue(jw.reWriteJsonFile(List.of(instance), false));
+        assertEquals(0, cmd.getSerializedDocuments().getHitCount());
+        assertEquals(0, cmd.getSerializedDocuments().getMissCount());
+    }
 }
@@ -21,6 +21,8 @@
 package io.jsondb.tests;
 
 import com.google.common.io.Files;
+import io.jsondb.DefaultSchemaVersionComparator;
+import io.jsondb.JsonDBConfig;
 import io.jsondb.JsonDBTemplate;
 import io.jsondb.tests.util.TestUtils;
 import java.io.File;
@@ -61,4 +63,19 @@ public class LoadInvalidJsonTests {
         assertEquals(collectionNames.size(), 0);
         assertEquals(8, TestUtils.getNoOfLinesInFile(new File(dbFilesFolder, INSTANCES_JSON)));
     }
+
+    @Test
+    public void testParallelLoadForInvalidJson() {
+        String invalidJson = "{\"id\"=\"07\",\"hostname\":\"ec2-54-191-07\",\"privateKey\":\"Zf9vl5K6WV6BA3eL7JbnrfPMjfJxc9Rkoo0zlROQlgTslmcp9iFzos+MP93GZqop\",\"publicKey\":\"\"}";
+
+        TestUtils.appendDirectToFile(new File(dbFilesFolder, INSTANCES_JSON), invalidJson);
+
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        dbConfig.setParallelParseMinBytes(1);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+
+        assertEquals(0, jsonDBTemplate.getCollectionNames().size());
+        assertEquals(8, TestUtils.getNoOfLinesInFile(new File(dbFilesFolder, INSTANCES_JSON)));
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.DefaultSchemaVersionComparator;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.io.JsonOpLog;
+import io.jsondb.tests.model.Instance;
+import io.jsondb.tests.util.TestUtils;
+import java.io.File;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Junit tests for the append-only operation log
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class OperationLogTests {
+    private static final String INSTANCES_JSON = "instances.json";
+    @TempDir
+    private File dbFilesFolder;
+    private File instancesJson;
+    private File instancesLog;
+
+    private JsonDBTemplate jsonDBTemplate = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        instancesJson = new File(dbFilesFolder, INSTANCES_JSON);
+        instancesLog = JsonOpLog.getLogFile(instancesJson);
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), instancesJson);
+        jsonDBTemplate = new JsonDBTemplate(createConfig(true));
+    }
+
+    private JsonDBConfig createConfig(boolean operationLogEnabled) {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false,
+                new DefaultSchemaVersionComparator());
+        dbConfig.setOperationLogEnabled(operationLogEnabled);
+        return dbConfig;
+    }
+
+    @Test
+    public void testMutationsAreAppendedToLog() {
+        Instance instance = new Instance();
+        instance.setId("11");
+        instance.setHostname("ec2-54-191-11");
+        jsonDBTemplate.insert(instance);
+
+        instance.setHostname("ec2-54-191-11-updated");
+        jsonDBTemplate.save(instance, Instance.class);
+
+        jsonDBTemplate.remove(jsonDBTemplate.findById("01", Instance.class), Instance.class);
+
+        assertEquals(7, TestUtils.getNoOfLinesInFile(instancesJson));
+        assertEquals(3, TestUtils.getNoOfLinesInFile(instancesLog));
+        assertEquals("{\"op\":\"DELETE\",\"id\":\"01\"}", TestUtils.lastLine(instancesLog));
+    }
+
+    @Test
+    public void testLogIsReplayedOnLoad() {
+        Instance instance = new Instance();
+        instance.setId("11");
+        instance.setHostname("ec2-54-191-11");
+        jsonDBTemplate.insert(instance);
+        instance.setHostname("ec2-54-191-11-updated");
+        jsonDBTemplate.upsert(instance);
+        jsonDBTemplate.remove(jsonDBTemplate.findById("01", Instance.class), Instance.class);
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(false));
+        assertEquals(6, reloaded.findAll(Instance.class).size());
+        assertNull(reloaded.findById("01", Instance.class));
+        Instance loaded = reloaded.findById("11", Instance.class);
+        assertNotNull(loaded);
+        assertEquals("ec2-54-191-11-updated", loaded.getHostname());
+    }
+
+    @Test
+    public void testIncompleteLastRecordIsIgnored() {
+        Instance instance = new Instance();
+        instance.setId("11");
+        instance.setHostname("ec2-54-191-11");
+        jsonDBTemplate.insert(instance);
+        TestUtils.appendDirectToFile(instancesLog, "{\"op\":\"INSERT\",\"doc\":{\"id\":\"12\",\"host");
+
+        JsonDBTemplate reloaded = new JsonDBTemplate(createConfig(true));
+        assertEquals(7, reloaded.findAll(Instance.class).size());
+        assertNotNull(reloaded.findById("11", Instance.class));
+
+        // The torn record was cut off the log, a record appended after it is on a line of its own
+        Instance another = new Instance();
+        another.setId("13");
+        another.setHostname("ec2-54-191-13");
+        reloaded.insert(another);
+        JsonDBTemplate reloadedAgain = new JsonDBTemplate(createConfig(true));
+        assertEquals(8, reloadedAgain.findAll(Instance.class).size());
+        assertNotNull(reloadedAgain.findById("01", Instance.class));
+        assertNotNull(reloadedAgain.findById("11", Instance.class));
+        assertNotNull(reloadedAgain.findById("13", Instance.class));
+        assertNull(reloadedAgain.findById("12", Instance.class));
+    }
+
+    @Test
+    public void testFullRewriteDiscardsLog() {
+        Instance instance = new Instance();
+        instance.setId("11");
+        instance.setHostname("ec2-54-191-11");
+        jsonDBTemplate.insert(instance);
+        assertTrue(instancesLog.exists());
+
+        // Without the operation log every mutation writes the complete collection to the .json file
+        JsonDBTemplate rewriting = new JsonDBTemplate(createConfig(false));
+        Instance another = new Instance();
+        another.setId("12");
+        another.setHostname("ec2-54-191-12");
+        rewriting.insert(another);
+
+        assertFalse(instancesLog.exists());
+        assertEquals(9, TestUtils.getNoOfLinesInFile(instancesJson));
+    }
+
+    @Test
+    public void testDropCollectionDeletesLog() {
+        Instance instance = new Instance();
+        instance.setId("11");
+        jsonDBTemplate.insert(instance);
+        assertTrue(instancesLog.exists());
+
+        jsonDBTemplate.dropCollection(Instance.class);
+        assertFalse(instancesLog.exists());
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.InvalidJsonDbApiUsageException;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.Page;
+import io.jsondb.crypto.Default1Cipher;
+import io.jsondb.crypto.ICipher;
+import io.jsondb.tests.model.Instance;
+import io.jsondb.tests.model.Product;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the keyset pagination of find queries
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class PaginationTests {
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, "instances.json"));
+        ICipher cipher = new Default1Cipher("1r8+24pibarAWgS85/Heeg==");
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", cipher);
+        // Inserted out of id order
+        for (int i = 49; i >= 10; i--) {
+            insert(String.valueOf(i), "ec2-54-191-" + (i % 3));
+        }
+    }
+
+    private void insert(String id, String hostname) {
+        Instance instance = new Instance();
+        instance.setId(id);
+        instance.setHostname(hostname);
+        instance.setPrivateKey("b87eb02f5dd7e5232d7b0fc30a5015e4");
+        jsonDBTemplate.insert(instance);
+    }
+
+    private List<String> ids(List<Instance> instances) {
+        List<String> ids = new ArrayList<>();
+        for (Instance instance : instances) {
+            ids.add(instance.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testPagesInIdOrder() {
+        List<String> expected = ids(jsonDBTemplate.findAll(Instance.class));
+        expected.sort(null);
+
+        List<String> paged = new ArrayList<>();
+        Page<Instance> page = jsonDBTemplate.findPage(null, Instance.class, 7, null);
+        int pages = 1;
+        paged.addAll(ids(page.getDocuments()));
+        while (page.hasNext()) {
+            page = jsonDBTemplate.findPage(null, Instance.class, 7, page.getContinuationToken());
+            paged.addAll(ids(page.getDocuments()));
+            pages++;
+        }
+        assertEquals(expected, paged);
+        assertEquals(7, pages);
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", page.getDocuments().get(0).getPrivateKey());
+    }
+
+    @Test
+    public void testPagesOfQuery() {
+        List<String> paged = new ArrayList<>();
+        String token = null;
+        do {
+            Page<Instance> page = jsonDBTemplate.findPage("/.[hostname='ec2-54-191-0']", Instance.class, 4, token);
+            assertTrue(page.getDocuments().size() <= 4);
+            paged.addAll(ids(page.getDocuments()));
+            token = page.getContinuationToken();
+        } while (null != token);
+
+        List<String> expected = ids(jsonDBTemplate.find("/.[hostname='ec2-54-191-0']", Instance.class));
+        expected.sort(null);
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    public void testPagesNotShiftedByWrites() {
+        Page<Instance> first = jsonDBTemplate.findPage(null, Instance.class, 10, null);
+        assertEquals("13", first.getDocuments().get(9).getId());
+
+        jsonDBTemplate.remove(first.getDocuments().get(0), Instance.class);
+        jsonDBTemplate.remove(first.getDocuments().get(9), Instance.class);
+        insert("02a", "ec2-54-191-02a");
+        insert("135", "ec2-54-191-135");
+
+        Page<Instance> second = jsonDBTemplate.findPage(null, Instance.class, 3, first.getContinuationToken());
+        assertEquals(List.of("135", "14", "15"), ids(second.getDocuments()));
+    }
+
+    @Test
+    public void testLastPage() {
+        Page<Instance> page = jsonDBTemplate.findPage(null, Instance.class, 100, null);
+        assertEquals(46, page.getDocuments().size());
+        assertFalse(page.hasNext());
+    }
+
+    private List<Product> insertProducts() {
+        jsonDBTemplate.createCollection(Product.class);
+        double[] prices = {5, 1, 3, 5, 2, 5, 1};
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product();
+            product.setId("p" + (char) ('t' - i));
+            product.setPrice(i % 6 == 5 ? null : prices[i % prices.length]);
+            jsonDBTemplate.insert(product);
+        }
+        return jsonDBTemplate.findAll(Product.class);
+    }
+
+    @Test
+    public void testPagesSortedByField() {
+        List<Product> expected = insertProducts();
+        expected.sort(Comparator.comparing((Product product) -> null == product.getPrice() ? 0 : product.getPrice()).thenComparing(Product::getId));
+
+        List<String> paged = new ArrayList<>();
+        String token = null;
+        do {
+            Page<Product> page = jsonDBTemplate.findPage(null, Product.class, "price", 3, token);
+            for (Product product : page.getDocuments()) {
+                paged.add(product.getId());
+            }
+            token = page.getContinuationToken();
+        } while (null != token);
+
+        List<String> expectedIds = new ArrayList<>();
+        for (Product product : expected) {
+            expectedIds.add(product.getId());
+        }
+        assertEquals(expectedIds, paged);
+    }
+
+    @Test
+    public void testSortedPagesNotShiftedByWrites() {
+        insertProducts();
+        Page<Product> first = jsonDBTemplate.findPage(null, "products", "price", 5, null);
+        assertEquals(List.of("pc", "pi", "po", "pe", "pg"), first.getDocuments().stream().map(Product::getId).toList());
+
+        // The page continues after the price and id of the last document, even with that document gone
+        jsonDBTemplate.remove(first.getDocuments().get(4), Product.class);
+        Product moved = jsonDBTemplate.findById("pn", Product.class);
+        moved.setPrice(0.0);
+        jsonDBTemplate.save(moved, Product.class);
+        Product inserted = new Product();
+        inserted.setId("pga");
+        inserted.setPrice(1.0);
+        jsonDBTemplate.insert(inserted);
+
+        Page<Product> second = jsonDBTemplate.findPage(null, "products", "price", 3, first.getContinuationToken());
+        assertEquals(List.of("pga", "pl", "ps"), second.getDocuments().stream().map(Product::getId).toList());
+    }
+
+    @Test
+    public void testInvalidPaging() {
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findPage(null, Instance.class, 0, null));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findPage(null, Instance.class, 5, "not a token"));
+
+        insertProducts();
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findPage(null, Product.class, "stock", 5, null));
+        String byPrice = jsonDBTemplate.findPage(null, Product.class, "price", 5, null).getContinuationToken();
+        String byId = jsonDBTemplate.findPage(null, Product.class, 5, null).getContinuationToken();
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findPage(null, Product.class, "sku", 5, byPrice));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findPage(null, Product.class, 5, byPrice));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findPage(null, Product.class, "price", 5, byId));
+    }
+}
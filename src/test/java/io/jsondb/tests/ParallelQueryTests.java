@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.crypto.Default1Cipher;
+import io.jsondb.tests.model.Account;
+import io.jsondb.tests.model.Instance;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the queries that are evaluated, copied and decrypted side by side on large collections
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class ParallelQueryTests {
+    private static final int DOCUMENTS = 1000;
+
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model",
+                new Default1Cipher("1r8+24pibarAWgS85/Heeg=="), false, null);
+        dbConfig.setParallelScanMinDocuments(50);
+        jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        jsonDBTemplate.createCollection(Instance.class);
+        jsonDBTemplate.createCollection(Account.class);
+        List<Instance> instances = new ArrayList<>();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Instance instance = new Instance();
+            instance.setId(String.format("%04d", DOCUMENTS - i));
+            instance.setHostname(String.format("host-%04d", i));
+            instance.setPrivateKey("key-" + i);
+            instances.add(instance);
+
+            Account account = new Account();
+            account.setId(String.format("a%04d", i));
+            account.setRegion(i % 2 == 0 ? "eu" : "us");
+            account.setStatus(Account.Status.ACTIVE);
+            account.setTier(i % 10);
+            account.setName("account " + i);
+            accounts.add(account);
+        }
+        jsonDBTemplate.insert(instances, Instance.class);
+        jsonDBTemplate.insert(accounts, Account.class);
+    }
+
+    private static List<String> hostnames(List<Instance> instances) {
+        return instances.stream().map(Instance::getHostname).collect(Collectors.toList());
+    }
+
+    private static List<String> hostnames(int from, int to) {
+        List<String> hostnames = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            hostnames.add(String.format("host-%04d", i));
+        }
+        return hostnames;
+    }
+
+    @Test
+    public void testScanKeepsCollectionOrder() {
+        List<String> expected = hostnames(0, DOCUMENTS);
+        expected.remove("host-0007");
+        List<Instance> found = jsonDBTemplate.find("/.[hostname!='host-0007']", Instance.class);
+        assertEquals(expected, hostnames(found));
+        assertEquals("key-999", found.get(DOCUMENTS - 2).getPrivateKey());
+    }
+
+    @Test
+    public void testCandidatesKeepCollectionOrder() {
+        List<Account> found = jsonDBTemplate.find("/.[region='eu' and tier!=4]", Account.class);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < DOCUMENTS; i += 2) {
+            if (i % 10 != 4) {
+                expected.add(String.format("a%04d", i));
+            }
+        }
+        assertEquals(expected, found.stream().map(Account::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testUnplannedQueryStaysSequential() {
+        List<Instance> found = jsonDBTemplate.find("/.[starts-with(hostname, 'host-00')]", Instance.class);
+        assertEquals(hostnames(0, 100), hostnames(found));
+    }
+
+    @Test
+    public void testFindAllSortedAndDecrypted() {
+        List<Instance> found = jsonDBTemplate.findAll(Instance.class, Comparator.comparing(Instance::getId));
+        List<String> expected = hostnames(0, DOCUMENTS);
+        Collections.reverse(expected);
+        assertEquals(expected, hostnames(found));
+        for (Instance instance : found) {
+            assertEquals("key-" + (DOCUMENTS - Integer.parseInt(instance.getId())), instance.getPrivateKey());
+        }
+    }
+
+    @Test
+    public void testFindSortedAndSliced() {
+        List<Instance> found = jsonDBTemplate.find("/.[hostname!='host-0999']", Instance.class, Comparator.comparing(Instance::getId), "1:101");
+        assertEquals("key-997", found.get(0).getPrivateKey());
+        assertEquals(100, found.size());
+        assertEquals("host-0898", found.get(99).getHostname());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.InvalidJsonDbApiUsageException;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.crypto.Default1Cipher;
+import io.jsondb.query.Update;
+import io.jsondb.tests.model.Instance;
+import java.io.File;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the queries that select documents with a {@link Predicate} rather than JXPath
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class PredicateQueryTests {
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, "instances.json"));
+        jsonDBTemplate = template(10000);
+    }
+
+    private JsonDBTemplate template(long parallelScanMinDocuments) throws Exception {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model",
+                new Default1Cipher("1r8+24pibarAWgS85/Heeg=="), false, null);
+        dbConfig.setParallelScanMinDocuments(parallelScanMinDocuments);
+        return new JsonDBTemplate(dbConfig);
+    }
+
+    private static List<String> ids(List<Instance> instances) {
+        return instances.stream().map(Instance::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFind() {
+        List<Instance> found = jsonDBTemplate.find((Instance i) -> i.getHostname().compareTo("ec2-54-191-03") > 0, Instance.class);
+        assertEquals(List.of("02", "03", "06"), ids(found));
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", found.get(0).getPrivateKey());
+    }
+
+    @Test
+    public void testFindReturnsCopies() {
+        Instance found = jsonDBTemplate.<Instance>find(i -> "01".equals(i.getId()), "instances").get(0);
+        found.setHostname("changed");
+        assertEquals("ec2-54-191-01", jsonDBTemplate.<Instance>findById("01", "instances").getHostname());
+    }
+
+    @Test
+    public void testFindSortedAndSliced() {
+        List<Instance> found = jsonDBTemplate.find((Instance i) -> !"01".equals(i.getId()), Instance.class,
+                Comparator.comparing(Instance::getHostname).reversed(), "0:3");
+        assertEquals(List.of("06", "02", "03"), ids(found));
+    }
+
+    @Test
+    public void testParallelScanKeepsCollectionOrder() throws Exception {
+        Predicate<Instance> predicate = i -> !"04".equals(i.getId());
+        List<String> sequential = ids(jsonDBTemplate.find(predicate, Instance.class));
+        JsonDBTemplate parallel = template(1);
+        assertEquals(sequential, ids(parallel.find(predicate, Instance.class)));
+        assertEquals("01", parallel.findOne(predicate, Instance.class).getId());
+    }
+
+    @Test
+    public void testFindOne() {
+        Instance found = jsonDBTemplate.findOne((Instance i) -> i.getHostname().endsWith("5"), Instance.class);
+        assertEquals("02", found.getId());
+        assertNull(jsonDBTemplate.findOne((Instance i) -> false, "instances"));
+    }
+
+    @Test
+    public void testFindAllAndRemove() {
+        List<Instance> removed = jsonDBTemplate.findAllAndRemove((Instance i) -> i.getId().compareTo("04") >= 0, Instance.class);
+        assertEquals(List.of("04", "05", "06"), ids(removed).stream().sorted().collect(Collectors.toList()));
+        assertEquals(List.of("01", "02", "03"), ids(jsonDBTemplate.findAll(Instance.class)));
+        assertNull(jsonDBTemplate.findAllAndRemove((Instance i) -> false, "instances"));
+    }
+
+    @Test
+    public void testFindAllAndModify() {
+        Update update = Update.update("privateKey", "SavingPrivateRyan");
+        List<Instance> modified = jsonDBTemplate.findAllAndModify((Instance i) -> i.getId().compareTo("05") >= 0, update, Instance.class);
+        assertEquals(2, modified.size());
+        assertEquals("SavingPrivateRyan", modified.get(0).getPrivateKey());
+
+        Instance stored = jsonDBTemplate.findById("06", Instance.class);
+        assertEquals("SavingPrivateRyan", stored.getPrivateKey());
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", jsonDBTemplate.<Instance>findById("04", "instances").getPrivateKey());
+    }
+
+    @Test
+    public void testNullPredicate() {
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.find((Predicate<Instance>) null, Instance.class));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findOne((Predicate<Instance>) null, Instance.class));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findAllAndRemove((Predicate<Instance>) null, Instance.class));
+    }
+
+    @Test
+    public void testUnknownCollection() {
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.find((Object o) -> true, "unknown"));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findAllAndModify((Object o) -> true, Update.update("hostname", "x"), "unknown"));
+    }
+}
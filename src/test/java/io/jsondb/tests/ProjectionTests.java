@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.InvalidJsonDbApiUsageException;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.crypto.Default1Cipher;
+import io.jsondb.crypto.ICipher;
+import io.jsondb.query.Projection;
+import io.jsondb.tests.model.Instance;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for find queries with a {@link Projection}
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class ProjectionTests {
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+    private final AtomicInteger decrypted = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, "instances.json"));
+        ICipher cipher = new Default1Cipher("1r8+24pibarAWgS85/Heeg==");
+        ICipher countingCipher = new ICipher() {
+            @Override
+            public String encrypt(String plainText) {
+                return cipher.encrypt(plainText);
+            }
+
+            @Override
+            public String decrypt(String cipherText) {
+                decrypted.incrementAndGet();
+                return cipher.decrypt(cipherText);
+            }
+        };
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", countingCipher);
+    }
+
+    @Test
+    public void testProjectionWithoutSecret() {
+        List<Map<String, Object>> found = jsonDBTemplate.findProjected("/.[id>'03']", Instance.class, Projection.of("hostname", "id"));
+        assertEquals(3, found.size());
+        assertEquals(List.of("hostname", "id"), List.copyOf(found.get(0).keySet()));
+        assertEquals("04", found.get(0).get("id"));
+        assertEquals("ec2-54-191-03", found.get(0).get("hostname"));
+        assertEquals(0, decrypted.get());
+    }
+
+    @Test
+    public void testProjectionWithSecret() {
+        List<Map<String, Object>> found = jsonDBTemplate.findProjected("/.[id='01']", "instances", Projection.of("id", "privateKey"));
+        assertEquals(1, found.size());
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", found.get(0).get("privateKey"));
+        assertEquals(1, decrypted.get());
+    }
+
+    @Test
+    public void testProjectionOfUnknownField() {
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findProjected(".", Instance.class, Projection.of("id", "region")));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> Projection.of());
+    }
+}
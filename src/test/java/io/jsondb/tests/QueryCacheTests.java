@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.QueryCacheStats;
+import io.jsondb.tests.model.Instance;
+import java.io.File;
+import java.util.List;
+import org.apache.commons.jxpath.JXPathException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the cache of compiled JXPath queries
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class QueryCacheTests {
+    @TempDir
+    private File dbFilesFolder;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, "instances.json"));
+    }
+
+    private JsonDBTemplate template(long cacheSize) {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", null, false, null);
+        dbConfig.setCompiledQueryCacheSize(cacheSize);
+        return new JsonDBTemplate(dbConfig);
+    }
+
+    @Test
+    public void testRepeatedQueryIsCompiledOnce() {
+        JsonDBTemplate jsonDBTemplate = template(10);
+        List<Instance> first = jsonDBTemplate.find("/.[hostname='ec2-54-191-03']", Instance.class);
+        List<Instance> second = jsonDBTemplate.find("/.[hostname='ec2-54-191-03']", Instance.class);
+        assertEquals(1, first.size());
+        assertEquals(first.get(0).getId(), second.get(0).getId());
+
+        QueryCacheStats stats = jsonDBTemplate.getQueryCacheStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testPlannedQueryUsesCacheForCandidates() {
+        JsonDBTemplate jsonDBTemplate = template(10);
+        assertEquals(1, jsonDBTemplate.find("/.[id='04' and hostname='ec2-54-191-03']", Instance.class).size());
+        assertEquals(0, jsonDBTemplate.find("/.[id='04' and hostname='other']", Instance.class).size());
+        jsonDBTemplate.findOne("/.[id='04' and hostname='ec2-54-191-03']", Instance.class);
+
+        QueryCacheStats stats = jsonDBTemplate.getQueryCacheStats();
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedQueriesAreEvicted() {
+        JsonDBTemplate jsonDBTemplate = template(2);
+        jsonDBTemplate.find("/.[hostname='ec2-54-191-01']", Instance.class);
+        jsonDBTemplate.find("/.[hostname='ec2-54-191-02']", Instance.class);
+        jsonDBTemplate.find("/.[hostname='ec2-54-191-03']", Instance.class);
+
+        QueryCacheStats stats = jsonDBTemplate.getQueryCacheStats();
+        assertEquals(3, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    public void testDisabledCache() {
+        JsonDBTemplate jsonDBTemplate = template(0);
+        assertEquals(1, jsonDBTemplate.find("/.[hostname='ec2-54-191-03']", Instance.class).size());
+        assertEquals(1, jsonDBTemplate.find("/.[hostname='ec2-54-191-03']", Instance.class).size());
+
+        QueryCacheStats stats = jsonDBTemplate.getQueryCacheStats();
+        assertEquals(0, stats.getHits());
+        assertEquals(0, stats.getMisses());
+        assertEquals(0, stats.getSize());
+    }
+
+    @Test
+    public void testInvalidQueryIsNotCached() {
+        JsonDBTemplate jsonDBTemplate = template(10);
+        assertThrows(JXPathException.class, () -> jsonDBTemplate.find("/.[hostname=", Instance.class));
+        assertEquals(0, jsonDBTemplate.getQueryCacheStats().getSize());
+    }
+}
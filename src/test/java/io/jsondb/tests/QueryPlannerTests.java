@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.query.Update;
+import io.jsondb.tests.model.Account;
+import io.jsondb.tests.model.Account.Status;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that queries planned against the indexes find exactly what JXPath finds.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class QueryPlannerTests {
+    private static final String[] REGIONS = {"eu", "us", "ap"};
+    private static final String[] PREDICATES = {
+        "region='eu' and status='ACTIVE'",
+        "region='eu' or region='ap'",
+        "(region='eu' or tier=3) and status='SUSPENDED'",
+        "region='eu' and name!='account a3'",
+        "region = \"us\" and tier > 2",
+        "id='a5' or id='a7' or id='nope'",
+        "'eu'=region and 2<tier",
+        "name='account a4' or region='eu'",
+        "id='a5' and tier=0",
+        "tier='4' and (status='ACTIVE' or status='CLOSED')",
+        "region=''"
+    };
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+
+    @BeforeEach
+    public void setUp() {
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model");
+        jsonDBTemplate.createCollection(Account.class);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Account account = new Account();
+            account.setId("a" + i);
+            account.setRegion(REGIONS[i % 3]);
+            account.setStatus(Status.values()[i % 3]);
+            account.setTier(i % 5);
+            account.setName("account a" + i);
+            accounts.add(account);
+        }
+        jsonDBTemplate.insert(accounts, Account.class);
+    }
+
+    private List<String> ids(List<Account> accounts) {
+        List<String> ids = new ArrayList<>();
+        for (Account account : accounts) {
+            ids.add(account.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * The true() function is not understood by the planner, so the whole query is evaluated by JXPath
+     */
+    private String unplanned(String predicate) {
+        return "/.[(" + predicate + ") and true()]";
+    }
+
+    @Test
+    public void testPlannedQueries() {
+        for (String predicate : PREDICATES) {
+            List<String> expected = ids(jsonDBTemplate.find(unplanned(predicate), Account.class));
+            assertEquals(expected, ids(jsonDBTemplate.find("/.[" + predicate + "]", Account.class)), predicate);
+            assertEquals(expected, ids(jsonDBTemplate.find(".[" + predicate + "]", Account.class)), predicate);
+            Account first = jsonDBTemplate.findOne("/.[" + predicate + "]", Account.class);
+            assertEquals(expected.isEmpty() ? null : expected.get(0), null == first ? null : first.getId(), predicate);
+        }
+        assertEquals(ids(jsonDBTemplate.find(unplanned("region='eu' and tier>2"), Account.class)),
+                ids(jsonDBTemplate.find("/.[region='eu'][tier>2]", Account.class)));
+    }
+
+    @Test
+    public void testPlannedWrites() {
+        List<String> modified = ids(jsonDBTemplate.find(unplanned("region='ap' and status='CLOSED'"), Account.class));
+        jsonDBTemplate.findAllAndModify("/.[region='ap' and status='CLOSED']", Update.update("tier", 9), Account.class);
+        assertEquals(modified, ids(jsonDBTemplate.find("/.[tier=9]", Account.class)));
+
+        List<String> removed = ids(jsonDBTemplate.find(unplanned("region='us' or tier=9"), Account.class));
+        // The modified and removed documents are not returned in any particular order
+        List<String> actuallyRemoved = ids(jsonDBTemplate.findAllAndRemove("/.[region='us' or tier=9]", Account.class));
+        removed.sort(null);
+        actuallyRemoved.sort(null);
+        assertEquals(removed, actuallyRemoved);
+        assertEquals(0, jsonDBTemplate.find(unplanned("region='us' or tier=9"), Account.class).size());
+
+        assertEquals("a0", jsonDBTemplate.findAndRemove("/.[region='eu' and tier=0]", Account.class).getId());
+        assertEquals("a15", jsonDBTemplate.findAndModify("/.[region='eu' and tier=0]", Update.update("name", "x"), Account.class).getId());
+    }
+}
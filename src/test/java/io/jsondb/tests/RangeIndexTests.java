@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import io.jsondb.InvalidJsonDbApiUsageException;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.query.Range;
+import io.jsondb.tests.model.Product;
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the indexes of @Indexed(type = RANGE) fields, the queries answered by a range index must find
+ * exactly what the same predicate evaluated by JXPath finds.
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class RangeIndexTests {
+    private static final double[] PRICES = {4.5, 10, -2, 10, 0, 99.99, 7};
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+
+    @BeforeEach
+    public void setUp() {
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model");
+        jsonDBTemplate.createCollection(Product.class);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Double price = i % 9 == 8 ? null : PRICES[i % PRICES.length];
+            products.add(product("p" + i, "sku-" + (char) ('a' + i % 26), price, LocalDate.of(2026, 1, 1 + i % 10)));
+        }
+        products.add(product("nan", "sku-z", Double.NaN, null));
+        jsonDBTemplate.insert(products, Product.class);
+    }
+
+    private Product product(String id, String sku, Double price, LocalDate createdAt) {
+        Product product = new Product();
+        product.setId(id);
+        product.setSku(sku);
+        product.setPrice(price);
+        product.setCreatedAt(createdAt);
+        product.setStock(id.length());
+        return product;
+    }
+
+    private List<String> ids(List<Product> products) {
+        List<String> ids = new ArrayList<>();
+        for (Product product : products) {
+            ids.add(product.getId());
+        }
+        return ids;
+    }
+
+    private List<String> find(String jxQuery) {
+        return ids(jsonDBTemplate.find(jxQuery, Product.class));
+    }
+
+    /**
+     * The planner does not understand true(), so the query with it is evaluated by JXPath
+     */
+    private void assertSameAsScan(String predicate) {
+        List<String> indexed = find("/.[" + predicate + "]");
+        assertEquals(find("/.[" + predicate + " and true()]"), indexed, predicate);
+    }
+
+    @Test
+    public void testRangePredicates() {
+        for (String operator : new String[] {"<", "<=", ">", ">="}) {
+            for (String literal : new String[] {"0", "-2", "7", "10", "10.0", "'10'", "1000", "-5", "'x'", "''"}) {
+                assertSameAsScan("price " + operator + " " + literal);
+                assertSameAsScan(literal + " " + operator + " price");
+            }
+        }
+        assertSameAsScan("price > 4 and price < 11");
+        assertSameAsScan("price < 0 or price >= 99");
+        assertSameAsScan("price >= 7 and sku = 'sku-b'");
+        assertSameAsScan("price = 0");
+        assertSameAsScan("stock >= 3");
+        assertSameAsScan("sku > 'sku-c'");
+    }
+
+    @Test
+    public void testEqualityOnDates() {
+        assertEquals(4, find("/.[createdAt='2026-01-03']").size());
+        assertSameAsScan("createdAt = '2026-01-03'");
+        assertSameAsScan("createdAt = '2026-01-3'");
+        assertSameAsScan("createdAt = '2027-01-01'");
+        assertSameAsScan("createdAt > '2026-01-03'");
+    }
+
+    @Test
+    public void testRangeIndexesFollowWrites() {
+        Product cheap = jsonDBTemplate.findById("p2", Product.class);
+        cheap.setPrice(1000.0);
+        jsonDBTemplate.save(cheap, Product.class);
+        jsonDBTemplate.remove(jsonDBTemplate.findById("p5", Product.class), Product.class);
+        jsonDBTemplate.insert(product("q1", "sku-0", -50.0, LocalDate.of(2025, 12, 31)));
+
+        assertSameAsScan("price < 0");
+        assertSameAsScan("price >= 99.99");
+        assertEquals("q1", jsonDBTemplate.findMin("price", Product.class).getId());
+        assertEquals("p2", jsonDBTemplate.<Product>findMax("price", "products").getId());
+        assertEquals("q1", jsonDBTemplate.findMin("createdAt", Product.class).getId());
+    }
+
+    @Test
+    public void testFindRangeFollowsRandomWrites() {
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            String id = "p" + random.nextInt(60);
+            Double price = random.nextInt(10) == 0 ? null : (double) random.nextInt(20);
+            Product existing = jsonDBTemplate.findById(id, Product.class);
+            if (null == existing) {
+                jsonDBTemplate.insert(product(id, "sku-" + i, price, LocalDate.of(2026, 2, 1 + i % 20)));
+            } else if (random.nextInt(3) == 0) {
+                jsonDBTemplate.remove(existing, Product.class);
+            } else {
+                existing.setPrice(price);
+                jsonDBTemplate.save(existing, Product.class);
+            }
+            if (i % 25 == 0) {
+                assertEquals(expectedRange(5, 15), ids(jsonDBTemplate.findRange(Range.of("price").atLeast(5).lessThan(15), Product.class)));
+            }
+        }
+        assertEquals(expectedRange(5, 15), ids(jsonDBTemplate.findRange(Range.of("price").atLeast(5).lessThan(15), Product.class)));
+    }
+
+    /**
+     * The ids of the documents whose price, a null price as 0, is within [from, to), by price and then
+     * in collection order, found by looking at every document
+     */
+    private List<String> expectedRange(double from, double to) {
+        List<Product> inRange = new ArrayList<>();
+        for (Product product : jsonDBTemplate.findAll(Product.class)) {
+            double price = null == product.getPrice() ? 0 : product.getPrice();
+            if (price >= from && price < to) {
+                inRange.add(product);
+            }
+        }
+        inRange.sort(Comparator.comparingDouble(product -> null == product.getPrice() ? 0 : product.getPrice()));
+        return ids(inRange);
+    }
+
+    @Test
+    public void testFindRange() {
+        List<Product> found = jsonDBTemplate.findRange(Range.of("price").atLeast(7).lessThan(10.0), Product.class);
+        assertEquals(List.of("p6", "p13", "p20", "p27", "p34"), ids(found));
+
+        found = jsonDBTemplate.findRange(Range.of("price").greaterThan(10).descending(), Product.class);
+        assertEquals(List.of("p5", "p12", "p19", "p33"), ids(found));
+
+        found = jsonDBTemplate.findRange(Range.of("price").atMost(0).limit(3), Product.class);
+        assertEquals(List.of("p2", "p9", "p16"), ids(found));
+
+        assertEquals(List.of(), ids(jsonDBTemplate.findRange(Range.of("price").greaterThan(10).lessThan(5), Product.class)));
+        assertEquals(List.of(), ids(jsonDBTemplate.findRange(Range.of("price").greaterThan(10).atMost(10), Product.class)));
+        assertEquals(40, jsonDBTemplate.findRange(Range.of("price"), Product.class).size());
+    }
+
+    @Test
+    public void testFindRangeOfStringsAndDates() {
+        List<Product> found = jsonDBTemplate.findRange(Range.of("sku").atLeast("sku-x").descending(), "products");
+        assertEquals(List.of("p25", "nan", "p24", "p23"), ids(found));
+
+        found = jsonDBTemplate.findRange(Range.of("createdAt").greaterThan(LocalDate.of(2026, 1, 8)), Product.class);
+        assertEquals(List.of("p8", "p18", "p28", "p38", "p9", "p19", "p29", "p39"), ids(found));
+        assertEquals(LocalDate.of(2026, 1, 10), jsonDBTemplate.findMax("createdAt", Product.class).getCreatedAt());
+    }
+
+    @Test
+    public void testMinAndMax() {
+        assertEquals("p2", jsonDBTemplate.findMin("price", Product.class).getId());
+        assertEquals("p5", jsonDBTemplate.findMax("price", Product.class).getId());
+        assertEquals("p0", jsonDBTemplate.findMin("sku", Product.class).getId());
+
+        jsonDBTemplate.findAllAndRemove("/.[id!='']", Product.class);
+        assertNull(jsonDBTemplate.findMin("price", Product.class));
+    }
+
+    @Test
+    public void testInvalidRanges() {
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findRange(Range.of("stock"), Product.class));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findRange(Range.of("price").atLeast("7"), Product.class));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findRange(Range.of("createdAt").atLeast("2026-01-01"), Product.class));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> jsonDBTemplate.findRange(null, Product.class));
+        assertThrows(InvalidJsonDbApiUsageException.class, () -> Range.of("price").limit(0));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.ReadMode;
+import io.jsondb.crypto.Default1Cipher;
+import io.jsondb.crypto.ICipher;
+import io.jsondb.tests.model.Instance;
+import io.jsondb.tests.model.PojoWithEnumFields;
+import io.jsondb.tests.model.PojoWithEnumFields.Status;
+import java.io.File;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for reading documents with {@link ReadMode#SHARED_UNSAFE}
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class ReadModeTests {
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, "instances.json"));
+        Files.copy(new File("src/test/resources/dbfiles/pojowithenumfields.json"), new File(dbFilesFolder, "pojowithenumfields.json"));
+        ICipher cipher = new Default1Cipher("1r8+24pibarAWgS85/Heeg==");
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", cipher);
+    }
+
+    @Test
+    public void testReadOnlyReturnsStoredDocuments() {
+        PojoWithEnumFields byId = jsonDBTemplate.findById("0001", PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE);
+        assertSame(byId, jsonDBTemplate.findById("0001", PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE));
+        assertSame(byId, jsonDBTemplate.findOne("/.[id='0001']", PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE));
+        assertNotSame(byId, jsonDBTemplate.findById("0001", PojoWithEnumFields.class));
+
+        List<PojoWithEnumFields> found = jsonDBTemplate.find("/.[id='0001']", PojoWithEnumFields.class, null, null, ReadMode.SHARED_UNSAFE);
+        assertEquals(1, found.size());
+        assertSame(byId, found.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> found.add(new PojoWithEnumFields()));
+
+        List<PojoWithEnumFields> all = jsonDBTemplate.findAll(PojoWithEnumFields.class, null, "0:1", ReadMode.SHARED_UNSAFE);
+        assertEquals(1, all.size());
+        assertThrows(UnsupportedOperationException.class, () -> all.remove(0));
+
+        List<PojoWithEnumFields> collection = jsonDBTemplate.getCollection(PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE);
+        assertThrows(UnsupportedOperationException.class, () -> collection.clear());
+    }
+
+    @Test
+    public void testReadOnlyDocumentKeepsItsState() {
+        PojoWithEnumFields before = jsonDBTemplate.findById("0001", PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE);
+
+        PojoWithEnumFields changed = new PojoWithEnumFields();
+        changed.setId("0001");
+        changed.setStatus(Status.UPDATED);
+        jsonDBTemplate.save(changed, PojoWithEnumFields.class);
+
+        assertEquals(Status.CREATED, before.getStatus());
+        PojoWithEnumFields after = jsonDBTemplate.findById("0001", PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE);
+        assertNotSame(before, after);
+        assertEquals(Status.UPDATED, after.getStatus());
+    }
+
+    @Test
+    public void testConfiguredReadMode() throws Exception {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model",
+                new Default1Cipher("1r8+24pibarAWgS85/Heeg=="), false, null);
+        dbConfig.setReadMode(ReadMode.SHARED_UNSAFE);
+        JsonDBTemplate jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        PojoWithEnumFields byId = jsonDBTemplate.findById("0001", PojoWithEnumFields.class);
+        assertSame(byId, jsonDBTemplate.findAll(PojoWithEnumFields.class, null, null, null).stream()
+                .filter(p -> "0001".equals(p.getId())).findFirst().get());
+        assertNotSame(byId, jsonDBTemplate.findById("0001", PojoWithEnumFields.class, ReadMode.COPY));
+    }
+
+    @Test
+    public void testReadOnlyDecryptsSecretFields() {
+        Instance first = jsonDBTemplate.findById("01", Instance.class, ReadMode.SHARED_UNSAFE);
+        Instance second = jsonDBTemplate.findById("01", Instance.class, ReadMode.SHARED_UNSAFE);
+        assertNotSame(first, second);
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", first.getPrivateKey());
+
+        List<Instance> instances = jsonDBTemplate.findAll(Instance.class, null, null, ReadMode.SHARED_UNSAFE);
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", instances.get(0).getPrivateKey());
+        assertThrows(UnsupportedOperationException.class, () -> instances.clear());
+    }
+}
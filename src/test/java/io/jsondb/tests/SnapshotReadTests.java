@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.crypto.Default1Cipher;
+import io.jsondb.crypto.ICipher;
+import io.jsondb.tests.model.Instance;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that readers use the published version of a collection without waiting for writers
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class SnapshotReadTests {
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+    private BlockingCipher cipher;
+
+    /**
+     * A cipher whose encrypt, invoked by writers holding the collection lock, waits until it is released
+     */
+    private static class BlockingCipher implements ICipher {
+        private final ICipher cipher;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blocking;
+
+        BlockingCipher(ICipher cipher) {
+            this.cipher = cipher;
+        }
+
+        @Override
+        public String encrypt(String plainText) {
+            if (blocking) {
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return cipher.encrypt(plainText);
+        }
+
+        @Override
+        public String decrypt(String cipherText) {
+            return cipher.decrypt(cipherText);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, "instances.json"));
+        cipher = new BlockingCipher(new Default1Cipher("1r8+24pibarAWgS85/Heeg=="));
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", cipher);
+    }
+
+    @Test
+    public void testReadsDoNotWaitForWriter() throws Exception {
+        int before = jsonDBTemplate.findAll(Instance.class).size();
+
+        Instance instance = new Instance();
+        instance.setId("99");
+        instance.setHostname("ec2-54-191-99");
+        instance.setPrivateKey("b87eb02f5dd7e5232d7b0fc30a5015e4");
+        instance.setPublicKey("d3aa045f71bf4d1dffd2c5f485a4bc1d");
+        cipher.blocking = true;
+        CompletableFuture<Void> insert = CompletableFuture.runAsync(() -> jsonDBTemplate.insert(instance));
+        try {
+            assertTrue(cipher.entered.await(10, TimeUnit.SECONDS));
+
+            // The insert holds the write lock of the collection now
+            List<Instance> all = CompletableFuture.supplyAsync(() -> jsonDBTemplate.findAll(Instance.class)).get(5, TimeUnit.SECONDS);
+            assertEquals(before, all.size());
+            Instance found = CompletableFuture.supplyAsync(() -> jsonDBTemplate.findById("01", Instance.class)).get(5, TimeUnit.SECONDS);
+            assertNotNull(found);
+            List<Instance> queried = CompletableFuture.supplyAsync(() -> jsonDBTemplate.find("/.[id='99']", Instance.class)).get(5, TimeUnit.SECONDS);
+            assertEquals(0, queried.size());
+        } finally {
+            cipher.blocking = false;
+            cipher.release.countDown();
+        }
+        insert.get(10, TimeUnit.SECONDS);
+
+        assertEquals(before + 1, jsonDBTemplate.findAll(Instance.class).size());
+        assertEquals("ec2-54-191-99", jsonDBTemplate.findOne("/.[id='99']", Instance.class).getHostname());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests;
+
+import com.google.common.io.Files;
+import io.jsondb.JsonDBConfig;
+import io.jsondb.JsonDBTemplate;
+import io.jsondb.ReadMode;
+import io.jsondb.crypto.Default1Cipher;
+import io.jsondb.crypto.ICipher;
+import io.jsondb.tests.model.Instance;
+import io.jsondb.tests.model.PojoWithEnumFields;
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for the lazy Stream query API
+ *
+ * @version 1.0 17-Oct-2026
+ */
+public class StreamQueryTests {
+    @TempDir
+    private File dbFilesFolder;
+    private JsonDBTemplate jsonDBTemplate = null;
+    private CountingCipher cipher;
+
+    private static class CountingCipher implements ICipher {
+        private final ICipher cipher;
+        private final AtomicInteger decrypted = new AtomicInteger();
+
+        CountingCipher(ICipher cipher) {
+            this.cipher = cipher;
+        }
+
+        @Override
+        public String encrypt(String plainText) {
+            return cipher.encrypt(plainText);
+        }
+
+        @Override
+        public String decrypt(String cipherText) {
+            decrypted.incrementAndGet();
+            return cipher.decrypt(cipherText);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Files.copy(new File("src/test/resources/dbfiles/instances.json"), new File(dbFilesFolder, "instances.json"));
+        Files.copy(new File("src/test/resources/dbfiles/pojowithenumfields.json"), new File(dbFilesFolder, "pojowithenumfields.json"));
+        cipher = new CountingCipher(new Default1Cipher("1r8+24pibarAWgS85/Heeg=="));
+        jsonDBTemplate = new JsonDBTemplate(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", cipher);
+    }
+
+    @Test
+    public void testStreamMatchesFind() {
+        List<String> expected = jsonDBTemplate.find("/.[id>'02']", Instance.class).stream()
+                .map(Instance::getId).collect(Collectors.toList());
+        List<String> streamed = jsonDBTemplate.<Instance>stream("/.[id>'02']", Instance.class)
+                .map(Instance::getId).collect(Collectors.toList());
+        assertEquals(expected, streamed);
+
+        List<String> all = jsonDBTemplate.<Instance>streamAll(Instance.class).map(Instance::getPrivateKey).collect(Collectors.toList());
+        assertEquals(jsonDBTemplate.findAll(Instance.class).size(), all.size());
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", all.get(0));
+    }
+
+    @Test
+    public void testStreamDecryptsOnlyWhatIsPulled() {
+        cipher.decrypted.set(0);
+        Instance first = jsonDBTemplate.<Instance>streamAll(Instance.class).findFirst().get();
+        assertEquals("b87eb02f5dd7e5232d7b0fc30a5015e4", first.getPrivateKey());
+        assertEquals(1, cipher.decrypted.get());
+
+        cipher.decrypted.set(0);
+        assertEquals(2, jsonDBTemplate.stream("/.[hostname!='']", Instance.class).limit(2).count());
+        assertEquals(2, cipher.decrypted.get());
+    }
+
+    @Test
+    public void testStreamEvaluatesQueryAsItIsPulled() throws Exception {
+        JsonDBConfig dbConfig = new JsonDBConfig(dbFilesFolder.getAbsolutePath(), "io.jsondb.tests.model", cipher, false, null);
+        dbConfig.setParallelScanMinDocuments(1);
+        jsonDBTemplate = new JsonDBTemplate(dbConfig);
+        Iterator<PojoWithEnumFields> streamed = jsonDBTemplate.<PojoWithEnumFields>stream("/.[status='CONSUMED']", PojoWithEnumFields.class).iterator();
+
+        // A stored document changed after the Stream was created is only seen if the query had not run yet
+        PojoWithEnumFields stored = jsonDBTemplate.findById("0001", PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE);
+        stored.setStatus(PojoWithEnumFields.Status.CONSUMED);
+        assertEquals("0001", streamed.next().getId());
+        assertEquals("0003", streamed.next().getId());
+        assertFalse(streamed.hasNext());
+    }
+
+    @Test
+    public void testStreamRunsAgainstSnapshot() {
+        List<PojoWithEnumFields> before = jsonDBTemplate.findAll(PojoWithEnumFields.class);
+        Stream<PojoWithEnumFields> stream = jsonDBTemplate.streamAll(PojoWithEnumFields.class);
+
+        PojoWithEnumFields pojo = new PojoWithEnumFields();
+        pojo.setId("9999");
+        pojo.setStatus(PojoWithEnumFields.Status.CREATED);
+        jsonDBTemplate.insert(pojo);
+
+        assertEquals(before.size(), stream.count());
+        assertEquals(before.size() + 1, jsonDBTemplate.streamAll(PojoWithEnumFields.class).count());
+    }
+
+    @Test
+    public void testReadOnlyStream() {
+        PojoWithEnumFields stored = jsonDBTemplate.findById("0001", PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE);
+        PojoWithEnumFields streamed = jsonDBTemplate.<PojoWithEnumFields>stream("/.[id='0001']", PojoWithEnumFields.class, ReadMode.SHARED_UNSAFE)
+                .findFirst().get();
+        assertSame(stored, streamed);
+    }
+}
@@ -239,4 +239,18 @@ public class UtilTests {
         assertEquals(4, indexes.size());
         assertArrayEquals(new Integer[] { 7, 6, 5, 4 }, indexes.toArray());
     }
+
+    @Test
+    public void test_SliceBound() {
+        assertEquals(50, Util.getSliceBound("0:50"));
+        assertEquals(60, Util.getSliceBound("10:60:2"));
+        assertEquals(-50, Util.getSliceBound("-50:"));
+        assertEquals(10, Util.getSliceBound("9::-1"));
+        assertEquals(-19, Util.getSliceBound("-1:-20:-1"));
+        assertEquals(0, Util.getSliceBound("::-1"));
+        assertEquals(0, Util.getSliceBound("5:"));
+        assertEquals(0, Util.getSliceBound("3:-2"));
+        assertEquals(0, Util.getSliceBound("1:2::4"));
+        assertEquals(0, Util.getSliceBound(null));
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Farooq Khan
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.jsondb.tests.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.jsondb.annotation.Document;
+import io.jsondb.annotation.Id;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A POJO with nested POJOs, collections, maps, arrays, enums and dates
+ *
+ * @version 1.0 17-Oct-2026
+ */
+@Document(collection = "pojowithnestedtypes", schemaVersion = "1.0")
+public class PojoWithNestedTypes {
+  @Id
+  private String id;
+  private PojoWithEnumFields.Status status;
+  private Site site;
+  private List<Site> sites;
+  private Map<String, Volume> volumes;
+  private Set<String> tags;
+  private int[] ports;
+  private LocalDateTime created;
+  private Date updated;
+  private Object any;
+  @JsonIgnore
+  private String note;
+
+  public String getId() {
+    return id;
+  }
+  public void setId(String id) {
+    this.id = id;
+  }
+  public PojoWithEnumFields.Status getStatus() {
+    return status;
+  }
+  public void setStatus(PojoWithEnumFields.Status status) {
+    this.status = status;
+  }
+  public Site getSite() {
+    return site;
+  }
+  public void setSite(Site site) {
+    this.site = site;
+  }
+  public List<Site> getSites() {
+    return sites;
+  }
+  public void setSites(List<Site> sites) {
+    this.sites = sites;
+  }
+  public Map<String, Volume> getVolumes() {
+    return volumes;
+  }
+  public void setVolumes(Map<String, Volume> volumes) {
+    this.volumes = volumes;
+  }
+  public Set<String> getTags() {
+    return tags;
+  }
+  public void setTags(Set<String> tags) {
+    this.tags = tags;
+  }
+  public int[] getPorts() {
+    return ports;
+  }
+  public void setPorts(int[] ports) {
+    this.ports = ports;
+  }
+  public LocalDateTime getCreated() {
+    return created;
+  }
+  public void setCreated(LocalDateTime created) {
+    this.created = created;
+  }
+  public Date getUpdated() {
+    return updated;
+  }
+  public void setUpdated(Date updated) {
+    this.updated = updated;
+  }
+  public Object getAny() {
+    return any;
+  }
+  public void setAny(Object any) {
+    this.any = any;
+  }
+  public String getNote() {
+    return note;
+  }
+  public void setNote(String note) {
+    this.note = note;
+  }
+}